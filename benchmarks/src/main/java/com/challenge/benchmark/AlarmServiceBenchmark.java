@@ -0,0 +1,60 @@
+package com.challenge.benchmark;
+
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorType;
+import com.challenge.domain.ThresholdConfig;
+import com.challenge.service.AlarmService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Covers the three outcomes of {@link AlarmService#onMeasurement}: below threshold, an alarm whose key is already in the
+ * dedup window (hit) and an alarm for a key seen for the first time (miss). Misses cycle through more sensors than the
+ * dedup window keeps, so every call inserts a fresh key.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@org.openjdk.jmh.annotations.Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=off")
+public class AlarmServiceBenchmark {
+
+    private static final int MISS_SENSORS = 1 << 20;
+
+    private AlarmService alarmService;
+    private Measurement belowThreshold;
+    private Measurement repeatedAlarm;
+    private Measurement[] distinctAlarms;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        alarmService = new AlarmService(new ThresholdConfig(35, 50));
+        belowThreshold = new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 20, 1_700_000_000_000L);
+        repeatedAlarm = new Measurement("WH-1", "t2", SensorType.TEMPERATURE, 40, 1_700_000_000_000L);
+        alarmService.onMeasurement(repeatedAlarm);
+
+        distinctAlarms = new Measurement[MISS_SENSORS];
+        for (int i = 0; i < MISS_SENSORS; i++) {
+            distinctAlarms[i] = new Measurement("WH-1", "s" + i, SensorType.HUMIDITY, 60, 1_700_000_000_000L);
+        }
+    }
+
+    @Benchmark
+    public void belowThreshold() {
+        alarmService.onMeasurement(belowThreshold);
+    }
+
+    @Benchmark
+    public void dedupHit() {
+        alarmService.onMeasurement(repeatedAlarm);
+    }
+
+    @Benchmark
+    public void dedupMiss() {
+        alarmService.onMeasurement(distinctAlarms[next]);
+        next = (next + 1) & (MISS_SENSORS - 1);
+    }
+}
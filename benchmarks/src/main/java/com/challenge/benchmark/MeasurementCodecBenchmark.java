@@ -0,0 +1,43 @@
+package com.challenge.benchmark;
+
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorType;
+import com.challenge.serialization.BinaryMeasurementCodec;
+import com.challenge.serialization.MeasurementCodec;
+import com.challenge.serialization.MeasurementJsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@org.openjdk.jmh.annotations.Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeasurementCodecBenchmark {
+
+    @Param({"json", "binary"})
+    public String format;
+
+    private MeasurementCodec codec;
+    private Measurement measurement;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        codec = "json".equals(format) ? new MeasurementJsonMapper() : new BinaryMeasurementCodec();
+        measurement = new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 30, 1_700_000_000_000L);
+        encoded = codec.encode(measurement);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(measurement);
+    }
+
+    @Benchmark
+    public Measurement decode() {
+        return codec.decode(encoded);
+    }
+}
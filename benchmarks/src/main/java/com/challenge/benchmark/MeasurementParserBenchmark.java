@@ -0,0 +1,69 @@
+package com.challenge.benchmark;
+
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorType;
+import com.challenge.parser.MeasurementParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@org.openjdk.jmh.annotations.Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=off")
+public class MeasurementParserBenchmark {
+
+    private static final String VALID = "sensor_id=t1; value=30";
+    // Misses the byte-level fast path but still parses through the tolerant fallback.
+    private static final String TOLERANT = "sensor_id = t1 ; value = 30 ; unit = c";
+    // Rejected outright, the branch the listener counts as malformed.
+    private static final String MALFORMED = "sensor_id=t1; value=abc";
+
+    private MeasurementParser parser;
+    private ByteBuffer validBytes;
+    private ByteBuffer tolerantBytes;
+    private ByteBuffer malformedBytes;
+
+    @Setup
+    public void setUp() {
+        parser = new MeasurementParser("WH-1");
+        validBytes = ByteBuffer.wrap(VALID.getBytes(StandardCharsets.UTF_8));
+        tolerantBytes = ByteBuffer.wrap(TOLERANT.getBytes(StandardCharsets.UTF_8));
+        malformedBytes = ByteBuffer.wrap(MALFORMED.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Optional<Measurement> parseString() {
+        return parser.parse(VALID, SensorType.TEMPERATURE);
+    }
+
+    @Benchmark
+    public Optional<Measurement> parseBytes() {
+        return parser.parse(validBytes, SensorType.TEMPERATURE);
+    }
+
+    @Benchmark
+    public Optional<Measurement> parseTolerantString() {
+        return parser.parse(TOLERANT, SensorType.TEMPERATURE);
+    }
+
+    @Benchmark
+    public Optional<Measurement> parseTolerantBytes() {
+        return parser.parse(tolerantBytes, SensorType.TEMPERATURE);
+    }
+
+    @Benchmark
+    public Optional<Measurement> parseMalformedString() {
+        return parser.parse(MALFORMED, SensorType.TEMPERATURE);
+    }
+
+    @Benchmark
+    public Optional<Measurement> parseMalformedBytes() {
+        return parser.parse(malformedBytes, SensorType.TEMPERATURE);
+    }
+}
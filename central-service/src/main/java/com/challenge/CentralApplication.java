@@ -1,9 +1,18 @@
 package com.challenge;
 
+import com.challenge.api.QueryServer;
+import com.challenge.concurrent.TaskDispatcher;
+import com.challenge.config.CentralConfig;
+import com.challenge.config.RulesFileWatcher;
 import com.challenge.config.ThresholdProvider;
 import com.challenge.consumer.JmsMeasurementConsumer;
+import com.challenge.metrics.MetricsRegistry;
+import com.challenge.metrics.MetricsServer;
 import com.challenge.serialization.MeasurementJsonMapper;
 import com.challenge.service.AlarmService;
+import com.challenge.service.MeasurementHandler;
+import com.challenge.store.MeasurementStore;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,22 +21,37 @@ public class CentralApplication {
     private static final Logger logger = LoggerFactory.getLogger(CentralApplication.class);
 
     public static void main(String[] args) {
+        final var centralConfig = CentralConfig.load();
         final var thresholds = ThresholdProvider.load();
-        final var alarmService = new AlarmService(thresholds);
+        final var metrics = new MetricsRegistry();
+        final var alarmService = new AlarmService(thresholds, ThresholdProvider.loadRules(), centralConfig.dedup(), centralConfig.aggregationEnabled(), metrics);
         final var mapper = new MeasurementJsonMapper();
+        final var dispatcher = new TaskDispatcher(centralConfig.execution(), "alarm-dispatch");
+        final var store = centralConfig.store().enabled() ? new MeasurementStore(centralConfig.store()) : null;
+        final MeasurementHandler handler = store != null ? alarmService.andThen(store) : alarmService;
 
-        final var brokerUrl = readEnv("BROKER_URL", "tcp://activemq:61616");
-        final var destinationName = readEnv("DESTINATION_NAME", "measurements.queue");
-
-        @SuppressWarnings("resource") final var consumer = new JmsMeasurementConsumer(brokerUrl, destinationName, alarmService, mapper);
+        @SuppressWarnings("resource") final var consumer = new JmsMeasurementConsumer(
+                centralConfig.brokerUrl(), centralConfig.destinationName(), handler, mapper, centralConfig.consumer(), centralConfig.reconnect(), dispatcher, metrics);
         consumer.start();
 
+        final var rulesWatcher = startRulesWatcher(alarmService, dispatcher, metrics);
+        final var queryServer = startQueryServer(centralConfig.queryPort(), alarmService, store, dispatcher);
+        final var metricsServer = startMetricsServer(centralConfig.metricsPort(), metrics);
+
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             logger.info("Shutting down central-service");
+            if (metricsServer != null) metricsServer.close();
+            if (queryServer != null) queryServer.close();
+            if (rulesWatcher != null) rulesWatcher.close();
             try {
                 consumer.close();
             } catch (Exception ignored) {
             }
+            try {
+                dispatcher.close();
+            } catch (Exception ignored) {
+            }
+            if (store != null) store.close();
         }));
 
         logger.info("""
@@ -39,14 +63,52 @@ public class CentralApplication {
                         \\____/  \\___//_/ /_/\\__/ /_/    \\__,_/ /_/      /____/ \\___//_/    _____/ /_/  \\___/ \\___/\s
                 \s""");
 
-        logger.info("central-service started. brokerUrl={} destination={}", brokerUrl, destinationName);
+        logger.info("central-service started. brokerUrl={} destination={} consumer={} execution={} dedup={}",
+                centralConfig.brokerUrl(), centralConfig.destinationName(), centralConfig.consumer(), centralConfig.execution(), centralConfig.dedup());
 
         keepAlive();
     }
 
-    private static String readEnv(String name, String defaultValue) {
-        final var value = System.getenv(name);
-        return (value == null || value.isBlank()) ? defaultValue : value;
+    private static @Nullable RulesFileWatcher startRulesWatcher(final AlarmService alarmService, final TaskDispatcher dispatcher,
+                                                                final MetricsRegistry metrics) {
+        final var rulesFile = ThresholdProvider.rulesFile();
+        if (rulesFile.isEmpty()) return null;
+
+        try {
+            final var watcher = new RulesFileWatcher(rulesFile.get(), alarmService::updateRules, dispatcher.threadFactory("alarm-rules-watcher"), metrics);
+            watcher.start();
+            return watcher;
+        } catch (final Exception ex) {
+            logger.warn("Unable to watch alarm rules file {}; rules will not hot-reload. error={}", rulesFile.get(), ex.toString());
+            return null;
+        }
+    }
+
+    private static @Nullable QueryServer startQueryServer(final int port, final AlarmService alarmService,
+                                                          @Nullable final MeasurementStore store, final TaskDispatcher dispatcher) {
+        if (port <= 0) return null;
+
+        try {
+            final var server = new QueryServer(port, alarmService, store, dispatcher.threadFactory("query-api"));
+            server.start();
+            return server;
+        } catch (final Exception ex) {
+            logger.warn("Unable to start query API on port {}. error={}", port, ex.toString());
+            return null;
+        }
+    }
+
+    private static @Nullable MetricsServer startMetricsServer(final int port, final MetricsRegistry metrics) {
+        if (port <= 0) return null;
+
+        try {
+            final var server = new MetricsServer(port, metrics);
+            server.start();
+            return server;
+        } catch (final Exception ex) {
+            logger.warn("Unable to start metrics endpoint on port {}. error={}", port, ex.toString());
+            return null;
+        }
     }
 
     private static void keepAlive() {
@@ -0,0 +1,314 @@
+package com.challenge.api;
+
+import com.challenge.domain.AggregationWindow;
+import com.challenge.domain.SensorType;
+import com.challenge.domain.WindowStats;
+import com.challenge.service.AlarmService;
+import com.challenge.store.MeasurementStore;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Read-only HTTP API over the measurement store, window aggregates and recent alarms. Every endpoint answers with
+ * chunked NDJSON written row by row while the store is scanned, so result sets are never held in memory. Each request runs
+ * on its own thread and the store is scanned without its append lock, so queries never pause ingestion.
+ * <pre>
+ *   GET /measurements?sensorId=&type=[&warehouseId=][&from=][&to=][&limit=]
+ *   GET /aggregates?sensorId=&type=&step=[&warehouseId=][&from=][&to=]
+ *   GET /windows?sensorId=&type=[&warehouseId=]
+ *   GET /alarms[?warehouseId=][&sensorId=][&from=][&to=]
+ * </pre>
+ * {@code from}/{@code to} are epoch millis and default to the last hour.
+ */
+public class QueryServer implements AutoCloseable {
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final long DEFAULT_RANGE_MILLIS = Duration.ofHours(1).toMillis();
+    private static final int DEFAULT_LIMIT = 100_000;
+    private static final int MAX_BUCKETS = 100_000;
+    private static final Logger logger = LoggerFactory.getLogger(QueryServer.class);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AlarmService alarmService;
+    private final @Nullable MeasurementStore store;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private static final class BadRequestException extends RuntimeException {
+        private BadRequestException(final String message) {
+            super(message);
+        }
+    }
+
+    public QueryServer(final int port, @NotNull final AlarmService alarmService, @Nullable final MeasurementStore store,
+                       @NotNull final ThreadFactory threadFactory) throws IOException {
+        this.alarmService = alarmService;
+        this.store = store;
+        this.executor = Executors.newThreadPerTaskExecutor(threadFactory);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+
+        server.createContext("/measurements", handler(this::measurements));
+        server.createContext("/aggregates", handler(this::aggregates));
+        server.createContext("/windows", handler(this::windows));
+        server.createContext("/alarms", handler(this::alarms));
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Query API listening on port {}", port());
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @FunctionalInterface
+    private interface QueryHandler {
+        void handle(Map<String, String> params, Range range, JsonGenerator out) throws IOException;
+    }
+
+    /**
+     * The request's {@code from <= timestamp < to}, with defaults resolved against one clock reading so validation,
+     * bucketing and the scan all agree on it.
+     */
+    private record Range(long from, long to) {
+        private static Range of(final Map<String, String> params) {
+            final var to = longParam(params, "to", System.currentTimeMillis());
+            return new Range(longParam(params, "from", to - DEFAULT_RANGE_MILLIS), to);
+        }
+    }
+
+    private HttpHandler handler(final QueryHandler query) {
+        return exchange -> {
+            try (exchange) {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    sendError(exchange, 405, "Only GET is supported");
+                    return;
+                }
+
+                final Map<String, String> params;
+                final Range range;
+                try {
+                    params = parseQuery(exchange.getRequestURI().getRawQuery());
+                    range = Range.of(params);
+                    validate(exchange.getRequestURI().getPath(), params, range);
+                } catch (final BadRequestException ex) {
+                    sendError(exchange, 400, ex.getMessage());
+                    return;
+                }
+
+                exchange.getResponseHeaders().set("Content-Type", NDJSON);
+                exchange.sendResponseHeaders(200, 0);
+                try (final var out = jsonFactory.createGenerator(exchange.getResponseBody())) {
+                    out.setRootValueSeparator(null);
+                    query.handle(params, range, out);
+                }
+            } catch (final IOException | UncheckedIOException ex) {
+                logger.debug("Query aborted. error={}", ex.toString());
+            } catch (final RuntimeException ex) {
+                logger.warn("Query failed. error={}", ex.toString());
+            }
+        };
+    }
+
+    private void validate(final String path, final Map<String, String> params, final Range range) {
+        if (!path.endsWith("/alarms")) {
+            required(params, "sensorId");
+            sensorType(params);
+        }
+        if ((path.endsWith("/measurements") || path.endsWith("/aggregates")) && store == null) {
+            throw new BadRequestException("Measurement store is disabled (STORE_ENABLED=false)");
+        }
+        if (path.endsWith("/aggregates")) {
+            final var step = longParam(params, "step", 0);
+            final var span = range.to() - range.from();
+            if (step <= 0) throw new BadRequestException("step must be a positive number of millis");
+            if (span <= 0 || span / step >= MAX_BUCKETS) {
+                throw new BadRequestException("from/to/step must produce between 1 and " + MAX_BUCKETS + " buckets");
+            }
+        }
+    }
+
+    private void measurements(final Map<String, String> params, final Range range, final JsonGenerator out) {
+        final var limit = (int) longParam(params, "limit", DEFAULT_LIMIT);
+        final var written = new int[1];
+
+        Objects.requireNonNull(store).scan(params.get("warehouseId"), params.get("sensorId"), sensorType(params), range.from(), range.to(),
+                (timestamp, value) -> {
+                    writeLine(out, generator -> {
+                        generator.writeNumberField("ts", timestamp);
+                        generator.writeNumberField("value", value);
+                    });
+                    return ++written[0] < limit;
+                });
+    }
+
+    private void aggregates(final Map<String, String> params, final Range range, final JsonGenerator out) {
+        final var from = range.from();
+        final var step = longParam(params, "step", 0);
+        final var buckets = (int) ((range.to() - from + step - 1) / step);
+
+        final var count = new int[buckets];
+        final var min = new int[buckets];
+        final var max = new int[buckets];
+        final var sum = new long[buckets];
+        Arrays.fill(min, Integer.MAX_VALUE);
+        Arrays.fill(max, Integer.MIN_VALUE);
+
+        Objects.requireNonNull(store).scan(params.get("warehouseId"), params.get("sensorId"), sensorType(params), from, range.to(),
+                (timestamp, value) -> {
+                    final var bucket = (int) ((timestamp - from) / step);
+                    count[bucket]++;
+                    min[bucket] = Math.min(min[bucket], value);
+                    max[bucket] = Math.max(max[bucket], value);
+                    sum[bucket] += value;
+                    return true;
+                });
+
+        for (int i = 0; i < buckets; i++) {
+            if (count[i] == 0) continue;
+            writeStats(out, new WindowStats(from + i * step, from + (i + 1) * step, count[i], min[i], max[i], sum[i]), null);
+        }
+    }
+
+    private void windows(final Map<String, String> params, final Range range, final JsonGenerator out) {
+        final var warehouseId = params.get("warehouseId");
+        final var sensorId = params.get("sensorId");
+        final var type = sensorType(params);
+
+        for (final var window : AggregationWindow.values()) {
+            alarmService.slidingStats(warehouseId, sensorId, type, window)
+                    .ifPresent(stats -> writeStats(out, stats, window + "/sliding"));
+            alarmService.tumblingStats(warehouseId, sensorId, type, window)
+                    .ifPresent(stats -> writeStats(out, stats, window + "/tumbling"));
+        }
+    }
+
+    private void alarms(final Map<String, String> params, final Range range, final JsonGenerator out) {
+        final var warehouseId = params.get("warehouseId");
+        final var sensorId = params.get("sensorId");
+        final var from = range.from();
+        final var to = range.to();
+
+        alarmService.forEachRecentAlarm(alarm -> {
+            if (alarm.timestamp() < from || alarm.timestamp() >= to) return true;
+            if (warehouseId != null && !warehouseId.equals(alarm.warehouseId())) return true;
+            if (sensorId != null && !sensorId.equals(alarm.sensorId())) return true;
+
+            writeLine(out, generator -> {
+                generator.writeStringField("warehouseId", alarm.warehouseId());
+                generator.writeStringField("sensorId", alarm.sensorId());
+                generator.writeStringField("type", alarm.type().name());
+                generator.writeNumberField("value", alarm.value());
+                generator.writeNumberField("threshold", alarm.thresholdUsed());
+                generator.writeNumberField("ts", alarm.timestamp());
+            });
+            return true;
+        });
+    }
+
+    private static void writeStats(final JsonGenerator out, final WindowStats stats, @Nullable final String window) {
+        writeLine(out, generator -> {
+            if (window != null) generator.writeStringField("window", window);
+            generator.writeNumberField("from", stats.from());
+            generator.writeNumberField("to", stats.to());
+            generator.writeNumberField("count", stats.count());
+            if (stats.count() > 0) {
+                generator.writeNumberField("min", stats.min());
+                generator.writeNumberField("max", stats.max());
+                generator.writeNumberField("avg", stats.average());
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Fields {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    // Each object is flushed as its own line so the client sees rows as they are scanned.
+    private static void writeLine(final JsonGenerator out, final Fields fields) {
+        try {
+            out.writeStartObject();
+            fields.write(out);
+            out.writeEndObject();
+            out.writeRaw('\n');
+            out.flush();
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void sendError(final HttpExchange exchange, final int status, final String message) throws IOException {
+        final var body = ("{\"error\":\"" + message.replace("\"", "'") + "\"}\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static Map<String, String> parseQuery(@Nullable final String rawQuery) {
+        final var params = new HashMap<String, String>();
+        if (rawQuery == null || rawQuery.isBlank()) return params;
+
+        for (final var pair : rawQuery.split("&")) {
+            final var separator = pair.indexOf('=');
+            if (separator <= 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String required(final Map<String, String> params, final String name) {
+        final var value = params.get(name);
+        if (value == null || value.isBlank()) throw new BadRequestException("Missing parameter " + name);
+        return value;
+    }
+
+    private static SensorType sensorType(final Map<String, String> params) {
+        final var value = required(params, "type");
+        try {
+            return SensorType.valueOf(value.trim().toUpperCase());
+        } catch (final IllegalArgumentException ex) {
+            throw new BadRequestException("Unknown type " + value);
+        }
+    }
+
+    private static long longParam(final Map<String, String> params, final String name, final long defaultValue) {
+        final var value = params.get(name);
+        if (value == null || value.isBlank()) return defaultValue;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (final NumberFormatException ex) {
+            throw new BadRequestException("Parameter " + name + " must be a number");
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
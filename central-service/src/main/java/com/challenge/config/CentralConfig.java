@@ -0,0 +1,97 @@
+package com.challenge.config;
+
+import com.challenge.concurrent.ExecutionConfig;
+import com.challenge.concurrent.ExecutionMode;
+import com.challenge.connection.ReconnectConfig;
+
+public record CentralConfig(
+        String brokerUrl,
+        String destinationName,
+        ConsumerConfig consumer,
+        ReconnectConfig reconnect,
+        ExecutionConfig execution,
+        DedupConfig dedup,
+        boolean aggregationEnabled,
+        StoreConfig store,
+        int queryPort,
+        int metricsPort
+) {
+    public static CentralConfig load() {
+        final var brokerUrl = readEnv("BROKER_URL", "tcp://activemq:61616");
+        final var destinationName = readEnv("DESTINATION_NAME", "measurements.queue");
+
+        final var consumerDefaults = ConsumerConfig.defaults();
+        final var consumer = new ConsumerConfig(
+                readIntEnv("CONSUMER_CONCURRENCY", consumerDefaults.concurrency()),
+                readIntEnv("CONSUMER_PREFETCH", consumerDefaults.prefetch())
+        );
+
+        final var reconnectDefaults = ReconnectConfig.defaults();
+        final var reconnect = new ReconnectConfig(
+                readIntEnv("RECONNECT_INITIAL_MS", reconnectDefaults.initialDelayMillis()),
+                readIntEnv("RECONNECT_MAX_MS", reconnectDefaults.maxDelayMillis())
+        );
+
+        final var executionDefaults = ExecutionConfig.defaults();
+        final var execution = new ExecutionConfig(
+                readEnumEnv("EXECUTION_MODE", ExecutionMode.class, executionDefaults.mode()),
+                readIntEnv("EXECUTION_MAX_CONCURRENCY", executionDefaults.maxConcurrency())
+        );
+
+        final var dedupDefaults = DedupConfig.defaults();
+        final var dedup = new DedupConfig(
+                readIntEnv("ALARM_DEDUP_CAPACITY", dedupDefaults.capacity()),
+                readIntEnv("ALARM_DEDUP_WINDOW_MS", (int) dedupDefaults.windowMillis())
+        );
+
+        final var aggregationEnabled = readBooleanEnv("AGGREGATION_ENABLED", true);
+
+        final var storeDefaults = StoreConfig.defaults();
+        final var store = new StoreConfig(
+                readBooleanEnv("STORE_ENABLED", storeDefaults.enabled()),
+                readEnv("STORE_DIR", storeDefaults.directory()),
+                readIntEnv("STORE_PARTITION_MINUTES", storeDefaults.partitionMinutes()),
+                readIntEnv("STORE_SEGMENT_BYTES", storeDefaults.segmentBytes()),
+                readIntEnv("STORE_RETENTION_HOURS", storeDefaults.retentionHours())
+        );
+
+        // 0 (the default) leaves the query API and metrics endpoint off.
+        final var queryPort = readIntEnv("QUERY_HTTP_PORT", 0);
+        final var metricsPort = readIntEnv("METRICS_PORT", 0);
+
+        return new CentralConfig(brokerUrl, destinationName, consumer, reconnect, execution, dedup, aggregationEnabled, store, queryPort, metricsPort);
+    }
+
+    private static String readEnv(final String name, final String defaultValue) {
+        final var value = System.getenv(name);
+        return (value == null || value.isBlank()) ? defaultValue : value;
+    }
+
+    private static int readIntEnv(final String name, final int defaultValue) {
+        final var value = System.getenv(name);
+        if (value == null || value.isBlank()) return defaultValue;
+
+        try {
+            final var parsed = Integer.parseInt(value.trim());
+            return parsed > 0 ? parsed : defaultValue;
+        } catch (Exception ignored) {
+            return defaultValue;
+        }
+    }
+
+    private static boolean readBooleanEnv(final String name, final boolean defaultValue) {
+        final var value = System.getenv(name);
+        return (value == null || value.isBlank()) ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    private static <E extends Enum<E>> E readEnumEnv(final String name, final Class<E> type, final E defaultValue) {
+        final var value = System.getenv(name);
+        if (value == null || value.isBlank()) return defaultValue;
+
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (Exception ignored) {
+            return defaultValue;
+        }
+    }
+}
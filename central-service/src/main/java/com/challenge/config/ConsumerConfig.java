@@ -0,0 +1,10 @@
+package com.challenge.config;
+
+public record ConsumerConfig(
+        int concurrency,
+        int prefetch
+) {
+    public static ConsumerConfig defaults() {
+        return new ConsumerConfig(1, 1000);
+    }
+}
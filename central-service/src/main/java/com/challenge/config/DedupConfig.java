@@ -0,0 +1,14 @@
+package com.challenge.config;
+
+/**
+ * @param capacity     max alarm keys remembered at once; when full the oldest keys are forgotten first.
+ * @param windowMillis how long a raised alarm suppresses repeats for the same sensor and type.
+ */
+public record DedupConfig(
+        int capacity,
+        long windowMillis
+) {
+    public static DedupConfig defaults() {
+        return new DedupConfig(50_000, 15_000);
+    }
+}
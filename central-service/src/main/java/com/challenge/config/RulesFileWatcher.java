@@ -0,0 +1,109 @@
+package com.challenge.config;
+
+import com.challenge.domain.AlarmRules;
+import com.challenge.metrics.Counter;
+import com.challenge.metrics.MetricsRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * Watches the alarm rules file and hands every new, valid version to {@code onChange}. The parent directory is watched
+ * rather than the file, and any event in it re-reads the file: editors that save through a temp file and rename, and
+ * config mounts that swap a symlink (a Kubernetes ConfigMap only fires events for {@code ..data} and its siblings,
+ * never for the file itself), are picked up too. Unchanged content is skipped after one read. A version that fails to
+ * parse or validate is logged and counted, leaving the current rules live.
+ */
+public class RulesFileWatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RulesFileWatcher.class);
+
+    private final Path file;
+    private final Consumer<AlarmRules> onChange;
+    private final WatchService watchService;
+    private final Thread thread;
+    private final Counter reloads;
+    private final Counter rejected;
+
+    private byte[] lastSeen = new byte[0];
+
+    public RulesFileWatcher(@NotNull final Path file, @NotNull final Consumer<AlarmRules> onChange,
+                            @NotNull final ThreadFactory threadFactory) throws IOException {
+        this(file, onChange, threadFactory, new MetricsRegistry());
+    }
+
+    public RulesFileWatcher(@NotNull final Path file, @NotNull final Consumer<AlarmRules> onChange,
+                            @NotNull final ThreadFactory threadFactory, @NotNull final MetricsRegistry metrics) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.onChange = onChange;
+        this.reloads = metrics.counter("central_rules_reloads_total", "Alarm rules file versions applied");
+        this.rejected = metrics.counter("central_rules_rejected_total", "Alarm rules file versions rejected as invalid");
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+
+        if (Files.isReadable(this.file)) lastSeen = Files.readAllBytes(this.file);
+        this.thread = threadFactory.newThread(this::runLoop);
+    }
+
+    public void start() {
+        thread.start();
+        logger.info("Watching alarm rules file {}", file);
+    }
+
+    private void runLoop() {
+        try {
+            while (true) {
+                final var key = watchService.take();
+                key.pollEvents();
+                key.reset();
+
+                reload();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (final ClosedWatchServiceException ignored) {
+        }
+    }
+
+    // Editors and mounts fire several events per save; identical content is handled only once.
+    private void reload() {
+        try {
+            if (!Files.isReadable(file)) return;
+
+            // An in-place save truncates first; the write that follows fires another event.
+            final var content = Files.readAllBytes(file);
+            if (content.length == 0 || Arrays.equals(content, lastSeen)) return;
+            lastSeen = content;
+
+            final var rules = ThresholdProvider.parseRules(content);
+            onChange.accept(rules);
+            reloads.increment();
+            logger.info("Reloaded {} alarm rule(s) from {}", rules.rules().size(), file);
+        } catch (final IOException | IllegalArgumentException ex) {
+            rejected.increment();
+            logger.error("Rejected alarm rules update from {}; keeping current rules. error={}", file, ex.toString());
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (final IOException ignored) {
+        }
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,21 @@
+package com.challenge.config;
+
+import java.nio.file.Path;
+
+public record StoreConfig(
+        boolean enabled,
+        String directory,
+        int partitionMinutes,
+        int segmentBytes,
+        int retentionHours
+) {
+    public static StoreConfig defaults() {
+        return new StoreConfig(
+                false,
+                Path.of(System.getProperty("java.io.tmpdir"), "central-store").toString(),
+                60,
+                64 * 1024 * 1024,
+                24
+        );
+    }
+}
@@ -1,15 +1,24 @@
 package com.challenge.config;
 
+import com.challenge.domain.AlarmRules;
 import com.challenge.domain.ThresholdConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.ValueInstantiationException;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
 public class ThresholdProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(ThresholdProvider.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
 
     public static ThresholdConfig load() {
         final var temperatureThreshold =
@@ -21,6 +30,48 @@ public class ThresholdProvider {
         return new ThresholdConfig(temperatureThreshold, humidityThreshold);
     }
 
+    /**
+     * Reads per-warehouse/per-sensor rules from the JSON file named by {@code alarm.rules.file} /
+     * {@code ALARM_RULES_FILE}. Without a file, or when it cannot be read, only the global thresholds apply.
+     */
+    public static AlarmRules loadRules() {
+        return rulesFile().map(ThresholdProvider::loadRules).orElseGet(AlarmRules::none);
+    }
+
+    public static Optional<Path> rulesFile() {
+        final var raw = readRaw("alarm.rules.file", "ALARM_RULES_FILE");
+        return StringUtils.isBlank(raw) ? Optional.empty() : Optional.of(Path.of(raw.trim()));
+    }
+
+    private static AlarmRules loadRules(final Path path) {
+        try {
+            final var rules = readRules(path);
+            logger.info("Loaded {} alarm rule(s) from {}", rules.rules().size(), path);
+            return rules;
+        } catch (final IOException | IllegalArgumentException ex) {
+            logger.error("Invalid alarm rules file {}; using global thresholds only. error={}", path, ex.toString());
+            return AlarmRules.none();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException when a rule is inconsistent or duplicated.
+     */
+    public static AlarmRules readRules(@NotNull final Path path) throws IOException {
+        return parseRules(Files.readAllBytes(path));
+    }
+
+    /**
+     * @throws IllegalArgumentException when a rule is inconsistent or duplicated.
+     */
+    public static AlarmRules parseRules(final byte @NotNull [] json) throws IOException {
+        try {
+            return objectMapper.readValue(json, AlarmRules.class);
+        } catch (final ValueInstantiationException ex) {
+            throw new IllegalArgumentException(ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage(), ex);
+        }
+    }
+
     private static int readThreshold(final String propertyName, final String envName, final int defaultValue) {
         final var raw = readRaw(propertyName, envName);
 
@@ -0,0 +1,67 @@
+package com.challenge.consumer;
+
+import com.challenge.metrics.LatencyHistogram;
+import com.challenge.metrics.MetricsRegistry;
+import com.challenge.trace.TraceStamps;
+import org.jetbrains.annotations.NotNull;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * Records the per-hop latency of each message from the {@link TraceStamps} the warehouse put on it: parse (datagram
+ * received to parsed), publish (parsed to sent, including async queueing and batching), broker (sent to delivered
+ * here) and evaluate (delivered to alarm decision), plus the end-to-end total. Hops whose stamps are missing, e.g. for
+ * messages from older publishers or replayed from the spool, are skipped.
+ */
+class HopLatencies {
+
+    private final LatencyHistogram parse;
+    private final LatencyHistogram publish;
+    private final LatencyHistogram broker;
+    private final LatencyHistogram evaluate;
+    private final LatencyHistogram endToEnd;
+
+    record Delivery(long deliveredMicros, long receivedMicros) {
+    }
+
+    HopLatencies(@NotNull final MetricsRegistry metrics) {
+        final var name = "central_hop_seconds";
+        final var help = "Latency of each pipeline hop, from the trace stamps carried on the message";
+        this.parse = metrics.histogram(name, help, "hop", "parse");
+        this.publish = metrics.histogram(name, help, "hop", "publish");
+        this.broker = metrics.histogram(name, help, "hop", "broker");
+        this.evaluate = metrics.histogram(name, help, "hop", "evaluate");
+        this.endToEnd = metrics.histogram("central_end_to_end_seconds", "Datagram received at the warehouse to alarm decision");
+    }
+
+    Delivery onDelivered(@NotNull final Message message) {
+        final var deliveredMicros = TraceStamps.nowMicros();
+        final var received = stamp(message, TraceStamps.RECEIVED_PROPERTY);
+        final var parsed = stamp(message, TraceStamps.PARSED_PROPERTY);
+        final var published = stamp(message, TraceStamps.PUBLISHED_PROPERTY);
+
+        if (received != TraceStamps.NONE && parsed != TraceStamps.NONE) record(parse, received, parsed);
+        if (parsed != TraceStamps.NONE && published != TraceStamps.NONE) record(publish, parsed, published);
+        if (published != TraceStamps.NONE) record(broker, published, deliveredMicros);
+        return new Delivery(deliveredMicros, received);
+    }
+
+    void onEvaluated(@NotNull final Delivery delivery) {
+        final var evaluatedMicros = TraceStamps.nowMicros();
+        record(evaluate, delivery.deliveredMicros(), evaluatedMicros);
+        if (delivery.receivedMicros() != TraceStamps.NONE) record(endToEnd, delivery.receivedMicros(), evaluatedMicros);
+    }
+
+    private static void record(final LatencyHistogram histogram, final long fromMicros, final long toMicros) {
+        histogram.record((toMicros - fromMicros) * 1_000);
+    }
+
+    private static long stamp(final Message message, final String property) {
+        try {
+            return message.propertyExists(property) ? message.getLongProperty(property) : TraceStamps.NONE;
+        } catch (final JMSException | NumberFormatException ex) {
+            return TraceStamps.NONE;
+        }
+    }
+}
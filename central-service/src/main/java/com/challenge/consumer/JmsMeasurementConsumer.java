@@ -1,16 +1,35 @@
 package com.challenge.consumer;
 
+import com.challenge.concurrent.ExecutionConfig;
+import com.challenge.concurrent.ExecutionMode;
+import com.challenge.concurrent.TaskDispatcher;
+import com.challenge.config.ConsumerConfig;
+import com.challenge.connection.ConnectionSupervisor;
+import com.challenge.connection.ReconnectConfig;
 import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorSummary;
+import com.challenge.domain.SensorType;
+import com.challenge.logging.LogThrottle;
+import com.challenge.metrics.Counter;
+import com.challenge.metrics.MetricsRegistry;
+import com.challenge.serialization.BinaryMeasurementCodec;
+import com.challenge.serialization.MeasurementCodec;
+import com.challenge.serialization.MeasurementCodecs;
 import com.challenge.serialization.MeasurementJsonMapper;
-import com.challenge.service.AlarmService;
+import com.challenge.service.MeasurementHandler;
 import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.ActiveMQSession;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 
 import javax.jms.*;
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -19,133 +38,303 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class JmsMeasurementConsumer implements AutoCloseable {
 
     private static final int MAX_PAYLOAD_SIZE = 10 * 1024;
-    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(2);
+    private static final int MAX_ENVELOPE_SIZE = 1024 * 1024;
+    private static final int MAX_LOGGED_PAYLOAD = 256;
 
     private static final Logger logger = LoggerFactory.getLogger(JmsMeasurementConsumer.class);
+    private static final LogThrottle rejectedLog = new LogThrottle(logger, Level.WARN, "rejected JMS message");
 
     private final String brokerUrl;
     private final String destinationName;
-    private final AlarmService alarmService;
+    private final MeasurementHandler handler;
     private final MeasurementJsonMapper jsonMapper;
+    private final MeasurementCodecs codecs;
+    private final ConsumerConfig consumerConfig;
+    private final TaskDispatcher dispatcher;
+
+    private final Counter messagesConsumed;
+    private final Counter messagesRejected;
+    private final HopLatencies hops;
 
     private final AtomicBoolean running = new AtomicBoolean(false);
-    private final ScheduledExecutorService scheduler =
-            Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "jms-reconnector"));
+    private final ScheduledExecutorService scheduler;
+    private final ConnectionSupervisor supervisor;
 
     private Connection connection;
-    private Session session;
-    private MessageConsumer consumer;
+    private final List<Session> sessions = new ArrayList<>();
+    private final List<MessageConsumer> consumers = new ArrayList<>();
 
     public JmsMeasurementConsumer(
             @NotNull final String brokerUrl,
             @NotNull final String destinationName,
-            @NotNull final AlarmService alarmService,
+            @NotNull final MeasurementHandler handler,
             @NotNull final MeasurementJsonMapper jsonMapper
+    ) {
+        this(brokerUrl, destinationName, handler, jsonMapper, ConsumerConfig.defaults(), ReconnectConfig.defaults(),
+                new TaskDispatcher(ExecutionConfig.defaults(), "alarm-dispatch"), new MetricsRegistry());
+    }
+
+    /**
+     * Opens {@code concurrency} sessions on one connection. ActiveMQ dispatches each session on its own thread, so
+     * alarm evaluation runs in parallel while message groups ({@code JMSXGroupID}) keep every sensor on one session.
+     * Decoding stays on the session thread; {@code dispatcher} decides where {@link MeasurementHandler#onMeasurement} runs,
+     * on one serial lane per sensor so a sensor's readings are still evaluated one at a time and in order. When that is
+     * off the session thread, each message is acknowledged individually once all of its readings are evaluated.
+     * A lost connection is rebuilt by a {@link ConnectionSupervisor} with backoff and jitter.
+     */
+    public JmsMeasurementConsumer(
+            @NotNull final String brokerUrl,
+            @NotNull final String destinationName,
+            @NotNull final MeasurementHandler handler,
+            @NotNull final MeasurementJsonMapper jsonMapper,
+            @NotNull final ConsumerConfig consumerConfig,
+            @NotNull final ReconnectConfig reconnectConfig,
+            @NotNull final TaskDispatcher dispatcher,
+            @NotNull final MetricsRegistry metrics
     ) {
         this.brokerUrl = brokerUrl;
         this.destinationName = destinationName;
-        this.alarmService = alarmService;
+        this.handler = handler;
         this.jsonMapper = jsonMapper;
+        this.codecs = new MeasurementCodecs(jsonMapper, new BinaryMeasurementCodec());
+        this.consumerConfig = consumerConfig;
+        this.dispatcher = dispatcher;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(dispatcher.threadFactory("jms-reconnector"));
+
+        this.messagesConsumed = metrics.counter("central_messages_consumed_total", "JMS messages received");
+        this.messagesRejected = metrics.counter("central_messages_rejected_total", "JMS messages or measurements dropped as empty, oversized or invalid");
+        this.hops = new HopLatencies(metrics);
+        this.supervisor = new ConnectionSupervisor("consumer", this::connect, this::safeCloseResources, reconnectConfig, scheduler, metrics);
     }
 
     public void start() {
         if (!running.compareAndSet(false, true)) return;
-        connectWithRetry();
+        supervisor.start();
     }
 
-    private void connectWithRetry() {
-        try {
-            connect();
-        } catch (final Exception ex) {
-            logger.warn("JMS connection failed, retrying in {}s: {}",
-                    RECONNECT_DELAY.toSeconds(), ex.toString());
-
-            scheduleReconnect();
-        }
-    }
-
-    private void connect() throws JMSException {
+    private synchronized void connect() throws JMSException {
         final var factory = new ActiveMQConnectionFactory(brokerUrl);
+        factory.getPrefetchPolicy().setQueuePrefetch(consumerConfig.prefetch());
 
         connection = factory.createConnection();
         connection.setExceptionListener(this::onJmsException);
 
-        session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        for (int i = 0; i < Math.max(1, consumerConfig.concurrency()); i++) {
+            final var session = connection.createSession(false, acknowledgeMode());
+            sessions.add(session);
 
-        final var destination = session.createQueue(destinationName);
-        consumer = session.createConsumer(destination);
-        consumer.setMessageListener(this::onMessage);
+            final var consumer = session.createConsumer(session.createQueue(destinationName));
+            consumer.setMessageListener(this::onMessage);
+            consumers.add(consumer);
+        }
 
         connection.start();
 
-        logger.info("Connected to JMS brokerUrl={} destination={}", brokerUrl, destinationName);
+        logger.info("Connected to JMS brokerUrl={} destination={} consumers={} prefetch={}",
+                brokerUrl, destinationName, consumers.size(), consumerConfig.prefetch());
+    }
+
+    private int acknowledgeMode() {
+        return dispatcher.mode() == ExecutionMode.VIRTUAL ? ActiveMQSession.INDIVIDUAL_ACKNOWLEDGE : Session.AUTO_ACKNOWLEDGE;
     }
 
     private void onJmsException(final JMSException ex) {
         if (!running.get()) return;
+        supervisor.reportFailure(ex);
+    }
 
-        logger.warn("JMS exception detected, reconnecting: {}", ex.toString());
-
-        safeCloseResources();
-        scheduleReconnect();
+    public boolean ready() {
+        return supervisor.ready();
     }
 
-    private void scheduleReconnect() {
+    private void onMessage(final Message message) {
         if (!running.get()) return;
 
-        scheduler.schedule(
-                this::connectWithRetry,
-                RECONNECT_DELAY.toMillis(),
-                TimeUnit.MILLISECONDS
-        );
+        final var delivery = hops.onDelivered(message);
+        final var ack = dispatcher.mode() == ExecutionMode.VIRTUAL ? PendingAck.of(message) : PendingAck.NONE;
+        messagesConsumed.increment();
+        try {
+            onMessage(message, delivery, ack);
+        } finally {
+            ack.release();
+        }
     }
 
-    private void onMessage(final Message message) {
-        if (!running.get()) return;
+    private void onMessage(final Message message, final HopLatencies.Delivery delivery, final PendingAck ack) {
+        if (message instanceof final BytesMessage bytesMessage) {
+            onBytesMessage(bytesMessage, delivery, ack);
+            return;
+        }
 
         if (!(message instanceof final TextMessage textMessage)) {
-            logger.warn("Ignoring non-text JMS message type={}", message.getClass().getName());
+            messagesRejected.increment();
+            if (rejectedLog.sample()) rejectedLog.log("Ignoring unsupported JMS message type={}", message.getClass().getName());
             return;
         }
 
         try {
             final var payload = textMessage.getText();
+            final var envelope = textMessage.getBooleanProperty(MeasurementCodec.ENVELOPE_PROPERTY);
+            final var summary = textMessage.getBooleanProperty(MeasurementCodec.SUMMARY_PROPERTY);
+            final var maxSize = envelope || summary ? MAX_ENVELOPE_SIZE : MAX_PAYLOAD_SIZE;
 
             if (StringUtils.isBlank(payload)) {
-                logger.warn("Ignoring empty JMS message");
+                messagesRejected.increment();
+                if (rejectedLog.sample()) rejectedLog.log("Ignoring empty JMS message");
                 return;
             }
 
-            if (payload.length() > MAX_PAYLOAD_SIZE) {
-                logger.warn("Ignoring oversized JMS message size={} max={}",
-                        payload.length(), MAX_PAYLOAD_SIZE);
+            if (payload.length() > maxSize) {
+                messagesRejected.increment();
+                if (rejectedLog.sample()) rejectedLog.log("Ignoring oversized JMS message size={} max={}",
+                        payload.length(), maxSize);
                 return;
             }
 
-            processPayload(payload);
+            if (summary) {
+                processSummaries(payload.getBytes(StandardCharsets.UTF_8), delivery, ack);
+                return;
+            }
+            if (envelope) {
+                processEnvelope(jsonMapper, payload.getBytes(StandardCharsets.UTF_8), delivery, ack);
+                return;
+            }
+
+            processPayload(payload, delivery, ack);
         } catch (final Exception ex) {
-            logger.warn("Invalid message payload, ignoring. error={}", ex.toString());
+            messagesRejected.increment();
+            if (rejectedLog.sample()) rejectedLog.log("Invalid message payload, ignoring. error={}", ex.toString());
         }
     }
 
-    private void processPayload(final String payload) {
+    private void onBytesMessage(final BytesMessage message, final HopLatencies.Delivery delivery, final PendingAck ack) {
+        try {
+            final var contentType = message.getStringProperty(MeasurementCodec.CONTENT_TYPE_PROPERTY);
+            final var codec = codecs.forContentType(contentType);
+            if (codec.isEmpty()) {
+                messagesRejected.increment();
+                if (rejectedLog.sample()) rejectedLog.log("Ignoring JMS message with unknown content type={}", contentType);
+                return;
+            }
+
+            final var envelope = message.getBooleanProperty(MeasurementCodec.ENVELOPE_PROPERTY);
+            final var maxSize = envelope ? MAX_ENVELOPE_SIZE : MAX_PAYLOAD_SIZE;
+            final var length = message.getBodyLength();
+            if (length == 0) {
+                messagesRejected.increment();
+                if (rejectedLog.sample()) rejectedLog.log("Ignoring empty JMS message");
+                return;
+            }
+
+            if (length > maxSize) {
+                messagesRejected.increment();
+                if (rejectedLog.sample()) rejectedLog.log("Ignoring oversized JMS message size={} max={}", length, maxSize);
+                return;
+            }
+
+            final var payload = new byte[(int) length];
+            message.readBytes(payload);
+            if (envelope) {
+                processEnvelope(codec.get(), payload, delivery, ack);
+                return;
+            }
+            processMeasurement(codec.get().decode(payload), delivery, ack);
+        } catch (final Exception ex) {
+            messagesRejected.increment();
+            if (rejectedLog.sample()) rejectedLog.log("Invalid binary message payload, ignoring. error={}", ex.toString());
+        }
+    }
+
+    private void processPayload(final String payload, final HopLatencies.Delivery delivery, final PendingAck ack) {
         try {
             final var measurement = jsonMapper.fromJson(payload);
 
             if (!isValid(measurement)) {
-                logger.warn("Ignoring invalid Measurement payload={}", payload);
+                messagesRejected.increment();
+                if (rejectedLog.sample()) rejectedLog.log("Ignoring invalid Measurement payload={}", abbreviate(payload));
                 return;
             }
 
-            alarmService.onMeasurement(measurement);
+            dispatch(measurement, delivery, ack);
         } catch (final Exception ex) {
-            logger.warn(
+            messagesRejected.increment();
+            if (rejectedLog.sample()) rejectedLog.log(
                     "Invalid message payload, ignoring. payload='{}' error={}",
-                    payload, ex.toString()
+                    abbreviate(payload), ex.toString()
             );
         }
     }
 
+    private void processEnvelope(final MeasurementCodec codec, final byte[] payload, final HopLatencies.Delivery delivery,
+                                 final PendingAck ack) {
+        for (final var measurement : codec.decodeEnvelope(payload)) {
+            try {
+                processMeasurement(measurement, delivery, ack);
+            } catch (final Exception ex) {
+                if (rejectedLog.sample()) rejectedLog.log("Failed to process enveloped measurement {}, continuing. error={}", measurement, ex.toString());
+            }
+        }
+    }
+
+    private void processSummaries(final byte[] payload, final HopLatencies.Delivery delivery, final PendingAck ack) {
+        for (final var summary : jsonMapper.decodeSummaries(payload)) {
+            if (!isValid(summary)) {
+                messagesRejected.increment();
+                if (rejectedLog.sample()) rejectedLog.log("Ignoring invalid SensorSummary {}", summary);
+                continue;
+            }
+            ack.retain();
+            dispatcher.dispatch(laneKey(summary.warehouseId(), summary.sensorId(), summary.type()), () -> {
+                try {
+                    handler.onSummary(summary);
+                    hops.onEvaluated(delivery);
+                } finally {
+                    ack.release();
+                }
+            });
+        }
+    }
+
+    private void processMeasurement(final Measurement measurement, final HopLatencies.Delivery delivery, final PendingAck ack) {
+        if (!isValid(measurement)) {
+            messagesRejected.increment();
+            if (rejectedLog.sample()) rejectedLog.log("Ignoring invalid Measurement {}", measurement);
+            return;
+        }
+
+        dispatch(measurement, delivery, ack);
+    }
+
+    private void dispatch(final Measurement measurement, final HopLatencies.Delivery delivery, final PendingAck ack) {
+        ack.retain();
+        dispatcher.dispatch(laneKey(measurement.warehouseId(), measurement.sensorId(), measurement.type()), () -> {
+            try {
+                handler.onMeasurement(measurement);
+                hops.onEvaluated(delivery);
+            } finally {
+                ack.release();
+            }
+        });
+    }
+
+    // Readings and summaries of one sensor must land on the same lane.
+    private static int laneKey(final String warehouseId, final String sensorId, final SensorType type) {
+        return 31 * (31 * Objects.hashCode(warehouseId) + sensorId.hashCode()) + type.ordinal();
+    }
+
+    private static String abbreviate(final String payload) {
+        return StringUtils.abbreviate(payload, MAX_LOGGED_PAYLOAD);
+    }
+
+    private static boolean isValid(final SensorSummary s) {
+        return s != null
+                && s.sensorId() != null
+                && !s.sensorId().isBlank()
+                && s.type() != null
+                && s.count() > 0
+                && s.to() > 0;
+    }
+
     private static boolean isValid(final Measurement m) {
         return m != null
                 && m.sensorId() != null
@@ -157,6 +346,8 @@ public class JmsMeasurementConsumer implements AutoCloseable {
     @Override
     public void close() {
         running.set(false);
+        supervisor.close();
+        scheduler.shutdown();
 
         try {
             if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
@@ -171,22 +362,26 @@ public class JmsMeasurementConsumer implements AutoCloseable {
         safeCloseResources();
     }
 
-    private void safeCloseResources() {
-        try {
-            if (consumer != null) consumer.close();
-        } catch (final Exception ignored) {
+    private synchronized void safeCloseResources() {
+        for (final var consumer : consumers) {
+            try {
+                consumer.close();
+            } catch (final Exception ignored) {
+            }
         }
-        try {
-            if (session != null) session.close();
-        } catch (final Exception ignored) {
+        for (final var session : sessions) {
+            try {
+                session.close();
+            } catch (final Exception ignored) {
+            }
         }
         try {
             if (connection != null) connection.close();
         } catch (final Exception ignored) {
         }
 
-        consumer = null;
-        session = null;
+        consumers.clear();
+        sessions.clear();
         connection = null;
     }
 }
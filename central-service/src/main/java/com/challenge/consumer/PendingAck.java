@@ -0,0 +1,50 @@
+package com.challenge.consumer;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Acknowledges one message once its listener call and every task dispatched for it have finished, so a crash before the
+ * alarm decision leaves the message on the broker for redelivery. The listener holds the first reference; each
+ * dispatched task {@link #retain() retains} one more and {@link #release() releases} it when done.
+ */
+class PendingAck {
+
+    /**
+     * For sessions that acknowledge on their own, i.e. when every task runs inline on the listener.
+     */
+    static final PendingAck NONE = new PendingAck(null);
+
+    private static final Logger logger = LoggerFactory.getLogger(PendingAck.class);
+
+    private final Message message;
+    private final AtomicInteger pending = new AtomicInteger(1);
+
+    private PendingAck(final Message message) {
+        this.message = message;
+    }
+
+    static PendingAck of(@NotNull final Message message) {
+        return new PendingAck(message);
+    }
+
+    void retain() {
+        if (message != null) pending.incrementAndGet();
+    }
+
+    void release() {
+        if (message == null || pending.decrementAndGet() != 0) return;
+
+        try {
+            message.acknowledge();
+        } catch (final JMSException | IllegalStateException ex) {
+            // The session closed underneath us; the broker redelivers the message.
+            logger.debug("Unable to acknowledge message, it will be redelivered. error={}", ex.toString());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.challenge.domain;
+
+import java.time.Duration;
+
+public enum AggregationWindow {
+    ONE_MINUTE(Duration.ofMinutes(1)),
+    FIVE_MINUTES(Duration.ofMinutes(5)),
+    ONE_HOUR(Duration.ofHours(1));
+
+    private final Duration length;
+
+    AggregationWindow(final Duration length) {
+        this.length = length;
+    }
+
+    public Duration length() {
+        return length;
+    }
+}
@@ -0,0 +1,46 @@
+package com.challenge.domain;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Alarm condition for one sensor type, optionally narrowed to a warehouse and/or sensor ({@code null} matches any).
+ * A reading breaches when it is strictly above {@code upper} or strictly below {@code lower}; the alarm fires once
+ * after {@code consecutive} breaching readings in a row and only re-arms once the value has moved {@code hysteresis}
+ * back inside the bound it crossed. A rule with neither hysteresis nor a streak alarms on every breaching reading and
+ * leaves repeats to the alarm dedup window.
+ */
+public record AlarmRule(
+        @Nullable String warehouseId,
+        @Nullable String sensorId,
+        SensorType type,
+        @Nullable Integer upper,
+        @Nullable Integer lower,
+        @Nullable Integer hysteresis,
+        @Nullable Integer consecutive
+) {
+    public AlarmRule {
+        if (type == null) throw new IllegalArgumentException("Rule type is required");
+        if (upper == null && lower == null) throw new IllegalArgumentException("Rule needs an upper or lower bound");
+        if (upper != null && lower != null && lower > upper) {
+            throw new IllegalArgumentException("Rule lower bound " + lower + " is above upper bound " + upper);
+        }
+        if (hysteresis == null) hysteresis = 0;
+        if (consecutive == null) consecutive = 1;
+        if (hysteresis < 0) throw new IllegalArgumentException("Rule hysteresis must not be negative");
+        if (consecutive < 1) throw new IllegalArgumentException("Rule consecutive count must be at least 1");
+    }
+
+    /**
+     * What a rule applies to; at most one rule may exist per scope.
+     */
+    public record Scope(@Nullable String warehouseId, @Nullable String sensorId, SensorType type) {
+    }
+
+    public Scope scope() {
+        return new Scope(warehouseId, sensorId, type);
+    }
+
+    public static AlarmRule upperBound(final SensorType type, final int upper) {
+        return new AlarmRule(null, null, type, upper, null, 0, 1);
+    }
+}
@@ -0,0 +1,21 @@
+package com.challenge.domain;
+
+import java.util.HashSet;
+import java.util.List;
+
+public record AlarmRules(List<AlarmRule> rules) {
+    public AlarmRules {
+        rules = rules == null ? List.of() : List.copyOf(rules);
+
+        final var seen = new HashSet<AlarmRule.Scope>();
+        for (final var rule : rules) {
+            if (!seen.add(rule.scope())) {
+                throw new IllegalArgumentException("Duplicate rule for warehouse=" + rule.warehouseId() + " sensor=" + rule.sensorId() + " type=" + rule.type());
+            }
+        }
+    }
+
+    public static AlarmRules none() {
+        return new AlarmRules(List.of());
+    }
+}
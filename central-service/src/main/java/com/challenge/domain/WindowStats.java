@@ -0,0 +1,15 @@
+package com.challenge.domain;
+
+/**
+ * Aggregate of the readings of one sensor between {@code from} (inclusive) and {@code to} (exclusive), epoch millis.
+ */
+public record WindowStats(long from, long to, int count, int min, int max, long sum) {
+
+    public double average() {
+        return count == 0 ? Double.NaN : (double) sum / count;
+    }
+
+    public static WindowStats empty(final long from, final long to) {
+        return new WindowStats(from, to, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,196 @@
+package com.challenge.service;
+
+import com.challenge.config.DedupConfig;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers which alarm keys fired within the last {@code windowMillis}. Keys live in a primitive long-to-timestamp
+ * open-addressing table (linear probing, backward-shift deletion) and are expired by a timing wheel whose slots each
+ * cover {@code window / WHEEL_TICKS}; advancing the wheel clears exactly the slot that fell out of the window. Once
+ * warm, neither lookups nor inserts allocate.
+ */
+class AlarmDeduplicator {
+
+    private static final int WHEEL_TICKS = 64;
+    private static final long EMPTY = -1L;
+
+    private final long windowMillis;
+    private final long tickMillis;
+    private final int capacity;
+    private final LongSupplier clock;
+
+    private final long[] keys;
+    private final long[] stamps;
+    private final int mask;
+    private int size;
+
+    // One extra slot so the slot being cleared never holds entries younger than the window.
+    private final long[][] wheel = new long[WHEEL_TICKS + 1][];
+    private final int[] wheelSizes = new int[WHEEL_TICKS + 1];
+    private long currentTick;
+
+    private long evicted;
+
+    // A lock instead of synchronized so callers running on virtual threads do not pin their carrier.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    AlarmDeduplicator(final DedupConfig config) {
+        this(config, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    AlarmDeduplicator(final DedupConfig config, final LongSupplier clock) {
+        this.capacity = Math.max(1, config.capacity());
+        this.windowMillis = Math.max(1, config.windowMillis());
+        this.tickMillis = Math.max(1, (windowMillis + WHEEL_TICKS - 1) / WHEEL_TICKS);
+        this.clock = clock;
+
+        final var tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+        this.keys = new long[tableSize];
+        this.stamps = new long[tableSize];
+        this.mask = tableSize - 1;
+        Arrays.fill(keys, EMPTY);
+
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new long[16];
+        }
+        this.currentTick = Math.floorDiv(clock.getAsLong(), tickMillis);
+    }
+
+    /**
+     * @return {@code true} when {@code key} has not fired within the window and is now recorded, {@code false} when
+     * it is a repeat that should be suppressed.
+     */
+    boolean firstWithinWindow(final long key) {
+        lock.lock();
+        try {
+            final var now = clock.getAsLong();
+            advance(Math.floorDiv(now, tickMillis));
+
+            final var index = indexOf(key);
+            if (index >= 0) {
+                if (now - stamps[index] < windowMillis) return false;
+                stamps[index] = now;
+                schedule(key, now);
+                return true;
+            }
+
+            if (size >= capacity) evictOldest();
+            insert(key, now);
+            schedule(key, now);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long evictedCount() {
+        lock.lock();
+        try {
+            return evicted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void advance(final long tick) {
+        if (tick <= currentTick) return;
+
+        final var steps = Math.min(tick - currentTick, wheel.length);
+        for (long step = 1; step <= steps; step++) {
+            clearSlot(slotOf(currentTick + step));
+        }
+        currentTick = tick;
+    }
+
+    private void evictOldest() {
+        for (int step = 1; step <= wheel.length && size >= capacity; step++) {
+            final var slot = slotOf(currentTick + step);
+            evicted += clearSlot(slot);
+        }
+    }
+
+    private int clearSlot(final int slot) {
+        final var entries = wheel[slot];
+        var removed = 0;
+        for (int i = 0; i < wheelSizes[slot]; i++) {
+            final var key = entries[i];
+            final var index = indexOf(key);
+            // A key refreshed later is scheduled in a newer slot and must survive this one.
+            if (index >= 0 && slotOf(Math.floorDiv(stamps[index], tickMillis)) == slot) {
+                delete(index);
+                removed++;
+            }
+        }
+        wheelSizes[slot] = 0;
+        return removed;
+    }
+
+    private void schedule(final long key, final long now) {
+        final var slot = slotOf(Math.floorDiv(now, tickMillis));
+        var entries = wheel[slot];
+        if (wheelSizes[slot] == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+            wheel[slot] = entries;
+        }
+        entries[wheelSizes[slot]++] = key;
+    }
+
+    private int slotOf(final long tick) {
+        return (int) Math.floorMod(tick, (long) wheel.length);
+    }
+
+    private int indexOf(final long key) {
+        var index = hash(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(final long key, final long now) {
+        var index = hash(key) & mask;
+        while (keys[index] != EMPTY) {
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        stamps[index] = now;
+        size++;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones.
+    private void delete(final int index) {
+        var hole = index;
+        var next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            final var home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                stamps[hole] = stamps[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+    }
+
+    private static int hash(final long key) {
+        var h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+}
@@ -0,0 +1,53 @@
+package com.challenge.service;
+
+import com.challenge.domain.Alarm;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Fixed-size ring of the most recently raised alarms (repeats suppressed by dedup are not kept).
+ */
+class AlarmHistory {
+
+    private final Alarm[] alarms;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long written;
+
+    AlarmHistory(final int capacity) {
+        this.alarms = new Alarm[Math.max(1, capacity)];
+    }
+
+    void add(@NotNull final Alarm alarm) {
+        lock.lock();
+        try {
+            alarms[(int) (written % alarms.length)] = alarm;
+            written++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Visits the kept alarms oldest first. References are copied under the lock and visited outside it, so a slow
+     * visitor never blocks the alarm path.
+     */
+    void forEach(@NotNull final Predicate<Alarm> visitor) {
+        final Alarm[] snapshot;
+        final long first;
+        final long end;
+        lock.lock();
+        try {
+            snapshot = alarms.clone();
+            end = written;
+            first = Math.max(0, written - alarms.length);
+        } finally {
+            lock.unlock();
+        }
+
+        for (long i = first; i < end; i++) {
+            if (!visitor.test(snapshot[(int) (i % snapshot.length)])) return;
+        }
+    }
+}
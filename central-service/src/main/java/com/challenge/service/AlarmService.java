@@ -1,63 +1,184 @@
 package com.challenge.service;
 
+import com.challenge.config.DedupConfig;
+import com.challenge.domain.AggregationWindow;
 import com.challenge.domain.Alarm;
+import com.challenge.domain.AlarmRules;
 import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorRegistry;
+import com.challenge.domain.SensorSummary;
+import com.challenge.domain.SensorType;
 import com.challenge.domain.ThresholdConfig;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.challenge.domain.WindowStats;
+import com.challenge.logging.LogThrottle;
+import com.challenge.metrics.Counter;
+import com.challenge.metrics.MetricsRegistry;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 
-import java.time.Duration;
 import java.util.Optional;
+import java.util.function.Predicate;
 
-public class AlarmService {
+public class AlarmService implements MeasurementHandler {
 
+    private static final int ALARM_HISTORY_SIZE = 10_000;
     private static final Logger logger = LoggerFactory.getLogger(AlarmService.class);
+    // Raised alarms are always logged (dedup already bounds them per sensor); only the repeats are sampled.
+    private static final LogThrottle dedupLog = new LogThrottle(logger, Level.WARN, "duplicate alarm", LogThrottle.DEFAULT_INTERVAL, 10);
 
     private final ThresholdConfig thresholdConfig;
-    private final Cache<String, Boolean> messageDedup = Caffeine.newBuilder()
-            .maximumSize(50_000)
-            .expireAfterWrite(Duration.ofSeconds(15))
-            .build();
+    private final SensorRegistry sensors = new SensorRegistry();
+    private final AlarmDeduplicator messageDedup;
+    private final @Nullable WindowAggregator aggregator;
+    private final AlarmHistory alarmHistory = new AlarmHistory(ALARM_HISTORY_SIZE);
+    private final Counter evaluated;
+    private final Counter alarmsRaised;
+    private final Counter dedupHits;
+
+    // Replaced wholesale on reload; the per-message path reads it once and never locks.
+    private volatile RuleEngine ruleEngine;
 
     public AlarmService(ThresholdConfig thresholdConfig) {
+        this(thresholdConfig, AlarmRules.none(), DedupConfig.defaults());
+    }
+
+    public AlarmService(@NotNull final ThresholdConfig thresholdConfig, @NotNull final DedupConfig dedupConfig) {
+        this(thresholdConfig, AlarmRules.none(), dedupConfig);
+    }
+
+    public AlarmService(@NotNull final ThresholdConfig thresholdConfig, @NotNull final AlarmRules alarmRules,
+                        @NotNull final DedupConfig dedupConfig) {
+        this(thresholdConfig, alarmRules, dedupConfig, false);
+    }
+
+    /**
+     * @param aggregationEnabled keep per-sensor window aggregates (see {@link #slidingStats}); costs a fixed few KB per
+     *                           sensor.
+     */
+    public AlarmService(@NotNull final ThresholdConfig thresholdConfig, @NotNull final AlarmRules alarmRules,
+                        @NotNull final DedupConfig dedupConfig, final boolean aggregationEnabled) {
+        this(thresholdConfig, alarmRules, dedupConfig, aggregationEnabled, new MetricsRegistry());
+    }
+
+    public AlarmService(@NotNull final ThresholdConfig thresholdConfig, @NotNull final AlarmRules alarmRules,
+                        @NotNull final DedupConfig dedupConfig, final boolean aggregationEnabled, @NotNull final MetricsRegistry metrics) {
+        this(thresholdConfig, alarmRules, new AlarmDeduplicator(dedupConfig), aggregationEnabled ? new WindowAggregator() : null, metrics);
+    }
+
+    AlarmService(@NotNull final ThresholdConfig thresholdConfig, @NotNull final AlarmRules alarmRules,
+                 @NotNull final AlarmDeduplicator messageDedup, @Nullable final WindowAggregator aggregator,
+                 @NotNull final MetricsRegistry metrics) {
         this.thresholdConfig = thresholdConfig;
+        this.ruleEngine = new RuleEngine(thresholdConfig, alarmRules);
+        this.messageDedup = messageDedup;
+        this.aggregator = aggregator;
+
+        this.evaluated = metrics.counter("central_measurements_evaluated_total", "Measurements evaluated against the alarm rules");
+        this.alarmsRaised = metrics.counter("central_alarms_total", "Alarms raised (after dedup)");
+        this.dedupHits = metrics.counter("central_alarm_dedup_hits_total", "Repeated alarms suppressed by the dedup window");
+        metrics.gauge("central_alarm_dedup_keys", "Alarm keys currently held by the dedup window", messageDedup::size);
+        metrics.gauge("central_alarm_dedup_evicted", "Dedup keys forgotten early because the table was full", messageDedup::evictedCount);
+    }
+
+    /**
+     * Swaps in a new rule set. The rules are compiled before the swap, so readings in flight see either the old or the
+     * new set in full. Consecutive-reading streaks restart under the new rules; the alarm dedup window is kept.
+     */
+    public void updateRules(@NotNull final AlarmRules alarmRules) {
+        ruleEngine = new RuleEngine(thresholdConfig, alarmRules);
     }
 
+    @Override
     public void onMeasurement(@NotNull final Measurement measurement) {
-        evaluate(measurement)
-                .ifPresent(alarm -> {
-                            final var key = alarm.warehouseId() + "|" + alarm.sensorId() + "|" + alarm.type();
+        if (measurement.type() == null) {
+            logger.warn("Unknown measurement type={}", measurement.type());
+            return;
+        }
+
+        final var handle = sensors.id(measurement);
+        if (aggregator != null) aggregator.record(handle, measurement.value(), measurement.timestamp());
+        evaluated.increment();
+        raiseAlarms(handle, measurement);
+    }
+
+    /**
+     * Windows get the summary's full count/min/max/sum. Warehouses forward readings that cross the global threshold on
+     * their own, but a reading that only breaks a per-sensor rule (a lower bound, a tighter upper bound) is folded, so
+     * the summary's extremes are evaluated too, before its last reading, which leaves rule state where the interval
+     * ended. An extreme's alarm carries the summary's end timestamp, the reading's own time being unknown.
+     */
+    @Override
+    public void onSummary(@NotNull final SensorSummary summary) {
+        final var handle = sensors.id(summary.warehouseId(), summary.sensorId(), summary.type());
+        if (aggregator != null) aggregator.record(handle, summary);
 
-                            if (messageDedup.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
-                                logger.warn("Message with key {} already exists and will be ignored", key);
+        evaluated.increment();
+        if (summary.max() != summary.last()) raiseAlarms(handle, extreme(summary, summary.max()));
+        if (summary.min() != summary.last() && summary.min() != summary.max()) raiseAlarms(handle, extreme(summary, summary.min()));
+        raiseAlarms(handle, summary.lastMeasurement());
+    }
+
+    private static Measurement extreme(final SensorSummary summary, final int value) {
+        return new Measurement(summary.warehouseId(), summary.sensorId(), summary.type(), value, summary.to());
+    }
+
+    private void raiseAlarms(final int handle, final Measurement measurement) {
+        evaluate(handle, measurement)
+                .ifPresent(alarm -> {
+                            if (!messageDedup.firstWithinWindow(handle)) {
+                                dedupHits.increment();
+                                if (dedupLog.sample()) {
+                                    dedupLog.log("Message with key {}|{}|{} already exists and will be ignored", alarm.warehouseId(), alarm.sensorId(), alarm.type());
+                                }
                                 return;
                             }
 
+                            alarmsRaised.increment();
+                            alarmHistory.add(alarm);
                             logger.warn("ALARM warehouse={} sensor={} type={} value={} threshold={} ts={}", alarm.warehouseId(), alarm.sensorId(), alarm.type(), alarm.value(), alarm.thresholdUsed(), alarm.timestamp());
                         }
                 );
     }
 
     Optional<Alarm> evaluate(@NotNull final Measurement measurement) {
-        switch (measurement.type()) {
-            case TEMPERATURE -> {
-                return measurement.value() > thresholdConfig.temperature()
-                        ? Optional.of(new Alarm(measurement.warehouseId(), measurement.sensorId(), measurement.type(), measurement.value(), thresholdConfig.temperature(), measurement.timestamp()))
-                        : Optional.empty();
-            }
-            case HUMIDITY -> {
-                return measurement.value() > thresholdConfig.humidity()
-                        ? Optional.of(new Alarm(measurement.warehouseId(), measurement.sensorId(), measurement.type(), measurement.value(), thresholdConfig.humidity(), measurement.timestamp()))
-                        : Optional.empty();
-
-            }
-            default -> {
-                logger.warn("Unknown measurement type={}", measurement.type());
-                return Optional.empty();
-            }
-        }
+        return evaluate(sensors.id(measurement), measurement);
+    }
+
+    private Optional<Alarm> evaluate(final int handle, @NotNull final Measurement measurement) {
+        final var threshold = ruleEngine.evaluate(handle, measurement.warehouseId(), measurement.sensorId(), measurement.type(), measurement.value());
+        if (threshold == RuleEngine.NO_ALARM) return Optional.empty();
+
+        return Optional.of(new Alarm(measurement.warehouseId(), measurement.sensorId(), measurement.type(), measurement.value(), (int) threshold, measurement.timestamp()));
+    }
+
+    /**
+     * @return the sensor's aggregate over the {@code window} ending now, or empty when aggregation is disabled or the
+     * sensor has never reported.
+     */
+    public Optional<WindowStats> slidingStats(@Nullable final String warehouseId, @NotNull final String sensorId,
+                                              @NotNull final SensorType type, @NotNull final AggregationWindow window) {
+        final var handle = sensors.find(warehouseId, sensorId, type);
+        if (aggregator == null || handle < 0) return Optional.empty();
+        return Optional.of(aggregator.sliding(handle, window, System.currentTimeMillis()));
+    }
+
+    /**
+     * @return the sensor's aggregate over the last complete, clock-aligned {@code window}.
+     */
+    public Optional<WindowStats> tumblingStats(@Nullable final String warehouseId, @NotNull final String sensorId,
+                                               @NotNull final SensorType type, @NotNull final AggregationWindow window) {
+        final var handle = sensors.find(warehouseId, sensorId, type);
+        if (aggregator == null || handle < 0) return Optional.empty();
+        return Optional.of(aggregator.tumbling(handle, window, System.currentTimeMillis()));
+    }
+
+    /**
+     * Visits the most recent raised alarms, oldest first, until {@code visitor} returns {@code false}.
+     */
+    public void forEachRecentAlarm(@NotNull final Predicate<Alarm> visitor) {
+        alarmHistory.forEach(visitor);
     }
 }
@@ -0,0 +1,153 @@
+package com.challenge.service;
+
+import com.challenge.domain.WindowStats;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-sensor ring of fixed-width time buckets holding count/min/max/sum as primitive columns. A reading lands in the
+ * bucket for its timestamp, evicting whatever older bucket shared the slot, so each sensor costs a fixed
+ * {@code bucketCount} entries however many readings arrive. Columns are paged by sensor handle like {@link RuleEngine}.
+ */
+class BucketRing {
+
+    private static final int PAGE_BITS = 6;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int LOCK_STRIPES = 64;
+    private static final long NO_BUCKET = Long.MIN_VALUE;
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final ReentrantLock growLock = new ReentrantLock();
+    private volatile Page[] pages = new Page[0];
+
+    private final class Page {
+        private final long[] ids = new long[PAGE_SIZE * bucketCount];
+        private final int[] count = new int[PAGE_SIZE * bucketCount];
+        private final int[] min = new int[PAGE_SIZE * bucketCount];
+        private final int[] max = new int[PAGE_SIZE * bucketCount];
+        private final long[] sum = new long[PAGE_SIZE * bucketCount];
+
+        private Page() {
+            Arrays.fill(ids, NO_BUCKET);
+        }
+    }
+
+    BucketRing(final long bucketMillis, final int bucketCount) {
+        this.bucketMillis = bucketMillis;
+        this.bucketCount = bucketCount;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    long bucketMillis() {
+        return bucketMillis;
+    }
+
+    long spanMillis() {
+        return bucketMillis * bucketCount;
+    }
+
+    /**
+     * @return {@code false} when the reading is older than anything the ring still holds for this sensor.
+     */
+    boolean record(final int handle, final int value, final long timestamp) {
+        return record(handle, 1, value, value, value, timestamp);
+    }
+
+    /**
+     * Adds {@code count} readings with the given min/max/sum, all placed at {@code timestamp}.
+     */
+    boolean record(final int handle, final int count, final int min, final int max, final long sum, final long timestamp) {
+        final var page = page(handle);
+        final var id = Math.floorDiv(timestamp, bucketMillis);
+        final var index = (handle & PAGE_MASK) * bucketCount + (int) Math.floorMod(id, (long) bucketCount);
+
+        final var lock = locks[handle & (LOCK_STRIPES - 1)];
+        lock.lock();
+        try {
+            final var current = page.ids[index];
+            if (current > id) return false;
+
+            if (current != id) {
+                page.ids[index] = id;
+                page.count[index] = count;
+                page.min[index] = min;
+                page.max[index] = max;
+                page.sum[index] = sum;
+            } else {
+                page.count[index] += count;
+                if (min < page.min[index]) page.min[index] = min;
+                if (max > page.max[index]) page.max[index] = max;
+                page.sum[index] += sum;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aggregates the buckets covering {@code [from, to)}; both ends are rounded down to bucket boundaries and the range
+     * is clipped to what the ring can hold.
+     */
+    WindowStats aggregate(final int handle, final long from, final long to) {
+        final var fromId = Math.floorDiv(from, bucketMillis);
+        final var toId = Math.floorDiv(to, bucketMillis);
+        final var start = fromId * bucketMillis;
+        final var end = toId * bucketMillis;
+
+        final var current = pages;
+        final var pageIndex = handle >>> PAGE_BITS;
+        final var page = pageIndex < current.length ? current[pageIndex] : null;
+        if (toId <= fromId || page == null) return WindowStats.empty(start, end);
+
+        final var base = (handle & PAGE_MASK) * bucketCount;
+        final var firstId = Math.max(fromId, toId - bucketCount);
+
+        var count = 0;
+        var min = Integer.MAX_VALUE;
+        var max = Integer.MIN_VALUE;
+        var sum = 0L;
+
+        final var lock = locks[handle & (LOCK_STRIPES - 1)];
+        lock.lock();
+        try {
+            for (long id = firstId; id < toId; id++) {
+                final var index = base + (int) Math.floorMod(id, (long) bucketCount);
+                if (page.ids[index] != id) continue;
+
+                count += page.count[index];
+                min = Math.min(min, page.min[index]);
+                max = Math.max(max, page.max[index]);
+                sum += page.sum[index];
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return count == 0 ? WindowStats.empty(start, end) : new WindowStats(start, end, count, min, max, sum);
+    }
+
+    // Pages are large, so unlike the rule table they are only allocated once a handle on them records something.
+    private Page page(final int handle) {
+        final var index = handle >>> PAGE_BITS;
+        final var current = pages;
+        if (index < current.length && current[index] != null) return current[index];
+
+        growLock.lock();
+        try {
+            var grown = pages;
+            if (index >= grown.length) grown = Arrays.copyOf(grown, Math.max(index + 1, grown.length * 2));
+            if (grown[index] == null) grown[index] = new Page();
+            pages = grown;
+            return grown[index];
+        } finally {
+            growLock.unlock();
+        }
+    }
+}
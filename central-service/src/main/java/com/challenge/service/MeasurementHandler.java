@@ -0,0 +1,38 @@
+package com.challenge.service;
+
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorSummary;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A stage that consumes decoded measurements; the JMS consumer hands every valid measurement to one of these.
+ */
+@FunctionalInterface
+public interface MeasurementHandler {
+
+    void onMeasurement(@NotNull Measurement measurement);
+
+    /**
+     * Handles readings a warehouse pre-aggregated; stages that only keep single readings see the summary's last one.
+     */
+    default void onSummary(@NotNull final SensorSummary summary) {
+        onMeasurement(summary.lastMeasurement());
+    }
+
+    default MeasurementHandler andThen(@NotNull final MeasurementHandler next) {
+        final var first = this;
+        return new MeasurementHandler() {
+            @Override
+            public void onMeasurement(@NotNull final Measurement measurement) {
+                first.onMeasurement(measurement);
+                next.onMeasurement(measurement);
+            }
+
+            @Override
+            public void onSummary(@NotNull final SensorSummary summary) {
+                first.onSummary(summary);
+                next.onSummary(summary);
+            }
+        };
+    }
+}
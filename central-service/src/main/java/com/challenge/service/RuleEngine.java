@@ -0,0 +1,151 @@
+package com.challenge.service;
+
+import com.challenge.domain.AlarmRule;
+import com.challenge.domain.AlarmRules;
+import com.challenge.domain.SensorType;
+import com.challenge.domain.ThresholdConfig;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Evaluates readings against {@link AlarmRule}s. The most specific rule for a sensor handle (warehouse and sensor,
+ * then warehouse, then sensor, then the global threshold for its type) is resolved once, the first time the handle is
+ * seen, and stored in a table indexed by handle next to primitive streak state. From then on evaluation is a few array
+ * reads and writes.
+ * <p>
+ * The table is split into fixed-size pages that never move, so growing it for new handles cannot lose state written
+ * concurrently to existing ones. Streak state assumes one sensor's readings are evaluated one at a time, which message
+ * groups guarantee.
+ */
+class RuleEngine {
+
+    static final long NO_ALARM = Long.MIN_VALUE;
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final byte IDLE = 0;
+    private static final byte ABOVE = 1;
+    private static final byte BELOW = 2;
+
+    private final Map<AlarmRule.Scope, CompiledRule> rules;
+    private final ReentrantLock growLock = new ReentrantLock();
+    private volatile Page[] pages = new Page[0];
+
+    // Final fields make a compiled rule safe to read from any thread as soon as its reference is visible.
+    private record CompiledRule(int upper, int lower, int hysteresis, int consecutive) {
+        // A plain bound (the global thresholds, or a rule without hysteresis or streak) alarms on every breach and
+        // leaves repeats to the dedup window, as before rules existed.
+        private boolean latches() {
+            return hysteresis > 0 || consecutive > 1;
+        }
+
+        private static CompiledRule of(final AlarmRule rule) {
+            return new CompiledRule(
+                    rule.upper() == null ? Integer.MAX_VALUE : rule.upper(),
+                    rule.lower() == null ? Integer.MIN_VALUE : rule.lower(),
+                    rule.hysteresis(),
+                    rule.consecutive()
+            );
+        }
+    }
+
+    private static final class Page {
+        private final CompiledRule[] rules = new CompiledRule[PAGE_SIZE];
+        private final int[] streak = new int[PAGE_SIZE];
+        private final byte[] state = new byte[PAGE_SIZE];
+    }
+
+    RuleEngine(@NotNull final ThresholdConfig defaults, @NotNull final AlarmRules alarmRules) {
+        this.rules = compile(defaults, alarmRules);
+    }
+
+    private static Map<AlarmRule.Scope, CompiledRule> compile(@NotNull final ThresholdConfig defaults, @NotNull final AlarmRules alarmRules) {
+        final var compiled = new HashMap<AlarmRule.Scope, CompiledRule>();
+        for (final var rule : alarmRules.rules()) {
+            compiled.put(rule.scope(), CompiledRule.of(rule));
+        }
+        compiled.putIfAbsent(new AlarmRule.Scope(null, null, SensorType.TEMPERATURE), CompiledRule.of(AlarmRule.upperBound(SensorType.TEMPERATURE, defaults.temperature())));
+        compiled.putIfAbsent(new AlarmRule.Scope(null, null, SensorType.HUMIDITY), CompiledRule.of(AlarmRule.upperBound(SensorType.HUMIDITY, defaults.humidity())));
+        return Map.copyOf(compiled);
+    }
+
+    /**
+     * @return the bound that was crossed when this reading alarms, otherwise {@link #NO_ALARM}. Under a rule with
+     * hysteresis or a streak that is once per episode; under a plain bound it is every breaching reading.
+     */
+    long evaluate(final int handle, @Nullable final String warehouseId, @NotNull final String sensorId,
+                  @NotNull final SensorType type, final int value) {
+        final var page = page(handle);
+        final var slot = handle & PAGE_MASK;
+
+        var rule = page.rules[slot];
+        if (rule == null) {
+            rule = lookup(warehouseId, sensorId, type);
+            page.rules[slot] = rule;
+        }
+
+        final var upper = rule.upper();
+        final var lower = rule.lower();
+
+        // An active alarm latches: breaches and readings within hysteresis of the crossed bound are the same episode and
+        // do not alarm again. Only a value that clears the band re-arms the rule, and is then evaluated afresh.
+        final var state = page.state[slot];
+        if (rule.latches() && state != IDLE && page.streak[slot] >= rule.consecutive()) {
+            final var cleared = state == ABOVE ? value <= upper - rule.hysteresis() : value >= lower + rule.hysteresis();
+            if (!cleared) return NO_ALARM;
+            page.state[slot] = IDLE;
+            page.streak[slot] = 0;
+        }
+
+        if (value > upper || value < lower) {
+            final var direction = value > upper ? ABOVE : BELOW;
+            if (page.state[slot] != direction) {
+                page.state[slot] = direction;
+                page.streak[slot] = 0;
+            }
+            if (++page.streak[slot] < rule.consecutive()) return NO_ALARM;
+            return direction == ABOVE ? upper : lower;
+        }
+
+        page.state[slot] = IDLE;
+        page.streak[slot] = 0;
+        return NO_ALARM;
+    }
+
+    private CompiledRule lookup(@Nullable final String warehouseId, @NotNull final String sensorId, @NotNull final SensorType type) {
+        var rule = rules.get(new AlarmRule.Scope(warehouseId, sensorId, type));
+        if (rule == null) rule = rules.get(new AlarmRule.Scope(warehouseId, null, type));
+        if (rule == null) rule = rules.get(new AlarmRule.Scope(null, sensorId, type));
+        if (rule == null) rule = rules.get(new AlarmRule.Scope(null, null, type));
+        return rule;
+    }
+
+    private Page page(final int handle) {
+        final var index = handle >>> PAGE_BITS;
+        final var current = pages;
+        if (index < current.length) return current[index];
+
+        growLock.lock();
+        try {
+            var grown = pages;
+            if (index >= grown.length) {
+                final var from = grown.length;
+                grown = Arrays.copyOf(grown, Math.max(index + 1, from * 2));
+                for (int i = from; i < grown.length; i++) {
+                    grown[i] = new Page();
+                }
+                pages = grown;
+            }
+            return grown[index];
+        } finally {
+            growLock.unlock();
+        }
+    }
+}
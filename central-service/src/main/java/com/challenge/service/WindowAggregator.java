@@ -0,0 +1,64 @@
+package com.challenge.service;
+
+import com.challenge.domain.AggregationWindow;
+import com.challenge.domain.SensorSummary;
+import com.challenge.domain.WindowStats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Incremental per-sensor aggregation over {@link AggregationWindow}s. Readings go into two bucket rings: 5 second
+ * buckets spanning 10 minutes serve the 1m and 5m windows, 1 minute buckets spanning 2 hours serve the 1h window. Each
+ * ring keeps twice the longest window it serves, so the last complete tumbling window is still intact while the next
+ * one fills. Memory per sensor is fixed at 240 buckets whatever the reading rate.
+ * <p>
+ * Windows are in event time (the measurement timestamp); readings older than a ring's span are counted as late and
+ * ignored by that ring.
+ */
+class WindowAggregator {
+
+    private static final int BUCKETS_PER_RING = 120;
+
+    private final BucketRing fine = new BucketRing(5_000, BUCKETS_PER_RING);
+    private final BucketRing coarse = new BucketRing(60_000, BUCKETS_PER_RING);
+    private final LongAdder late = new LongAdder();
+
+    void record(final int handle, final int value, final long timestamp) {
+        if (!fine.record(handle, value, timestamp)) late.increment();
+        coarse.record(handle, value, timestamp);
+    }
+
+    /**
+     * Records a warehouse summary whole into the bucket of its last reading.
+     */
+    void record(final int handle, final SensorSummary summary) {
+        if (!fine.record(handle, summary.count(), summary.min(), summary.max(), summary.sum(), summary.to())) late.increment();
+        coarse.record(handle, summary.count(), summary.min(), summary.max(), summary.sum(), summary.to());
+    }
+
+    /**
+     * Stats over the window ending with the bucket that contains {@code now}.
+     */
+    WindowStats sliding(final int handle, final AggregationWindow window, final long now) {
+        final var ring = ringFor(window);
+        final var to = (Math.floorDiv(now, ring.bucketMillis()) + 1) * ring.bucketMillis();
+        return ring.aggregate(handle, to - window.length().toMillis(), to);
+    }
+
+    /**
+     * Stats of the last complete window aligned to the window length (e.g. the previous wall-clock minute).
+     */
+    WindowStats tumbling(final int handle, final AggregationWindow window, final long now) {
+        final var length = window.length().toMillis();
+        final var to = Math.floorDiv(now, length) * length;
+        return ringFor(window).aggregate(handle, to - length, to);
+    }
+
+    long lateCount() {
+        return late.sum();
+    }
+
+    private BucketRing ringFor(final AggregationWindow window) {
+        return window == AggregationWindow.ONE_HOUR ? coarse : fine;
+    }
+}
@@ -0,0 +1,122 @@
+package com.challenge.store;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fixed-size memory-mapped segment of measurement rows in a block-columnar layout. After a 16 byte header
+ * ({@code int magic, int rowCount, long reserved}) the file is a sequence of blocks of {@link #ROWS_PER_BLOCK} rows:
+ * <pre>
+ *   long  base timestamp (first row of the block)
+ *   int[] sensor keys
+ *   int[] timestamp deltas from the base
+ *   int[] values
+ * </pre>
+ * Row data is written before the row count, so a reader or a restart never sees a half-written row.
+ */
+final class ColumnSegment {
+
+    static final int ROWS_PER_BLOCK = 256;
+
+    private static final int MAGIC = 0x4D534731;
+    private static final int HEADER_BYTES = 16;
+    private static final int ROW_COUNT_OFFSET = Integer.BYTES;
+    private static final int BLOCK_BYTES = Long.BYTES + 3 * Integer.BYTES * ROWS_PER_BLOCK;
+    private static final int SENSORS_OFFSET = Long.BYTES;
+    private static final int DELTAS_OFFSET = SENSORS_OFFSET + Integer.BYTES * ROWS_PER_BLOCK;
+    private static final int VALUES_OFFSET = DELTAS_OFFSET + Integer.BYTES * ROWS_PER_BLOCK;
+
+    static final int MIN_BYTES = HEADER_BYTES + BLOCK_BYTES;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int capacityRows;
+
+    // Written only by the appending thread; volatile so scans on other threads see rows as soon as they are committed.
+    private volatile int rowCount;
+
+    private ColumnSegment(final Path path, final MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        this.capacityRows = blocksFor(buffer.capacity()) * ROWS_PER_BLOCK;
+    }
+
+    static ColumnSegment create(@NotNull final Path path, final int sizeBytes) throws IOException {
+        final var segment = map(path, sizeBytes);
+        segment.buffer.putInt(0, MAGIC);
+        return segment;
+    }
+
+    static ColumnSegment open(@NotNull final Path path) throws IOException {
+        final var segment = map(path, (int) Files.size(path));
+        if (segment.buffer.getInt(0) != MAGIC) throw new IOException("Not a column segment: " + path);
+
+        segment.rowCount = Math.min(segment.buffer.getInt(ROW_COUNT_OFFSET), segment.capacityRows);
+        return segment;
+    }
+
+    private static ColumnSegment map(final Path path, final int sizeBytes) throws IOException {
+        try (final var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new ColumnSegment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes));
+        }
+    }
+
+    private static int blocksFor(final int sizeBytes) {
+        return (sizeBytes - HEADER_BYTES) / BLOCK_BYTES;
+    }
+
+    /**
+     * @return the row number, or {@code -1} when the segment is full.
+     */
+    int append(final int sensorKey, final long timestamp, final int value) {
+        final var row = rowCount;
+        if (row >= capacityRows) return -1;
+
+        final var block = blockOffset(row / ROWS_PER_BLOCK);
+        final var slot = row % ROWS_PER_BLOCK;
+        if (slot == 0) buffer.putLong(block, timestamp);
+
+        buffer.putInt(block + SENSORS_OFFSET + slot * Integer.BYTES, sensorKey);
+        buffer.putInt(block + DELTAS_OFFSET + slot * Integer.BYTES, (int) (timestamp - buffer.getLong(block)));
+        buffer.putInt(block + VALUES_OFFSET + slot * Integer.BYTES, value);
+
+        buffer.putInt(ROW_COUNT_OFFSET, row + 1);
+        rowCount = row + 1;
+        return row;
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    int sensorKey(final int row) {
+        return buffer.getInt(blockOffset(row / ROWS_PER_BLOCK) + SENSORS_OFFSET + (row % ROWS_PER_BLOCK) * Integer.BYTES);
+    }
+
+    long timestamp(final int row) {
+        final var block = blockOffset(row / ROWS_PER_BLOCK);
+        return buffer.getLong(block) + buffer.getInt(block + DELTAS_OFFSET + (row % ROWS_PER_BLOCK) * Integer.BYTES);
+    }
+
+    int value(final int row) {
+        return buffer.getInt(blockOffset(row / ROWS_PER_BLOCK) + VALUES_OFFSET + (row % ROWS_PER_BLOCK) * Integer.BYTES);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    Path path() {
+        return path;
+    }
+
+    private static int blockOffset(final int block) {
+        return HEADER_BYTES + block * BLOCK_BYTES;
+    }
+}
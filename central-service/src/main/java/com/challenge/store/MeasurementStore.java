@@ -0,0 +1,251 @@
+package com.challenge.store;
+
+import com.challenge.config.StoreConfig;
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorSummary;
+import com.challenge.domain.SensorType;
+import com.challenge.logging.LogThrottle;
+import com.challenge.service.MeasurementHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only local history of measurements. Rows are routed to a partition by their timestamp, one directory per
+ * {@code partitionMinutes}, and written to memory-mapped {@link ColumnSegment}s. A range scan for one sensor only
+ * opens the partitions overlapping the range and, inside each, only the blocks the sparse index lists for that sensor.
+ * Partitions older than {@code retentionHours} by central's wall clock are deleted as new ones are created.
+ * Timestamps come from warehouse clocks, so readings more than {@link #MAX_CLOCK_SKEW} ahead of central's clock, or
+ * already outside retention, are dropped rather than allowed to create partitions that would expire real history.
+ * <p>
+ * Appends are serialized by a lock; scans take no lock and see every row committed before they reached it.
+ */
+public class MeasurementStore implements MeasurementHandler, AutoCloseable {
+
+    private static final Pattern PARTITION_DIR = Pattern.compile("p-(\\d+)");
+    private static final long MAX_PARTITION_MILLIS = Duration.ofDays(7).toMillis();
+    static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(5);
+    private static final Logger logger = LoggerFactory.getLogger(MeasurementStore.class);
+    private static final LogThrottle droppedLog = new LogThrottle(logger, Level.WARN, "measurement outside the store's time range");
+
+    private final Path directory;
+    private final long partitionMillis;
+    private final int segmentBytes;
+    private final long retentionMillis;
+    private final SensorDictionary dictionary;
+    private final LongSupplier clock;
+
+    // Keys are partition start times; values are opened lazily, so a restart does not rebuild every partition's index.
+    private final ConcurrentSkipListMap<Long, Partition> partitions = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Long, Boolean> knownPartitions = new ConcurrentSkipListMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // Separate from the append lock so a scan opening an old partition (index rebuild) never stalls ingestion.
+    private final ReentrantLock openLock = new ReentrantLock();
+    private @Nullable Partition current;
+
+    @FunctionalInterface
+    public interface RowVisitor {
+        /**
+         * @return {@code false} to stop the scan.
+         */
+        boolean visit(long timestamp, int value);
+    }
+
+    public MeasurementStore(@NotNull final StoreConfig config) {
+        this(config, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock central's wall clock in epoch milliseconds.
+     */
+    MeasurementStore(@NotNull final StoreConfig config, @NotNull final LongSupplier clock) {
+        if (config.segmentBytes() < ColumnSegment.MIN_BYTES) {
+            throw new IllegalArgumentException("Segment size too small: " + config.segmentBytes());
+        }
+        this.directory = Path.of(config.directory());
+        this.partitionMillis = Math.min(MAX_PARTITION_MILLIS, Duration.ofMinutes(Math.max(1, config.partitionMinutes())).toMillis());
+        this.segmentBytes = config.segmentBytes();
+        this.retentionMillis = Duration.ofHours(Math.max(1, config.retentionHours())).toMillis();
+        this.clock = clock;
+
+        try {
+            Files.createDirectories(directory);
+            this.dictionary = new SensorDictionary(directory.resolve("sensors.dict"));
+            discoverPartitions();
+            expire(Long.MAX_VALUE);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException("Unable to open measurement store at " + directory, ex);
+        }
+        logger.info("Measurement store opened at {} with {} partition(s)", directory, knownPartitions.size());
+    }
+
+    private void discoverPartitions() throws IOException {
+        try (final var files = Files.list(directory)) {
+            files.forEach(path -> {
+                final var matcher = PARTITION_DIR.matcher(path.getFileName().toString());
+                if (matcher.matches()) knownPartitions.put(Long.parseLong(matcher.group(1)), Boolean.TRUE);
+            });
+        }
+    }
+
+    @Override
+    public void onMeasurement(@NotNull final Measurement measurement) {
+        append(measurement);
+    }
+
+    /**
+     * History keeps one row per summary, its last reading; the summary's count/min/max live in the window aggregates
+     * only. A stored row is a real reading, where min/max without their timestamps would not be.
+     */
+    @Override
+    public void onSummary(@NotNull final SensorSummary summary) {
+        append(summary.lastMeasurement());
+    }
+
+    public void append(@NotNull final Measurement measurement) {
+        if (measurement.type() == null) return;
+
+        final var now = clock.getAsLong();
+        final var partitionStart = partitionStart(measurement.timestamp());
+        if (measurement.timestamp() > now + MAX_CLOCK_SKEW.toMillis() || partitionStart < retentionCutoff(now)) {
+            if (droppedLog.sample()) droppedLog.log("Not storing measurement outside retention or ahead of the clock. measurement={} now={}", measurement, now);
+            return;
+        }
+
+        lock.lock();
+        try {
+            final var key = dictionary.keyFor(measurement.warehouseId(), measurement.sensorId(), measurement.type());
+            var target = current;
+            if (target == null || target.start() != partitionStart) {
+                target = partition(partitionStart, true);
+                if (current == null || partitionStart > current.start()) current = target;
+            }
+            target.append(key, measurement.timestamp(), measurement.value());
+        } catch (final IOException ex) {
+            logger.warn("Unable to store measurement. error={}", ex.toString());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Streams the stored readings of one sensor with {@code from <= timestamp < to} to {@code visitor}, partition by
+     * partition in time order and in arrival order within a partition.
+     */
+    public void scan(@Nullable final String warehouseId, @NotNull final String sensorId, @NotNull final SensorType type,
+                     final long from, final long to, @NotNull final RowVisitor visitor) {
+        final var key = dictionary.find(warehouseId, sensorId, type);
+        if (key == SensorDictionary.UNKNOWN || to <= from) return;
+
+        final var firstStart = partitionStart(from);
+        for (final var start : knownPartitions.subMap(firstStart, true, to, false).keySet()) {
+            final Partition partition;
+            try {
+                partition = partition(start, false);
+            } catch (final IOException ex) {
+                logger.warn("Unable to open partition {}. error={}", start, ex.toString());
+                continue;
+            }
+            if (partition == null || !scan(partition, key, from, to, visitor)) return;
+        }
+    }
+
+    private static boolean scan(final Partition partition, final int key, final long from, final long to, final RowVisitor visitor) {
+        final var blocks = partition.blocksOf(key);
+        for (int i = 0; i < blocks.count(); i++) {
+            final var entry = blocks.entries()[i];
+            final var segment = partition.segment((int) (entry >>> 32));
+            final var firstRow = (int) entry * ColumnSegment.ROWS_PER_BLOCK;
+            final var endRow = Math.min(segment.rowCount(), firstRow + ColumnSegment.ROWS_PER_BLOCK);
+
+            for (int row = firstRow; row < endRow; row++) {
+                if (segment.sensorKey(row) != key) continue;
+
+                final var timestamp = segment.timestamp(row);
+                if (timestamp >= from && timestamp < to && !visitor.visit(timestamp, segment.value(row))) return false;
+            }
+        }
+        return true;
+    }
+
+    private @Nullable Partition partition(final long start, final boolean create) throws IOException {
+        final var existing = partitions.get(start);
+        if (existing != null) return existing;
+        if (!create && !knownPartitions.containsKey(start)) return null;
+
+        openLock.lock();
+        try {
+            var partition = partitions.get(start);
+            if (partition == null) {
+                partition = Partition.open(start, directory.resolve("p-" + start), segmentBytes);
+                partitions.put(start, partition);
+                if (knownPartitions.put(start, Boolean.TRUE) == null) expire(start);
+            }
+            return partition;
+        } finally {
+            openLock.unlock();
+        }
+    }
+
+    private long partitionStart(final long timestamp) {
+        return Math.floorDiv(timestamp, partitionMillis) * partitionMillis;
+    }
+
+    // The partition holding now - retention is kept, so the retention window is always fully covered.
+    private long retentionCutoff(final long now) {
+        return partitionStart(now - retentionMillis);
+    }
+
+    /**
+     * Deletes partitions before the retention cutoff, never {@code keepFrom} or anything after it.
+     */
+    private void expire(final long keepFrom) {
+        final var cutoff = Math.min(keepFrom, retentionCutoff(clock.getAsLong()));
+        for (final var start : knownPartitions.headMap(cutoff, false).keySet()) {
+            knownPartitions.remove(start);
+            final var partition = partitions.remove(start);
+            if (partition == current) current = null;
+            deleteRecursively(partition != null ? partition.directory() : directory.resolve("p-" + start));
+            logger.info("Deleted measurement partition {} (retention)", start);
+        }
+    }
+
+    private static void deleteRecursively(final Path path) {
+        try (final Stream<Path> files = Files.walk(path)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (final IOException ex) {
+                    logger.warn("Unable to delete {}. error={}", file, ex.toString());
+                }
+            });
+        } catch (final IOException ex) {
+            logger.warn("Unable to delete {}. error={}", path, ex.toString());
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            partitions.values().forEach(Partition::force);
+            dictionary.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
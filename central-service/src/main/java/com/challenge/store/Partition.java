@@ -0,0 +1,133 @@
+package com.challenge.store;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * One time partition: a directory of {@link ColumnSegment}s plus a sparse per-sensor index listing the blocks each
+ * sensor has rows in. The index lives in memory and is rebuilt from the sensor column when an existing partition is
+ * opened. Appends must be serialized by the caller; {@link #blocksOf(int)} and the segments may be read concurrently.
+ */
+final class Partition {
+
+    private static final String SEGMENT_PREFIX = "seg-";
+    private static final String SEGMENT_SUFFIX = ".col";
+
+    private final long start;
+    private final Path directory;
+    private final int segmentBytes;
+    private final List<ColumnSegment> segments = new CopyOnWriteArrayList<>();
+
+    // Per sensor key: encoded (segment << 32 | block) entries, appended in order. Arrays are only replaced, never
+    // shrunk, so a reader holding an old array and count still sees a consistent prefix.
+    private volatile long[][] blocksBySensor = new long[0][];
+    private volatile int[] blockCounts = new int[0];
+
+    record Blocks(long[] entries, int count) {
+    }
+
+    private Partition(final long start, final Path directory, final int segmentBytes) {
+        this.start = start;
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    static Partition open(final long start, @NotNull final Path directory, final int segmentBytes) throws IOException {
+        final var partition = new Partition(start, directory, segmentBytes);
+        Files.createDirectories(directory);
+
+        try (final var files = Files.list(directory)) {
+            final var existing = files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+            for (final var path : existing) {
+                partition.recover(ColumnSegment.open(path));
+            }
+        }
+        return partition;
+    }
+
+    private void recover(final ColumnSegment segment) {
+        segments.add(segment);
+        final var segmentIndex = segments.size() - 1;
+        for (int row = 0; row < segment.rowCount(); row++) {
+            index(segment.sensorKey(row), segmentIndex, row / ColumnSegment.ROWS_PER_BLOCK);
+        }
+    }
+
+    long start() {
+        return start;
+    }
+
+    void append(final int sensorKey, final long timestamp, final int value) throws IOException {
+        var segmentIndex = segments.size() - 1;
+        var row = segmentIndex < 0 ? -1 : segments.get(segmentIndex).append(sensorKey, timestamp, value);
+
+        if (row < 0) {
+            segments.add(ColumnSegment.create(directory.resolve(segmentName(segments.size())), segmentBytes));
+            segmentIndex = segments.size() - 1;
+            row = segments.get(segmentIndex).append(sensorKey, timestamp, value);
+        }
+        index(sensorKey, segmentIndex, row / ColumnSegment.ROWS_PER_BLOCK);
+    }
+
+    private void index(final int sensorKey, final int segmentIndex, final int block) {
+        var blocks = blocksBySensor;
+        var counts = blockCounts;
+        if (sensorKey >= blocks.length) {
+            final var size = Math.max(sensorKey + 1, blocks.length * 2);
+            blocks = Arrays.copyOf(blocks, size);
+            counts = Arrays.copyOf(counts, size);
+        }
+
+        final var entry = ((long) segmentIndex << 32) | block;
+        var entries = blocks[sensorKey];
+        final var count = counts[sensorKey];
+        if (count > 0 && entries[count - 1] == entry) return;
+
+        if (entries == null) {
+            entries = new long[8];
+        } else if (count == entries.length) {
+            entries = Arrays.copyOf(entries, count * 2);
+        }
+        entries[count] = entry;
+        blocks[sensorKey] = entries;
+        counts[sensorKey] = count + 1;
+
+        blocksBySensor = blocks;
+        blockCounts = counts;
+    }
+
+    Blocks blocksOf(final int sensorKey) {
+        final var counts = blockCounts;
+        final var blocks = blocksBySensor;
+        if (sensorKey >= counts.length || sensorKey >= blocks.length || blocks[sensorKey] == null) {
+            return new Blocks(new long[0], 0);
+        }
+        return new Blocks(blocks[sensorKey], Math.min(counts[sensorKey], blocks[sensorKey].length));
+    }
+
+    ColumnSegment segment(final int index) {
+        return segments.get(index);
+    }
+
+    void force() {
+        segments.forEach(ColumnSegment::force);
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    private static String segmentName(final int index) {
+        return String.format("%s%06d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+    }
+}
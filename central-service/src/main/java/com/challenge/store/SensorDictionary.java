@@ -0,0 +1,138 @@
+package com.challenge.store;
+
+import com.challenge.domain.SensorType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent (warehouse, sensor, type) to int key mapping, so column files store a 4 byte key per row. Keys are
+ * assigned in order and appended to {@code sensors.dict} as {@code [short len][warehouse][short len][sensor][byte type]};
+ * the file is replayed on open, so keys stay stable across restarts.
+ */
+final class SensorDictionary implements AutoCloseable {
+
+    static final int UNKNOWN = -1;
+
+    private static final String NO_WAREHOUSE = "";
+    private static final SensorType[] TYPES = SensorType.values();
+
+    record Entry(String warehouseId, String sensorId, SensorType type) {
+    }
+
+    private final FileChannel channel;
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, int[]>> keys = new ConcurrentHashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+
+    SensorDictionary(@NotNull final Path path) throws IOException {
+        final var validBytes = Files.exists(path) ? replay(ByteBuffer.wrap(Files.readAllBytes(path))) : 0;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        // Drops a record torn by a crash so later appends stay parseable.
+        channel.truncate(validBytes);
+        channel.position(validBytes);
+    }
+
+    private int replay(final ByteBuffer in) {
+        while (true) {
+            final var start = in.position();
+            try {
+                final var warehouseId = readString(in);
+                final var sensorId = readString(in);
+                final var type = Byte.toUnsignedInt(in.get());
+                register(warehouseId, sensorId, TYPES[type]);
+            } catch (final BufferUnderflowException | ArrayIndexOutOfBoundsException ex) {
+                return start;
+            }
+        }
+    }
+
+    /**
+     * Lookup without assigning; allocation free for known sensors.
+     */
+    int find(@Nullable final String warehouseId, @NotNull final String sensorId, @NotNull final SensorType type) {
+        final var sensors = keys.get(warehouseId == null ? NO_WAREHOUSE : warehouseId);
+        final var byType = sensors == null ? null : sensors.get(sensorId);
+        return byType == null ? UNKNOWN : byType[type.ordinal()];
+    }
+
+    /**
+     * Must be called by one thread at a time; the store serializes appends.
+     */
+    int keyFor(@Nullable final String warehouseId, @NotNull final String sensorId, @NotNull final SensorType type) {
+        final var existing = find(warehouseId, sensorId, type);
+        if (existing != UNKNOWN) return existing;
+
+        final var warehouse = warehouseId == null ? NO_WAREHOUSE : warehouseId;
+        persist(warehouse, sensorId, type);
+        return register(warehouse, sensorId, type);
+    }
+
+    @Nullable
+    Entry entry(final int key) {
+        synchronized (entries) {
+            return key >= 0 && key < entries.size() ? entries.get(key) : null;
+        }
+    }
+
+    private int register(final String warehouseId, final String sensorId, final SensorType type) {
+        final int key;
+        synchronized (entries) {
+            key = entries.size();
+            entries.add(new Entry(warehouseId, sensorId, type));
+        }
+
+        final var byType = keys.computeIfAbsent(warehouseId, ignored -> new ConcurrentHashMap<>())
+                .computeIfAbsent(sensorId, ignored -> newSlots());
+        byType[type.ordinal()] = key;
+        return key;
+    }
+
+    private void persist(final String warehouseId, final String sensorId, final SensorType type) {
+        final var warehouse = warehouseId.getBytes(StandardCharsets.UTF_8);
+        final var sensor = sensorId.getBytes(StandardCharsets.UTF_8);
+        final var record = ByteBuffer.allocate(2 + warehouse.length + 2 + sensor.length + 1)
+                .putShort((short) warehouse.length).put(warehouse)
+                .putShort((short) sensor.length).put(sensor)
+                .put((byte) type.ordinal())
+                .flip();
+        try {
+            while (record.hasRemaining()) channel.write(record);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException("Unable to persist sensor dictionary entry", ex);
+        }
+    }
+
+    private static String readString(final ByteBuffer in) {
+        final var bytes = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int[] newSlots() {
+        final var slots = new int[TYPES.length];
+        Arrays.fill(slots, UNKNOWN);
+        return slots;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.force(true);
+            channel.close();
+        } catch (final IOException ignored) {
+        }
+    }
+}
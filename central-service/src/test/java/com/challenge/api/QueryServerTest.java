@@ -0,0 +1,127 @@
+package com.challenge.api;
+
+import com.challenge.config.StoreConfig;
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorType;
+import com.challenge.domain.ThresholdConfig;
+import com.challenge.service.AlarmService;
+import com.challenge.store.MeasurementStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryServerTest {
+
+    // Recent enough to fall inside the store's retention, which is measured from the wall clock.
+    private static final long START = (System.currentTimeMillis() - 3_600_000L) / 60_000L * 60_000L;
+
+    @TempDir
+    Path directory;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private AlarmService alarmService;
+    private MeasurementStore store;
+    private QueryServer underTest;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        alarmService = new AlarmService(new ThresholdConfig(35, 50));
+        store = new MeasurementStore(new StoreConfig(true, directory.toString(), 60, 64 * 1024, 24));
+        underTest = new QueryServer(0, alarmService, store, Thread.ofVirtual().factory());
+        underTest.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.close();
+        store.close();
+    }
+
+    @Test
+    void measurements_shouldStreamOneLinePerRowUpToLimit() throws Exception {
+        // given
+        IntStream.range(0, 100).forEach(i -> store.append(new Measurement("WH-1", "t1", SensorType.TEMPERATURE, i, START + i * 1_000L)));
+
+        // when
+        final var response = get("/measurements?warehouseId=WH-1&sensorId=t1&type=temperature&from=" + START + "&to=" + (START + 60_000) + "&limit=5");
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body().lines()).containsExactly(
+                "{\"ts\":" + START + ",\"value\":0}",
+                "{\"ts\":" + (START + 1_000) + ",\"value\":1}",
+                "{\"ts\":" + (START + 2_000) + ",\"value\":2}",
+                "{\"ts\":" + (START + 3_000) + ",\"value\":3}",
+                "{\"ts\":" + (START + 4_000) + ",\"value\":4}");
+    }
+
+    @Test
+    void aggregates_shouldDownsampleIntoSteps() throws Exception {
+        // given
+        IntStream.range(0, 20).forEach(i -> store.append(new Measurement("WH-1", "t1", SensorType.TEMPERATURE, i, START + i * 1_000L)));
+
+        // when
+        final var response = get("/aggregates?warehouseId=WH-1&sensorId=t1&type=TEMPERATURE&step=10000&from=" + START + "&to=" + (START + 20_000));
+
+        // then
+        assertThat(response.body().lines()).containsExactly(
+                "{\"from\":" + START + ",\"to\":" + (START + 10_000) + ",\"count\":10,\"min\":0,\"max\":9,\"avg\":4.5}",
+                "{\"from\":" + (START + 10_000) + ",\"to\":" + (START + 20_000) + ",\"count\":10,\"min\":10,\"max\":19,\"avg\":14.5}");
+    }
+
+    @Test
+    void aggregates_shouldDefaultToTheLastHour_whenRangeIsOmitted() throws Exception {
+        // given
+        final var recent = System.currentTimeMillis() - 1_000;
+        store.append(new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 7, recent));
+
+        // when
+        final var response = get("/aggregates?warehouseId=WH-1&sensorId=t1&type=TEMPERATURE&step=60000");
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body().lines()).singleElement().asString().contains("\"count\":1,\"min\":7,\"max\":7");
+    }
+
+    @Test
+    void alarms_shouldReturnRaisedAlarmsInRange() throws Exception {
+        // given
+        alarmService.onMeasurement(new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 40, START));
+        alarmService.onMeasurement(new Measurement("WH-1", "t2", SensorType.TEMPERATURE, 20, START));
+
+        // when
+        final var response = get("/alarms?from=" + START + "&to=" + (START + 1));
+
+        // then
+        assertThat(response.body().lines()).containsExactly(
+                "{\"warehouseId\":\"WH-1\",\"sensorId\":\"t1\",\"type\":\"TEMPERATURE\",\"value\":40,\"threshold\":35,\"ts\":" + START + "}");
+    }
+
+    @Test
+    void query_shouldRejectBadParameters() throws Exception {
+        // when
+        final var missingType = get("/measurements?sensorId=t1");
+        final var badStep = get("/aggregates?sensorId=t1&type=HUMIDITY&step=0");
+
+        // then
+        assertThat(missingType.statusCode()).isEqualTo(400);
+        assertThat(badStep.statusCode()).isEqualTo(400);
+        assertThat(badStep.body()).contains("step");
+    }
+
+    private HttpResponse<String> get(final String path) throws Exception {
+        final var request = HttpRequest.newBuilder(URI.create("http://localhost:" + underTest.port() + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
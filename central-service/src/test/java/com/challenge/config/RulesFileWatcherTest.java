@@ -0,0 +1,106 @@
+package com.challenge.config;
+
+import com.challenge.domain.AlarmRules;
+import com.challenge.metrics.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class RulesFileWatcherTest {
+
+    private static final String VALID = """
+            {"rules": [{"warehouseId": "WH-1", "type": "TEMPERATURE", "upper": 8}]}
+            """;
+    private static final String INVERTED_BOUNDS = """
+            {"rules": [{"warehouseId": "WH-1", "type": "TEMPERATURE", "upper": 2, "lower": 8}]}
+            """;
+
+    @TempDir
+    Path directory;
+
+    private final List<AlarmRules> applied = new CopyOnWriteArrayList<>();
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private RulesFileWatcher underTest;
+
+    @AfterEach
+    void tearDown() {
+        if (underTest != null) underTest.close();
+    }
+
+    @Test
+    void watcher_shouldApplyNewRules_whenFileIsReplaced() throws IOException {
+        // given
+        final var file = directory.resolve("rules.json");
+        Files.writeString(file, "{\"rules\": []}");
+        underTest = start(file);
+
+        // when
+        final var staged = directory.resolve("rules.json.tmp");
+        Files.writeString(staged, VALID);
+        Files.move(staged, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // then
+        await().atMost(Duration.ofSeconds(10)).until(() -> !applied.isEmpty());
+        assertThat(applied.getLast().rules()).hasSize(1);
+    }
+
+    @Test
+    void watcher_shouldApplyNewRules_whenConfigMountSwapsTheDataSymlink() throws IOException {
+        // given
+        // Kubernetes ConfigMap layout: rules.json -> ..data/rules.json, ..data -> a timestamped directory.
+        final var first = Files.createDirectory(directory.resolve("..2026_01_01_00_00_00.1"));
+        Files.writeString(first.resolve("rules.json"), "{\"rules\": []}");
+        Files.createSymbolicLink(directory.resolve("..data"), first.getFileName());
+        final var file = Files.createSymbolicLink(directory.resolve("rules.json"), Path.of("..data", "rules.json"));
+        underTest = start(file);
+
+        // when
+        final var second = Files.createDirectory(directory.resolve("..2026_01_01_00_01_00.2"));
+        Files.writeString(second.resolve("rules.json"), VALID);
+        Files.createSymbolicLink(directory.resolve("..data_tmp"), second.getFileName());
+        Files.move(directory.resolve("..data_tmp"), directory.resolve("..data"), StandardCopyOption.ATOMIC_MOVE);
+
+        // then
+        await().atMost(Duration.ofSeconds(10)).until(() -> !applied.isEmpty());
+        assertThat(applied.getLast().rules()).hasSize(1);
+    }
+
+    @Test
+    void watcher_shouldKeepCurrentRules_whenUpdateIsInvalid() throws IOException {
+        // given
+        final var file = directory.resolve("rules.json");
+        Files.writeString(file, "{\"rules\": []}");
+        underTest = start(file);
+
+        // when
+        Files.writeString(file, INVERTED_BOUNDS);
+        await().atMost(Duration.ofSeconds(10)).until(() -> rejected() == 1);
+        Files.writeString(file, VALID);
+
+        // then
+        await().atMost(Duration.ofSeconds(10)).until(() -> !applied.isEmpty());
+        assertThat(rejected()).isEqualTo(1);
+        assertThat(applied).allSatisfy(rules -> assertThat(rules.rules().getFirst().upper()).isEqualTo(8));
+    }
+
+    private RulesFileWatcher start(final Path file) throws IOException {
+        final var watcher = new RulesFileWatcher(file, applied::add, Thread.ofPlatform().daemon(true).factory(), metrics);
+        watcher.start();
+        return watcher;
+    }
+
+    private long rejected() {
+        return metrics.counter("central_rules_rejected_total", "").get();
+    }
+}
@@ -0,0 +1,54 @@
+package com.challenge.consumer;
+
+import com.challenge.metrics.MetricsRegistry;
+import com.challenge.trace.TraceStamps;
+import org.apache.activemq.command.ActiveMQTextMessage;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HopLatenciesTest {
+
+    @Test
+    void onDelivered_shouldRecordEveryHop_whenMessageIsStamped() throws Exception {
+        // given
+        final var metrics = new MetricsRegistry();
+        final var underTest = new HopLatencies(metrics);
+        final var now = TraceStamps.nowMicros();
+        final var message = new ActiveMQTextMessage();
+        message.setLongProperty(TraceStamps.RECEIVED_PROPERTY, now - 3_000);
+        message.setLongProperty(TraceStamps.PARSED_PROPERTY, now - 2_900);
+        message.setLongProperty(TraceStamps.PUBLISHED_PROPERTY, now - 1_000);
+
+        // when
+        final var delivery = underTest.onDelivered(message);
+        underTest.onEvaluated(delivery);
+
+        // then
+        final var scrape = metrics.scrape();
+        assertThat(delivery.receivedMicros()).isEqualTo(now - 3_000);
+        assertThat(scrape).contains("central_hop_seconds_count{hop=\"parse\"} 1");
+        assertThat(scrape).contains("central_hop_seconds{hop=\"parse\",quantile=\"0.5\"} 1.0E-4");
+        assertThat(scrape).contains("central_hop_seconds_count{hop=\"publish\"} 1");
+        assertThat(scrape).contains("central_hop_seconds_count{hop=\"broker\"} 1");
+        assertThat(scrape).contains("central_hop_seconds_count{hop=\"evaluate\"} 1");
+        assertThat(scrape).contains("central_end_to_end_seconds_count 1");
+    }
+
+    @Test
+    void onDelivered_shouldSkipMissingStamps() {
+        // given
+        final var metrics = new MetricsRegistry();
+        final var underTest = new HopLatencies(metrics);
+
+        // when
+        underTest.onEvaluated(underTest.onDelivered(new ActiveMQTextMessage()));
+
+        // then
+        final var scrape = metrics.scrape();
+        assertThat(scrape).contains("central_hop_seconds_count{hop=\"parse\"} 0");
+        assertThat(scrape).contains("central_hop_seconds_count{hop=\"broker\"} 0");
+        assertThat(scrape).contains("central_hop_seconds_count{hop=\"evaluate\"} 1");
+        assertThat(scrape).contains("central_end_to_end_seconds_count 0");
+    }
+}
@@ -0,0 +1,83 @@
+package com.challenge.service;
+
+import com.challenge.config.DedupConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlarmDeduplicatorTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+    @Test
+    void firstWithinWindow_shouldSuppressRepeats_untilWindowElapses() {
+        // given
+        final var underTest = new AlarmDeduplicator(new DedupConfig(100, 15_000), clock::get);
+
+        // when
+        final var first = underTest.firstWithinWindow(7);
+        clock.addAndGet(14_999);
+        final var repeat = underTest.firstWithinWindow(7);
+        clock.addAndGet(1);
+        final var afterWindow = underTest.firstWithinWindow(7);
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(repeat).isFalse();
+        assertThat(afterWindow).isTrue();
+    }
+
+    @Test
+    void firstWithinWindow_shouldExpireEntries_asTheWheelAdvances() {
+        // given
+        final var underTest = new AlarmDeduplicator(new DedupConfig(100, 1_000), clock::get);
+        LongStream.range(0, 10).forEach(underTest::firstWithinWindow);
+
+        // when
+        clock.addAndGet(2_000);
+        underTest.firstWithinWindow(99);
+
+        // then
+        assertThat(underTest.size()).isEqualTo(1);
+    }
+
+    @Test
+    void firstWithinWindow_shouldEvictOldestKeys_whenCapacityIsReached() {
+        // given
+        final var underTest = new AlarmDeduplicator(new DedupConfig(4, 64_000), clock::get);
+        LongStream.range(0, 4).forEach(key -> {
+            underTest.firstWithinWindow(key);
+            clock.addAndGet(1_000);
+        });
+
+        // when
+        final var accepted = underTest.firstWithinWindow(4);
+
+        // then
+        assertThat(accepted).isTrue();
+        assertThat(underTest.size()).isEqualTo(4);
+        assertThat(underTest.evictedCount()).isEqualTo(1);
+        assertThat(underTest.firstWithinWindow(3)).isFalse();
+        assertThat(underTest.firstWithinWindow(0)).isTrue();
+    }
+
+    @Test
+    void firstWithinWindow_shouldKeepProbeChainsIntact_afterDeletions() {
+        // given
+        final var underTest = new AlarmDeduplicator(new DedupConfig(1_000, 1_000), clock::get);
+        LongStream.range(0, 500).forEach(underTest::firstWithinWindow);
+        clock.addAndGet(500);
+        LongStream.range(500, 1_000).forEach(underTest::firstWithinWindow);
+
+        // when
+        clock.addAndGet(600);
+        underTest.firstWithinWindow(5_000);
+
+        // then
+        assertThat(underTest.size()).isEqualTo(501);
+        assertThat(LongStream.range(500, 1_000).noneMatch(underTest::firstWithinWindow)).isTrue();
+    }
+}
@@ -1,11 +1,19 @@
 package com.challenge.service;
 
+import com.challenge.config.DedupConfig;
 import com.challenge.domain.Alarm;
+import com.challenge.domain.AlarmRule;
+import com.challenge.domain.AlarmRules;
 import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorSummary;
 import com.challenge.domain.SensorType;
 import com.challenge.domain.ThresholdConfig;
+import com.challenge.metrics.MetricsRegistry;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class AlarmServiceTest {
@@ -75,4 +83,61 @@ class AlarmServiceTest {
         // then
         assertThat(result).isEmpty();
     }
+
+    @Test
+    void updateRules_shouldApplyNewRules_toFollowingReadings() {
+        // given
+        final var underTest = new AlarmService(new ThresholdConfig(35, 50));
+        final var measurement =
+                new Measurement("WH-1", "S-1", SensorType.TEMPERATURE, 10, 1_700_000_000L);
+        assertThat(underTest.evaluate(measurement)).isEmpty();
+
+        // when
+        underTest.updateRules(new AlarmRules(List.of(
+                new AlarmRule("WH-1", null, SensorType.TEMPERATURE, 8, null, null, null))));
+        final var result = underTest.evaluate(measurement);
+
+        // then
+        assertThat(result)
+                .isPresent()
+                .get()
+                .returns(8, Alarm::thresholdUsed);
+    }
+
+    @Test
+    void onSummary_shouldRaiseAlarm_whenAFoldedExtremeBreaksAPerSensorRule() {
+        // given
+        final var underTest = new AlarmService(new ThresholdConfig(35, 50), new AlarmRules(List.of(
+                new AlarmRule("WH-1", null, SensorType.TEMPERATURE, 8, 2, null, null))), DedupConfig.defaults());
+        final var summary = new SensorSummary("WH-1", "S-1", SensorType.TEMPERATURE, 3, 1, 5, 10, 4, 1_700_000_000L, 1_700_000_020L);
+
+        // when
+        underTest.onSummary(summary);
+
+        // then
+        final var raised = new ArrayList<Alarm>();
+        underTest.forEachRecentAlarm(raised::add);
+        assertThat(raised).singleElement()
+                .returns(1, Alarm::value)
+                .returns(2, Alarm::thresholdUsed)
+                .returns(1_700_000_020L, Alarm::timestamp);
+    }
+
+    @Test
+    void onMeasurement_shouldAlarmOnceAndCountDedupHits_whenBreachIsSustainedUnderDefaultThresholds() {
+        // given
+        final var metrics = new MetricsRegistry();
+        final var underTest = new AlarmService(new ThresholdConfig(35, 50), AlarmRules.none(), DedupConfig.defaults(), false, metrics);
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            underTest.onMeasurement(new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 40, 1_700_000_000L + i));
+        }
+
+        // then
+        final var raised = new ArrayList<Alarm>();
+        underTest.forEachRecentAlarm(raised::add);
+        assertThat(raised).singleElement().returns(40, Alarm::value);
+        assertThat(metrics.counter("central_alarm_dedup_hits_total", "").get()).isEqualTo(2);
+    }
 }
@@ -0,0 +1,129 @@
+package com.challenge.service;
+
+import com.challenge.domain.AlarmRule;
+import com.challenge.domain.AlarmRules;
+import com.challenge.domain.SensorType;
+import com.challenge.domain.ThresholdConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RuleEngineTest {
+
+    private static final ThresholdConfig DEFAULTS = new ThresholdConfig(35, 50);
+
+    @Test
+    void evaluate_shouldPreferTheMostSpecificRule() {
+        // given
+        final var underTest = new RuleEngine(DEFAULTS, new AlarmRules(List.of(
+                new AlarmRule("WH-1", null, SensorType.TEMPERATURE, 8, null, null, null),
+                new AlarmRule("WH-1", "t1", SensorType.TEMPERATURE, 4, null, null, null),
+                new AlarmRule(null, "t9", SensorType.TEMPERATURE, 20, null, null, null)
+        )));
+
+        // when
+        final var exact = underTest.evaluate(0, "WH-1", "t1", SensorType.TEMPERATURE, 5);
+        final var warehouse = underTest.evaluate(1, "WH-1", "t2", SensorType.TEMPERATURE, 9);
+        final var sensor = underTest.evaluate(2, "WH-2", "t9", SensorType.TEMPERATURE, 21);
+        final var global = underTest.evaluate(3, "WH-2", "t3", SensorType.TEMPERATURE, 21);
+
+        // then
+        assertThat(exact).isEqualTo(4);
+        assertThat(warehouse).isEqualTo(8);
+        assertThat(sensor).isEqualTo(20);
+        assertThat(global).isEqualTo(RuleEngine.NO_ALARM);
+    }
+
+    @Test
+    void evaluate_shouldRaiseAlarm_whenBelowLowerBound() {
+        // given
+        final var underTest = new RuleEngine(DEFAULTS, new AlarmRules(List.of(
+                new AlarmRule("WH-1", null, SensorType.TEMPERATURE, 8, 2, null, null)
+        )));
+
+        // when
+        final var atBound = underTest.evaluate(0, "WH-1", "t1", SensorType.TEMPERATURE, 2);
+        final var below = underTest.evaluate(0, "WH-1", "t1", SensorType.TEMPERATURE, 1);
+
+        // then
+        assertThat(atBound).isEqualTo(RuleEngine.NO_ALARM);
+        assertThat(below).isEqualTo(2);
+    }
+
+    @Test
+    void evaluate_shouldRequireConsecutiveBreaches() {
+        // given
+        final var underTest = new RuleEngine(DEFAULTS, new AlarmRules(List.of(
+                new AlarmRule(null, null, SensorType.HUMIDITY, 50, null, null, 3)
+        )));
+
+        // when
+        final var results = IntStream.of(51, 52, 40, 51, 51, 51)
+                .mapToLong(value -> underTest.evaluate(0, "WH-1", "h1", SensorType.HUMIDITY, value))
+                .boxed()
+                .toList();
+
+        // then
+        final var none = RuleEngine.NO_ALARM;
+        assertThat(results).containsExactly(none, none, none, none, none, 50L);
+    }
+
+    @Test
+    void evaluate_shouldStayLatchedWithinHysteresis() {
+        // given
+        final var underTest = new RuleEngine(DEFAULTS, new AlarmRules(List.of(
+                new AlarmRule(null, null, SensorType.TEMPERATURE, 35, null, 3, 2)
+        )));
+        underTest.evaluate(0, "WH-1", "t1", SensorType.TEMPERATURE, 36);
+        final var raised = underTest.evaluate(0, "WH-1", "t1", SensorType.TEMPERATURE, 36);
+
+        // when
+        final var withinBand = underTest.evaluate(0, "WH-1", "t1", SensorType.TEMPERATURE, 33);
+        final var reBreach = underTest.evaluate(0, "WH-1", "t1", SensorType.TEMPERATURE, 36);
+        final var cleared = underTest.evaluate(0, "WH-1", "t1", SensorType.TEMPERATURE, 32);
+        final var afterClear = underTest.evaluate(0, "WH-1", "t1", SensorType.TEMPERATURE, 36);
+        final var newEpisode = underTest.evaluate(0, "WH-1", "t1", SensorType.TEMPERATURE, 36);
+
+        // then
+        assertThat(raised).isEqualTo(35);
+        assertThat(withinBand).isEqualTo(RuleEngine.NO_ALARM);
+        assertThat(reBreach).isEqualTo(RuleEngine.NO_ALARM);
+        assertThat(cleared).isEqualTo(RuleEngine.NO_ALARM);
+        assertThat(afterClear).isEqualTo(RuleEngine.NO_ALARM);
+        assertThat(newEpisode).isEqualTo(35);
+    }
+
+    @Test
+    void evaluate_shouldAlarmOncePerEpisode_whenFlappingAroundTheBound() {
+        // given
+        final var underTest = new RuleEngine(DEFAULTS, new AlarmRules(List.of(
+                new AlarmRule("WH-1", null, SensorType.TEMPERATURE, 8, 2, 2, null)
+        )));
+
+        // when
+        final var results = IntStream.of(9, 8, 9, 7, 10, 6, 9, 1, 3, 1, 4, 1)
+                .mapToLong(value -> underTest.evaluate(0, "WH-1", "t1", SensorType.TEMPERATURE, value))
+                .boxed()
+                .toList();
+
+        // then
+        final var none = RuleEngine.NO_ALARM;
+        assertThat(results).containsExactly(8L, none, none, none, none, none, 8L, 2L, none, none, none, 2L);
+    }
+
+    @Test
+    void alarmRules_shouldRejectDuplicateScopes() {
+        // given
+        final var rules = List.of(
+                new AlarmRule("WH-1", "t1", SensorType.TEMPERATURE, 8, null, null, null),
+                new AlarmRule("WH-1", "t1", SensorType.TEMPERATURE, 9, null, null, null)
+        );
+
+        // when / then
+        assertThatThrownBy(() -> new AlarmRules(rules)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
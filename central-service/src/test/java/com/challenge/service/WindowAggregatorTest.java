@@ -0,0 +1,113 @@
+package com.challenge.service;
+
+import com.challenge.domain.AggregationWindow;
+import com.challenge.domain.SensorSummary;
+import com.challenge.domain.SensorType;
+import com.challenge.domain.WindowStats;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WindowAggregatorTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long START = 1_700_000_040_000L - 1_700_000_040_000L % (60 * MINUTE);
+
+    private final WindowAggregator underTest = new WindowAggregator();
+
+    @Test
+    void sliding_shouldAggregateReadingsWithinTheWindow() {
+        // given
+        underTest.record(0, 10, START);
+        underTest.record(0, 30, START + 20_000);
+        underTest.record(0, 20, START + 50_000);
+
+        // when
+        final var result = underTest.sliding(0, AggregationWindow.ONE_MINUTE, START + 55_000);
+
+        // then
+        assertThat(result)
+                .returns(3, WindowStats::count)
+                .returns(10, WindowStats::min)
+                .returns(30, WindowStats::max)
+                .returns(20.0, WindowStats::average);
+    }
+
+    @Test
+    void sliding_shouldMergeSummariesWithSingleReadings() {
+        // given
+        underTest.record(0, 25, START);
+        underTest.record(0, new SensorSummary("WH-1", "t1", SensorType.TEMPERATURE, 4, 10, 30, 80, 12, START + 1_000, START + 20_000));
+
+        // when
+        final var result = underTest.sliding(0, AggregationWindow.ONE_MINUTE, START + 55_000);
+
+        // then
+        assertThat(result)
+                .returns(5, WindowStats::count)
+                .returns(10, WindowStats::min)
+                .returns(30, WindowStats::max)
+                .returns(21.0, WindowStats::average);
+    }
+
+    @Test
+    void sliding_shouldDropReadingsThatLeftTheWindow() {
+        // given
+        underTest.record(0, 90, START);
+        underTest.record(0, 10, START + 2 * MINUTE);
+
+        // when
+        final var result = underTest.sliding(0, AggregationWindow.ONE_MINUTE, START + 2 * MINUTE + 1_000);
+
+        // then
+        assertThat(result)
+                .returns(1, WindowStats::count)
+                .returns(10, WindowStats::max);
+    }
+
+    @Test
+    void tumbling_shouldReturnLastCompleteAlignedWindow() {
+        // given
+        underTest.record(0, 5, START + 10_000);
+        underTest.record(0, 7, START + 4 * MINUTE);
+        underTest.record(0, 100, START + 5 * MINUTE + 1_000);
+
+        // when
+        final var result = underTest.tumbling(0, AggregationWindow.FIVE_MINUTES, START + 6 * MINUTE);
+
+        // then
+        assertThat(result)
+                .returns(START, WindowStats::from)
+                .returns(START + 5 * MINUTE, WindowStats::to)
+                .returns(2, WindowStats::count)
+                .returns(12L, WindowStats::sum);
+    }
+
+    @Test
+    void tumbling_shouldUseHourlyBuckets_forOneHourWindow() {
+        // given
+        underTest.record(1, 1, START + MINUTE);
+        underTest.record(1, 3, START + 59 * MINUTE);
+
+        // when
+        final var result = underTest.tumbling(1, AggregationWindow.ONE_HOUR, START + 90 * MINUTE);
+
+        // then
+        assertThat(result)
+                .returns(2, WindowStats::count)
+                .returns(2.0, WindowStats::average);
+    }
+
+    @Test
+    void record_shouldCountLateReadings_olderThanTheRing() {
+        // given
+        underTest.record(0, 10, START + 30 * MINUTE);
+
+        // when
+        underTest.record(0, 10, START + 30 * MINUTE - 10 * MINUTE);
+
+        // then
+        assertThat(underTest.lateCount()).isEqualTo(1);
+        assertThat(underTest.sliding(2, AggregationWindow.ONE_MINUTE, START).count()).isZero();
+    }
+}
@@ -0,0 +1,140 @@
+package com.challenge.store;
+
+import com.challenge.config.StoreConfig;
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MeasurementStoreTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long START = 1_700_000_000_000L - 1_700_000_000_000L % HOUR;
+    private static final int SMALL_SEGMENT = 16 + (8 + 3 * 4 * 256) * 2;
+
+    @TempDir
+    Path directory;
+
+    private final AtomicLong clock = new AtomicLong(START + 2 * HOUR);
+
+    @Test
+    void scan_shouldReturnOnlyTheRequestedSensorWithinRange() {
+        // given
+        final var underTest = new MeasurementStore(config(64 * 1024, 24), clock::get);
+        IntStream.range(0, 600).forEach(i -> {
+            underTest.append(measurement("t1", SensorType.TEMPERATURE, i, START + i * 1_000L));
+            underTest.append(measurement("t2", SensorType.TEMPERATURE, -i, START + i * 1_000L));
+        });
+
+        // when
+        final var rows = scan(underTest, "t1", SensorType.TEMPERATURE, START + 100_000, START + 110_000);
+
+        // then
+        assertThat(rows).containsExactlyElementsOf(IntStream.range(100, 110).boxed().toList());
+    }
+
+    @Test
+    void scan_shouldSpanPartitionsAndSegments() {
+        // given
+        final var underTest = new MeasurementStore(config(SMALL_SEGMENT, 24), clock::get);
+        IntStream.range(0, 3_000).forEach(i -> underTest.append(measurement("t1", SensorType.HUMIDITY, i, START + i * 2_000L)));
+
+        // when
+        final var rows = scan(underTest, "t1", SensorType.HUMIDITY, START, START + 2 * HOUR);
+
+        // then
+        assertThat(rows).hasSize(3_000);
+        assertThat(partitionDirs()).isEqualTo(2);
+    }
+
+    @Test
+    void reopen_shouldKeepHistoryAndSensorKeys() {
+        // given
+        final var first = new MeasurementStore(config(64 * 1024, 24), clock::get);
+        first.append(measurement("t1", SensorType.TEMPERATURE, 7, START));
+        first.append(measurement("t2", SensorType.TEMPERATURE, 8, START + 1));
+        first.close();
+
+        // when
+        final var reopened = new MeasurementStore(config(64 * 1024, 24), clock::get);
+        reopened.append(measurement("t2", SensorType.TEMPERATURE, 9, START + 2));
+
+        // then
+        assertThat(scan(reopened, "t1", SensorType.TEMPERATURE, START, START + HOUR)).containsExactly(7);
+        assertThat(scan(reopened, "t2", SensorType.TEMPERATURE, START, START + HOUR)).containsExactly(8, 9);
+    }
+
+    @Test
+    void append_shouldDeletePartitionsOutsideRetention() {
+        // given
+        final var underTest = new MeasurementStore(config(64 * 1024, 2), clock::get);
+        underTest.append(measurement("t1", SensorType.TEMPERATURE, 1, START));
+
+        // when
+        clock.set(START + 3 * HOUR);
+        underTest.append(measurement("t1", SensorType.TEMPERATURE, 2, START + 3 * HOUR));
+
+        // then
+        assertThat(partitionDirs()).isEqualTo(1);
+        assertThat(scan(underTest, "t1", SensorType.TEMPERATURE, START, START + 4 * HOUR)).containsExactly(2);
+    }
+
+    @Test
+    void append_shouldDropReadingsFromAClockFarAhead_andKeepHistory() {
+        // given
+        final var underTest = new MeasurementStore(config(64 * 1024, 2), clock::get);
+        underTest.append(measurement("t1", SensorType.TEMPERATURE, 1, START + HOUR));
+
+        // when
+        underTest.append(measurement("t1", SensorType.TEMPERATURE, 2, START + 365 * 24 * HOUR));
+        underTest.append(measurement("t1", SensorType.TEMPERATURE, 3, START + HOUR + 1));
+
+        // then
+        assertThat(partitionDirs()).isEqualTo(1);
+        assertThat(scan(underTest, "t1", SensorType.TEMPERATURE, START, Long.MAX_VALUE)).containsExactly(1, 3);
+    }
+
+    @Test
+    void append_shouldDropReadingsAlreadyOutsideRetention() {
+        // given
+        final var underTest = new MeasurementStore(config(64 * 1024, 1), clock::get);
+
+        // when
+        underTest.append(measurement("t1", SensorType.TEMPERATURE, 1, START - HOUR));
+
+        // then
+        assertThat(partitionDirs()).isZero();
+    }
+
+    private StoreConfig config(final int segmentBytes, final int retentionHours) {
+        return new StoreConfig(true, directory.toString(), 60, segmentBytes, retentionHours);
+    }
+
+    private static Measurement measurement(final String sensorId, final SensorType type, final int value, final long timestamp) {
+        return new Measurement("WH-1", sensorId, type, value, timestamp);
+    }
+
+    private static List<Integer> scan(final MeasurementStore store, final String sensorId, final SensorType type, final long from, final long to) {
+        final var values = new ArrayList<Integer>();
+        store.scan("WH-1", sensorId, type, from, to, (timestamp, value) -> values.add(value));
+        return values;
+    }
+
+    private long partitionDirs() {
+        try (final var files = Files.list(directory)) {
+            return files.filter(Files::isDirectory).count();
+        } catch (final IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+}
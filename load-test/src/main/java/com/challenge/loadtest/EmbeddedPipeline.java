@@ -0,0 +1,202 @@
+package com.challenge.loadtest;
+
+import com.challenge.WarehouseApplication;
+import com.challenge.concurrent.TaskDispatcher;
+import com.challenge.config.AdmissionConfig;
+import com.challenge.config.CentralConfig;
+import com.challenge.config.DeadbandConfig;
+import com.challenge.config.PreAggregationConfig;
+import com.challenge.config.SpoolConfig;
+import com.challenge.config.ThresholdProvider;
+import com.challenge.config.WarehouseConfig;
+import com.challenge.consumer.JmsMeasurementConsumer;
+import com.challenge.consumer.UdpMeasurementListener;
+import com.challenge.domain.SensorRegistry;
+import com.challenge.domain.SensorType;
+import com.challenge.metrics.LatencyHistogram;
+import com.challenge.metrics.MetricsRegistry;
+import com.challenge.parser.MeasurementParser;
+import com.challenge.publisher.MeasurementPublisher;
+import com.challenge.serialization.MeasurementJsonMapper;
+import com.challenge.service.AlarmService;
+import org.apache.activemq.broker.BrokerService;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * warehouse-service and central-service wired as their applications wire them, in this JVM, talking through an
+ * in-VM, non-persistent ActiveMQ broker. The services' own settings (publish mode, wire format, consumer concurrency,
+ * thresholds, ...) come from the same environment variables; only the broker, the UDP ports and the metrics endpoints
+ * are replaced. The spool and the edge stages that drop or fold readings by design (admission control, deadband,
+ * pre-aggregation) are switched off, so every valid datagram must end in exactly one alarm decision.
+ */
+final class EmbeddedPipeline implements AutoCloseable {
+
+    private static final Duration PROBE_INTERVAL = Duration.ofMillis(20);
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(10);
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedPipeline.class);
+
+    private final BrokerService broker;
+    private final MetricsRegistry warehouseMetrics = new MetricsRegistry();
+    private final MetricsRegistry centralMetrics = new MetricsRegistry();
+    private final TaskDispatcher warehouseDispatcher;
+    private final TaskDispatcher centralDispatcher;
+    private final MeasurementPublisher publisher;
+    private final UdpMeasurementListener temperatureListener;
+    private final UdpMeasurementListener humidityListener;
+    private final JmsMeasurementConsumer consumer;
+    private final InetSocketAddress temperature;
+    private final InetSocketAddress humidity;
+
+    EmbeddedPipeline(@NotNull final String name, @NotNull final WarehouseConfig warehouseTemplate, @NotNull final CentralConfig centralTemplate)
+            throws Exception {
+        final var brokerUrl = "vm://" + name + "?create=false";
+        this.broker = new BrokerService();
+        broker.setBrokerName(name);
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.setAdvisorySupport(false);
+        broker.setUseShutdownHook(false);
+        broker.start();
+        broker.waitUntilStarted();
+
+        final var loopback = InetAddress.getLoopbackAddress();
+        this.temperature = new InetSocketAddress(loopback, freePort());
+        this.humidity = new InetSocketAddress(loopback, freePort());
+
+        final var warehouseConfig = new WarehouseConfig(brokerUrl, warehouseTemplate.destinationName(), temperature.getPort(), humidity.getPort(),
+                warehouseTemplate.warehouseId(), warehouseTemplate.udpIngest(), warehouseTemplate.publisher(), SpoolConfig.defaults(),
+                warehouseTemplate.reconnect(), warehouseTemplate.execution(), AdmissionConfig.defaults(), DeadbandConfig.defaults(),
+                PreAggregationConfig.defaults(), warehouseTemplate.alarmThresholds(), 0);
+        this.warehouseDispatcher = new TaskDispatcher(warehouseConfig.execution(), "warehouse-dispatch");
+        final var sensors = new SensorRegistry();
+        this.publisher = WarehouseApplication.createPipeline(warehouseConfig, warehouseDispatcher, sensors, warehouseMetrics);
+        final var parser = new MeasurementParser(warehouseConfig.warehouseId(), sensors);
+        this.temperatureListener = new UdpMeasurementListener(temperature.getPort(), parser, SensorType.TEMPERATURE, publisher,
+                warehouseConfig.udpIngest(), warehouseDispatcher, warehouseMetrics);
+        this.humidityListener = new UdpMeasurementListener(humidity.getPort(), parser, SensorType.HUMIDITY, publisher,
+                warehouseConfig.udpIngest(), warehouseDispatcher, warehouseMetrics);
+
+        final var alarmService = new AlarmService(ThresholdProvider.load(), ThresholdProvider.loadRules(), centralTemplate.dedup(),
+                centralTemplate.aggregationEnabled(), centralMetrics);
+        this.centralDispatcher = new TaskDispatcher(centralTemplate.execution(), "alarm-dispatch");
+        this.consumer = new JmsMeasurementConsumer(brokerUrl, warehouseConfig.destinationName(), alarmService, new MeasurementJsonMapper(),
+                centralTemplate.consumer(), centralTemplate.reconnect(), centralDispatcher, centralMetrics);
+    }
+
+    /**
+     * Starts both services and returns once a probe datagram on each port has been received and every probe received
+     * has reached an alarm decision, so no probe is still in flight when a run takes its baseline.
+     */
+    void start() throws IOException, InterruptedException, TimeoutException {
+        consumer.start();
+        temperatureListener.start();
+        humidityListener.start();
+
+        final var probe = "sensor_id=probe; value=0".getBytes(StandardCharsets.US_ASCII);
+        final var deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        try (final var channel = DatagramChannel.open()) {
+            while (received(SensorType.TEMPERATURE) == 0 || received(SensorType.HUMIDITY) == 0) {
+                if (System.nanoTime() - deadline > 0) throw new TimeoutException("UDP listeners did not come up within " + READY_TIMEOUT);
+                channel.send(ByteBuffer.wrap(probe), temperature);
+                channel.send(ByteBuffer.wrap(probe), humidity);
+                Thread.sleep(PROBE_INTERVAL.toMillis());
+            }
+        }
+        while (decided() < received()) {
+            if (System.nanoTime() - deadline > 0) throw new TimeoutException("central-service did not decide the probes within " + READY_TIMEOUT);
+            Thread.sleep(PROBE_INTERVAL.toMillis());
+        }
+        logger.info("Pipeline {} ready. temperaturePort={} humidityPort={}", broker.getBrokerName(), temperature.getPort(), humidity.getPort());
+    }
+
+    InetSocketAddress temperature() {
+        return temperature;
+    }
+
+    InetSocketAddress humidity() {
+        return humidity;
+    }
+
+    long received() {
+        return received(SensorType.TEMPERATURE) + received(SensorType.HUMIDITY);
+    }
+
+    long malformed() {
+        return warehouseCounter("warehouse_udp_packets_malformed_total");
+    }
+
+    long oversized() {
+        return warehouseCounter("warehouse_udp_packets_oversized_total");
+    }
+
+    long decided() {
+        return centralMetrics.counter("central_measurements_evaluated_total", "").get();
+    }
+
+    long alarms() {
+        return centralMetrics.counter("central_alarms_total", "").get();
+    }
+
+    /**
+     * Datagram received at the warehouse to alarm decision, as central-service exports it.
+     */
+    LatencyHistogram endToEnd() {
+        return centralMetrics.histogram("central_end_to_end_seconds", "");
+    }
+
+    private long received(final SensorType type) {
+        return warehouseMetrics.counter("warehouse_udp_packets_received_total", "", "type", type.name().toLowerCase()).get();
+    }
+
+    private long warehouseCounter(final String name) {
+        return warehouseMetrics.counter(name, "", "type", "temperature").get() + warehouseMetrics.counter(name, "", "type", "humidity").get();
+    }
+
+    private static int freePort() throws IOException {
+        try (final var socket = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            temperatureListener.close();
+            humidityListener.close();
+        } catch (Exception ignored) {
+        }
+        try {
+            warehouseDispatcher.close();
+        } catch (Exception ignored) {
+        }
+        try {
+            publisher.close();
+        } catch (Exception ignored) {
+        }
+        try {
+            consumer.close();
+        } catch (Exception ignored) {
+        }
+        try {
+            centralDispatcher.close();
+        } catch (Exception ignored) {
+        }
+        try {
+            broker.stop();
+            broker.waitUntilStopped();
+        } catch (Exception ignored) {
+        }
+    }
+}
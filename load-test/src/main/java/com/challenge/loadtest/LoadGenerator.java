@@ -0,0 +1,164 @@
+package com.challenge.loadtest;
+
+import com.challenge.config.AlarmThresholds;
+import com.challenge.domain.SensorType;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sends datagrams to both UDP ports at a fixed rate from one thread. When it falls behind it sends the missed datagrams
+ * in a burst instead of skipping them, so a slow pipeline is measured under the load it was offered.
+ * <p>
+ * Valid readings follow a random walk per sensor that stays at or below the alarm threshold, except for
+ * {@link LoadTestConfig#breachPercent()} of them. A fifth of the sensors get four fifths of the traffic, roughly like
+ * a warehouse where a few zones report far more often than the rest.
+ */
+final class LoadGenerator {
+
+    private static final long PACING_NANOS = 50_000;
+    private static final int HOT_SHARE_PERCENT = 80;
+    private static final int WALK_RANGE = 20;
+    private static final int OVERSIZED_BYTES = 600;
+    private static final byte[] SENSOR_ID_KEY = "sensor_id=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] VALUE_KEY = "; value=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] MALFORMED = {
+            "sensor_id=t1; value=abc".getBytes(StandardCharsets.US_ASCII),
+            "sensor_id=; value=12".getBytes(StandardCharsets.US_ASCII),
+            "value=12".getBytes(StandardCharsets.US_ASCII),
+            "sensor_id=t1; value=2147483648".getBytes(StandardCharsets.US_ASCII),
+            "garbage".getBytes(StandardCharsets.US_ASCII)
+    };
+    private static final byte[] OVERSIZED = oversized();
+
+    record Sent(long valid, long malformed, long oversized, long breaches, long nanos) {
+
+        long total() {
+            return valid + malformed + oversized;
+        }
+    }
+
+    private final LoadTestConfig config;
+    private final AlarmThresholds thresholds;
+    private final InetSocketAddress temperature;
+    private final InetSocketAddress humidity;
+    private final RandomGenerator random;
+
+    private final byte[][] temperatureIds;
+    private final byte[][] humidityIds;
+    private final int[] temperatureValues;
+    private final int[] humidityValues;
+    private final ByteBuffer buffer = ByteBuffer.allocate(OVERSIZED_BYTES);
+
+    private long valid;
+    private long malformed;
+    private long oversized;
+    private long breaches;
+
+    LoadGenerator(@NotNull final LoadTestConfig config, @NotNull final AlarmThresholds thresholds,
+                  @NotNull final InetSocketAddress temperature, @NotNull final InetSocketAddress humidity, @NotNull final RandomGenerator random) {
+        this.config = config;
+        this.thresholds = thresholds;
+        this.temperature = temperature;
+        this.humidity = humidity;
+        this.random = random;
+
+        final var sensors = Math.max(1, config.sensors());
+        this.temperatureIds = ids("t", sensors);
+        this.humidityIds = ids("h", sensors);
+        this.temperatureValues = new int[sensors];
+        this.humidityValues = new int[sensors];
+        for (int i = 0; i < sensors; i++) {
+            temperatureValues[i] = thresholds.temperature() - random.nextInt(WALK_RANGE);
+            humidityValues[i] = thresholds.humidity() - random.nextInt(WALK_RANGE);
+        }
+    }
+
+    Sent run(@NotNull final Duration duration) throws IOException {
+        final var nanosPerDatagram = 1_000_000_000.0 / Math.max(1, config.ratePerSecond());
+        final var start = System.nanoTime();
+        final var end = start + duration.toNanos();
+
+        try (final var channel = DatagramChannel.open()) {
+            var sent = 0L;
+            for (var now = start; now < end; now = System.nanoTime()) {
+                final var due = (long) ((now - start) / nanosPerDatagram);
+                if (sent >= due) {
+                    LockSupport.parkNanos(PACING_NANOS);
+                    continue;
+                }
+                for (; sent < due; sent++) {
+                    sendOne(channel);
+                }
+            }
+            return new Sent(valid, malformed, oversized, breaches, System.nanoTime() - start);
+        }
+    }
+
+    private void sendOne(final DatagramChannel channel) throws IOException {
+        final var type = random.nextBoolean() ? SensorType.TEMPERATURE : SensorType.HUMIDITY;
+        final var target = type == SensorType.TEMPERATURE ? temperature : humidity;
+        final var kind = random.nextInt(100);
+
+        buffer.clear();
+        if (kind < config.malformedPercent()) {
+            buffer.put(MALFORMED[random.nextInt(MALFORMED.length)]);
+            malformed++;
+        } else if (kind < config.malformedPercent() + config.oversizedPercent()) {
+            buffer.put(OVERSIZED);
+            oversized++;
+        } else {
+            writeReading(type);
+            valid++;
+        }
+        channel.send(buffer.flip(), target);
+    }
+
+    private void writeReading(final SensorType type) {
+        final var temperatureType = type == SensorType.TEMPERATURE;
+        final var values = temperatureType ? temperatureValues : humidityValues;
+        final var threshold = thresholds.of(type);
+        final var sensor = pickSensor(values.length);
+
+        final int value;
+        if (random.nextInt(100) < config.breachPercent()) {
+            value = threshold + 1 + random.nextInt(5);
+            breaches++;
+        } else {
+            value = Math.clamp(values[sensor] + random.nextInt(3) - 1, threshold - WALK_RANGE, threshold);
+            values[sensor] = value;
+        }
+
+        buffer.put(SENSOR_ID_KEY)
+                .put((temperatureType ? temperatureIds : humidityIds)[sensor])
+                .put(VALUE_KEY)
+                .put(Integer.toString(value).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private int pickSensor(final int sensors) {
+        final var hot = Math.max(1, sensors / 5);
+        return random.nextInt(100) < HOT_SHARE_PERCENT ? random.nextInt(hot) : random.nextInt(sensors);
+    }
+
+    private static byte[][] ids(final String prefix, final int sensors) {
+        final var ids = new byte[sensors][];
+        for (int i = 0; i < sensors; i++) {
+            ids[i] = (prefix + i).getBytes(StandardCharsets.US_ASCII);
+        }
+        return ids;
+    }
+
+    // Well-formed up front and padded with a junk key, so only the size check rejects it.
+    private static byte[] oversized() {
+        final var payload = new StringBuilder("sensor_id=t1; value=20; pad=");
+        while (payload.length() < OVERSIZED_BYTES) payload.append('x');
+        return payload.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+}
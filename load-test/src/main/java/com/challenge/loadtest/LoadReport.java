@@ -0,0 +1,84 @@
+package com.challenge.loadtest;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of one measured run. Counts and latency percentiles are deltas over the run, so the readiness probes do not
+ * show up in either.
+ *
+ * @param valid       valid readings sent.
+ * @param received    datagrams the warehouse listeners received, of any kind.
+ * @param decided     readings central-service ran through the alarm rules.
+ * @param sendNanos   time spent offering load.
+ * @param totalNanos  first datagram sent to last decision observed.
+ * @param maxNanos    slowest decision of the run, within the histogram's bucket resolution.
+ */
+public record LoadReport(
+        long valid,
+        long malformed,
+        long oversized,
+        long breaches,
+        long received,
+        long rejectedMalformed,
+        long rejectedOversized,
+        long decided,
+        long alarms,
+        long sendNanos,
+        long totalNanos,
+        long p50Nanos,
+        long p99Nanos,
+        long p999Nanos,
+        long maxNanos
+) {
+
+    public long sent() {
+        return valid + malformed + oversized;
+    }
+
+    /**
+     * Valid readings that never reached an alarm decision, whether dropped by the socket, the publisher or the broker.
+     */
+    public long lost() {
+        return Math.max(0, valid - decided);
+    }
+
+    public long lossPpm() {
+        return valid == 0 ? 0 : lost() * 1_000_000 / valid;
+    }
+
+    public double offeredPerSecond() {
+        return perSecond(sent(), sendNanos);
+    }
+
+    public double decidedPerSecond() {
+        return perSecond(decided, totalNanos);
+    }
+
+    public boolean withinBudget(@NotNull final LoadTestConfig config) {
+        return lossPpm() <= config.maxLossPpm() && p99Nanos <= TimeUnit.MILLISECONDS.toNanos(config.maxP99Millis());
+    }
+
+    public @NotNull String format() {
+        return """
+                sent        %,d datagrams (%,d valid, %,d malformed, %,d oversized, %,d above threshold) at %,.0f/s
+                warehouse   %,d received, %,d rejected as malformed, %,d as oversized (%,d lost in the socket)
+                central     %,d decided at %,.0f/s, %,d alarms raised
+                loss        %,d readings (%,d ppm)
+                latency     p50 %s  p99 %s  p999 %s  max %s (datagram received to alarm decision)"""
+                .formatted(sent(), valid, malformed, oversized, breaches, offeredPerSecond(),
+                        received, rejectedMalformed, rejectedOversized, Math.max(0, sent() - received),
+                        decided, decidedPerSecond(), alarms,
+                        lost(), lossPpm(),
+                        millis(p50Nanos), millis(p99Nanos), millis(p999Nanos), millis(maxNanos));
+    }
+
+    private static double perSecond(final long count, final long nanos) {
+        return nanos <= 0 ? 0 : count * 1_000_000_000.0 / nanos;
+    }
+
+    private static String millis(final long nanos) {
+        return "%.3fms".formatted(nanos / 1_000_000.0);
+    }
+}
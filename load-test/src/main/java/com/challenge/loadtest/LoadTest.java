@@ -0,0 +1,89 @@
+package com.challenge.loadtest;
+
+import com.challenge.config.CentralConfig;
+import com.challenge.config.WarehouseConfig;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * One load run: starts a fresh {@link EmbeddedPipeline}, offers load for the given duration, then waits for the
+ * pipeline to drain before reading its counters and latency histogram. Both are read as differences against a baseline
+ * taken once the pipeline is ready, so the readiness probes and their cold-start latencies are left out.
+ */
+public class LoadTest {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+    private static final Duration QUIET_PERIOD = Duration.ofSeconds(2);
+    private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+    private final LoadTestConfig config;
+    private final WarehouseConfig warehouseConfig;
+    private final CentralConfig centralConfig;
+
+    public LoadTest(@NotNull final LoadTestConfig config, @NotNull final WarehouseConfig warehouseConfig, @NotNull final CentralConfig centralConfig) {
+        this.config = config;
+        this.warehouseConfig = warehouseConfig;
+        this.centralConfig = centralConfig;
+    }
+
+    /**
+     * @param name names the in-VM broker; runs in one JVM need distinct names.
+     */
+    public @NotNull LoadReport run(@NotNull final String name, @NotNull final Duration duration) throws Exception {
+        try (final var pipeline = new EmbeddedPipeline(name, warehouseConfig, centralConfig)) {
+            pipeline.start();
+
+            final var receivedBefore = pipeline.received();
+            final var malformedBefore = pipeline.malformed();
+            final var oversizedBefore = pipeline.oversized();
+            final var decidedBefore = pipeline.decided();
+            final var alarmsBefore = pipeline.alarms();
+            final var endToEndBefore = pipeline.endToEnd().snapshot();
+
+            logger.info("Offering {} datagrams/s for {}s", config.ratePerSecond(), duration.toSeconds());
+            final var start = System.nanoTime();
+            final var generator = new LoadGenerator(config, warehouseConfig.alarmThresholds(), pipeline.temperature(), pipeline.humidity(),
+                    RandomGenerator.getDefault());
+            final var sent = generator.run(duration);
+            final var lastDecision = awaitDrained(pipeline, decidedBefore + sent.valid());
+
+            final var endToEnd = pipeline.endToEnd().snapshot().since(endToEndBefore);
+            return new LoadReport(sent.valid(), sent.malformed(), sent.oversized(), sent.breaches(),
+                    pipeline.received() - receivedBefore, pipeline.malformed() - malformedBefore, pipeline.oversized() - oversizedBefore,
+                    pipeline.decided() - decidedBefore, pipeline.alarms() - alarmsBefore,
+                    sent.nanos(), lastDecision - start,
+                    endToEnd.valueAtQuantile(0.5), endToEnd.valueAtQuantile(0.99), endToEnd.valueAtQuantile(0.999), endToEnd.maxNanos());
+        }
+    }
+
+    /**
+     * Waits until every expected reading is decided, nothing new was decided for {@link #QUIET_PERIOD} (the rest is
+     * lost), or the drain timeout passes.
+     *
+     * @return the {@link System#nanoTime()} at which the last decision was observed.
+     */
+    private long awaitDrained(final EmbeddedPipeline pipeline, final long expected) throws InterruptedException {
+        final var deadline = System.nanoTime() + Duration.ofSeconds(config.drainTimeoutSeconds()).toNanos();
+        var decided = pipeline.decided();
+        var lastProgress = System.nanoTime();
+        while (decided < expected) {
+            final var now = System.nanoTime();
+            if (now - deadline > 0 || now - lastProgress > QUIET_PERIOD.toNanos()) {
+                logger.warn("Stopped waiting for the pipeline to drain. decided={} expected={}", decided, expected);
+                break;
+            }
+
+            Thread.sleep(POLL_INTERVAL.toMillis());
+            final var current = pipeline.decided();
+            if (current != decided) {
+                decided = current;
+                lastProgress = System.nanoTime();
+            }
+        }
+        return lastProgress;
+    }
+}
@@ -0,0 +1,55 @@
+package com.challenge.loadtest;
+
+/**
+ * @param ratePerSecond    datagrams offered per second, across both ports and all kinds.
+ * @param malformedPercent share of datagrams that do not parse.
+ * @param oversizedPercent share of datagrams above the listener's max payload.
+ * @param breachPercent    share of valid readings above the alarm threshold.
+ * @param maxLossPpm       readings per million that may go without an alarm decision before the run fails.
+ * @param maxP99Millis     p99 receipt-to-decision latency above which the run fails.
+ */
+public record LoadTestConfig(
+        int ratePerSecond,
+        int durationSeconds,
+        int warmupSeconds,
+        int sensors,
+        int malformedPercent,
+        int oversizedPercent,
+        int breachPercent,
+        int drainTimeoutSeconds,
+        int maxLossPpm,
+        int maxP99Millis
+) {
+    public static LoadTestConfig defaults() {
+        return new LoadTestConfig(20_000, 30, 10, 500, 2, 1, 1, 30, 1_000, 50);
+    }
+
+    public static LoadTestConfig load() {
+        final var defaults = defaults();
+        return new LoadTestConfig(
+                readIntEnv("LOAD_RATE", defaults.ratePerSecond()),
+                readIntEnv("LOAD_DURATION_S", defaults.durationSeconds()),
+                readIntEnv("LOAD_WARMUP_S", defaults.warmupSeconds()),
+                readIntEnv("LOAD_SENSORS", defaults.sensors()),
+                readIntEnv("LOAD_MALFORMED_PERCENT", defaults.malformedPercent()),
+                readIntEnv("LOAD_OVERSIZED_PERCENT", defaults.oversizedPercent()),
+                readIntEnv("LOAD_BREACH_PERCENT", defaults.breachPercent()),
+                readIntEnv("LOAD_DRAIN_TIMEOUT_S", defaults.drainTimeoutSeconds()),
+                readIntEnv("LOAD_MAX_LOSS_PPM", defaults.maxLossPpm()),
+                readIntEnv("LOAD_MAX_P99_MS", defaults.maxP99Millis())
+        );
+    }
+
+    // Unlike the services, 0 is a meaningful setting here (no warmup, no malformed datagrams, zero loss budget).
+    private static int readIntEnv(final String name, final int defaultValue) {
+        final var value = System.getenv(name);
+        if (value == null || value.isBlank()) return defaultValue;
+
+        try {
+            final var parsed = Integer.parseInt(value.trim());
+            return parsed >= 0 ? parsed : defaultValue;
+        } catch (Exception ignored) {
+            return defaultValue;
+        }
+    }
+}
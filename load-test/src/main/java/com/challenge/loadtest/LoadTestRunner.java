@@ -0,0 +1,37 @@
+package com.challenge.loadtest;
+
+import com.challenge.config.CentralConfig;
+import com.challenge.config.WarehouseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * Entry point of the load-test jar. Runs a warmup on a throwaway pipeline, so the JIT has compiled the hot paths
+ * before anything is measured, then the measured run, and exits with status 1 when loss or p99 latency is over
+ * budget, so a CI job can gate a rollout on it.
+ */
+public final class LoadTestRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final var config = LoadTestConfig.load();
+        final var loadTest = new LoadTest(config, WarehouseConfig.load(), CentralConfig.load());
+        logger.info("Load test starting. config={}", config);
+
+        if (config.warmupSeconds() > 0) {
+            final var warmup = loadTest.run("loadtest-warmup", Duration.ofSeconds(config.warmupSeconds()));
+            logger.info("Warmup done. decided={} lost={}", warmup.decided(), warmup.lost());
+        }
+
+        final var report = loadTest.run("loadtest", Duration.ofSeconds(Math.max(1, config.durationSeconds())));
+        final var passed = report.withinBudget(config);
+        logger.info("Load test {}.\n{}", passed ? "passed" : "FAILED", report.format());
+        System.exit(passed ? 0 : 1);
+    }
+}
@@ -0,0 +1,32 @@
+package com.challenge.loadtest;
+
+import com.challenge.config.CentralConfig;
+import com.challenge.config.WarehouseConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadTestTest {
+
+    @Test
+    void run_shouldDecideEveryValidReadingTheWarehouseReceived_andRejectTheRest() throws Exception {
+        // given
+        final var config = new LoadTestConfig(1_000, 2, 0, 50, 5, 2, 1, 10, 0, 1_000);
+        final var underTest = new LoadTest(config, WarehouseConfig.load(), CentralConfig.load());
+
+        // when
+        final var report = underTest.run("loadtest-smoke", Duration.ofSeconds(2));
+
+        // then
+        // The socket may drop datagrams on a busy host; nothing after it may.
+        assertTrue(report.sent() >= 1_900, report.format());
+        assertTrue(report.received() > 0, report.format());
+        assertTrue(report.rejectedMalformed() <= report.malformed(), report.format());
+        assertTrue(report.rejectedOversized() <= report.oversized(), report.format());
+        assertEquals(report.received() - report.rejectedMalformed() - report.rejectedOversized(), report.decided(), report.format());
+        assertTrue(report.p99Nanos() > 0, report.format());
+    }
+}
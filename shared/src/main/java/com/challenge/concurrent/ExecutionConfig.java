@@ -0,0 +1,10 @@
+package com.challenge.concurrent;
+
+public record ExecutionConfig(
+        ExecutionMode mode,
+        int maxConcurrency
+) {
+    public static ExecutionConfig defaults() {
+        return new ExecutionConfig(ExecutionMode.PLATFORM, 1024);
+    }
+}
@@ -0,0 +1,5 @@
+package com.challenge.concurrent;
+
+public enum ExecutionMode {
+    PLATFORM, VIRTUAL
+}
@@ -0,0 +1,151 @@
+package com.challenge.concurrent;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs per-item work either inline on the caller ({@link ExecutionMode#PLATFORM}) or on virtual threads
+ * ({@link ExecutionMode#VIRTUAL}). In virtual mode at most {@code maxConcurrency} tasks are in flight; further dispatch
+ * calls block the caller, which pushes back on the producer instead of queueing unboundedly.
+ * <p>
+ * Work that touches per-sensor state goes through {@link #dispatch(int, Runnable)}: tasks with the same key run one at a
+ * time, in dispatch order, on one of {@code maxConcurrency} serial lanes, so per-sensor ordering and single-writer state
+ * hold in both modes.
+ */
+public class TaskDispatcher implements AutoCloseable {
+
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+    private static final Logger logger = LoggerFactory.getLogger(TaskDispatcher.class);
+
+    private final ExecutionMode mode;
+    private final String name;
+    private final @Nullable ExecutorService executor;
+    private final @Nullable Semaphore permits;
+    private final ExecutorService @Nullable [] lanes;
+
+    public TaskDispatcher(@NotNull final ExecutionConfig config, @NotNull final String name) {
+        this.mode = config.mode();
+        this.name = name;
+        if (mode == ExecutionMode.VIRTUAL) {
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+            this.permits = new Semaphore(Math.max(1, config.maxConcurrency()));
+            final var laneThreads = Thread.ofVirtual().name(name + "-lane-", 0).factory();
+            this.lanes = new ExecutorService[Math.max(1, config.maxConcurrency())];
+            for (int i = 0; i < lanes.length; i++) {
+                lanes[i] = Executors.newSingleThreadExecutor(laneThreads);
+            }
+        } else {
+            this.executor = null;
+            this.permits = null;
+            this.lanes = null;
+        }
+    }
+
+    public ExecutionMode mode() {
+        return mode;
+    }
+
+    /**
+     * Long-lived threads (listeners, senders, reconnectors) follow the same mode as dispatched work. Platform threads
+     * are daemons so they never hold the JVM open on shutdown.
+     */
+    public ThreadFactory threadFactory(@NotNull final String threadName) {
+        return mode == ExecutionMode.VIRTUAL
+                ? Thread.ofVirtual().name(threadName).factory()
+                : Thread.ofPlatform().name(threadName).daemon(true).factory();
+    }
+
+    /**
+     * Runs {@code task} on its own virtual thread, with no ordering against other tasks.
+     */
+    public void dispatch(@NotNull final Runnable task) {
+        if (executor == null) {
+            task.run();
+            return;
+        }
+        submit(executor, task);
+    }
+
+    /**
+     * Runs {@code task} after every task previously dispatched with the same {@code key} has finished.
+     */
+    public void dispatch(final int key, @NotNull final Runnable task) {
+        if (lanes == null) {
+            task.run();
+            return;
+        }
+        submit(lanes[Math.floorMod(key, lanes.length)], task);
+    }
+
+    private void submit(final ExecutorService target, final Runnable task) {
+        if (permits == null) {
+            task.run();
+            return;
+        }
+
+        try {
+            permits.acquire();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            task.run();
+            return;
+        }
+
+        try {
+            target.execute(() -> {
+                try {
+                    task.run();
+                } catch (final Exception ex) {
+                    logger.warn("Task on {} failed. error={}", name, ex.toString());
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (final RejectedExecutionException ex) {
+            permits.release();
+            task.run();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor == null || lanes == null) return;
+
+        executor.shutdown();
+        for (final var lane : lanes) {
+            lane.shutdown();
+        }
+        try {
+            final var deadline = System.nanoTime() + CLOSE_TIMEOUT.toNanos();
+            var terminated = executor.awaitTermination(CLOSE_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+            for (final var lane : lanes) {
+                terminated &= lane.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            if (!terminated) {
+                logger.warn("Dispatcher {} did not finish in time, forcing shutdown", name);
+                shutdownNow();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            shutdownNow();
+        }
+    }
+
+    private void shutdownNow() {
+        if (executor != null) executor.shutdownNow();
+        if (lanes == null) return;
+        for (final var lane : lanes) {
+            lane.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.challenge.connection;
+
+import com.challenge.metrics.Counter;
+import com.challenge.metrics.MetricsRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.random.RandomGenerator;
+
+/**
+ * Owns the connect/reconnect cycle of one JMS client. Connection attempts run on {@code scheduler}, never on the
+ * client's callers, and failed ones are retried with exponential backoff and jitter, so a fleet of services that lost
+ * the same broker does not reconnect in lockstep when it comes back.
+ * <p>
+ * The state doubles as a circuit breaker: while it is not {@link State#READY} callers should fail fast (spool, count,
+ * drop) instead of touching the broker; the background attempts are the half-open probes. Readiness is exported as a
+ * metric and a {@link MetricsRegistry#readinessCheck readiness check}.
+ */
+public class ConnectionSupervisor implements AutoCloseable {
+
+    private static final int MAX_BACKOFF_SHIFT = 20;
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionSupervisor.class);
+
+    public enum State {
+        /**
+         * Before the first attempt finished.
+         */
+        CONNECTING,
+        READY,
+        /**
+         * Lost or never made; calls fail fast while attempts continue in the background.
+         */
+        OPEN,
+        CLOSED
+    }
+
+    @FunctionalInterface
+    public interface Connector {
+        /**
+         * Opens the client's connection; never called concurrently with itself.
+         */
+        void connect() throws Exception;
+    }
+
+    private final String client;
+    private final Connector connector;
+    private final Runnable disconnector;
+    private final ReconnectConfig config;
+    private final ScheduledExecutorService scheduler;
+    private final RandomGenerator random;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CONNECTING);
+    private final ReentrantLock readyLock = new ReentrantLock();
+    private final Condition readyChanged = readyLock.newCondition();
+    // Only touched by attempts, which run one at a time.
+    private int failedAttempts;
+
+    private final Counter attempts;
+    private final Counter failures;
+
+    /**
+     * @param client       name used in logs and as the {@code client} metric label.
+     * @param disconnector releases whatever a failed or lost connection left open; must not throw.
+     */
+    public ConnectionSupervisor(@NotNull final String client, @NotNull final Connector connector, @NotNull final Runnable disconnector,
+                                @NotNull final ReconnectConfig config, @NotNull final ScheduledExecutorService scheduler,
+                                @NotNull final MetricsRegistry metrics) {
+        this(client, connector, disconnector, config, scheduler, metrics, RandomGenerator.getDefault());
+    }
+
+    ConnectionSupervisor(final String client, final Connector connector, final Runnable disconnector, final ReconnectConfig config,
+                         final ScheduledExecutorService scheduler, final MetricsRegistry metrics, final RandomGenerator random) {
+        this.client = client;
+        this.connector = connector;
+        this.disconnector = disconnector;
+        this.config = config;
+        this.scheduler = scheduler;
+        this.random = random;
+
+        this.attempts = metrics.counter("jms_connection_attempts_total", "Broker connection attempts", "client", client);
+        this.failures = metrics.counter("jms_connection_failures_total", "Broker connection attempts that failed", "client", client);
+        metrics.gauge("jms_connection_ready", "1 while the client is connected to the broker", () -> ready() ? 1 : 0, "client", client);
+        metrics.readinessCheck("jms-" + client, this::ready);
+    }
+
+    /**
+     * Makes the first attempt on the calling thread, so a reachable broker is connected before the client is used.
+     *
+     * @return whether it succeeded; if not, attempts continue in the background.
+     */
+    public boolean start() {
+        attempt();
+        return ready();
+    }
+
+    public boolean ready() {
+        return state.get() == State.READY;
+    }
+
+    public State state() {
+        return state.get();
+    }
+
+    /**
+     * Reports that the connection failed in use. The first report opens the circuit and starts reconnecting; reports
+     * while it is already open are ignored, so a burst of failing calls costs one reconnect.
+     */
+    public void reportFailure(@NotNull final Throwable cause) {
+        if (!state.compareAndSet(State.READY, State.OPEN)) return;
+
+        logger.warn("JMS {} lost its broker connection, reconnecting in the background. error={}", client, cause.toString());
+        signalReadyChanged();
+        schedule(() -> {
+            disconnector.run();
+            retryLater();
+        }, 0);
+    }
+
+    /**
+     * @return whether the client became ready within {@code timeout}.
+     */
+    public boolean awaitReady(@NotNull final Duration timeout) throws InterruptedException {
+        var remaining = timeout.toNanos();
+        readyLock.lock();
+        try {
+            while (!ready() && state.get() != State.CLOSED && remaining > 0) {
+                remaining = readyChanged.awaitNanos(remaining);
+            }
+            return ready();
+        } finally {
+            readyLock.unlock();
+        }
+    }
+
+    private void attempt() {
+        if (state.get() == State.CLOSED) return;
+
+        attempts.increment();
+        try {
+            connector.connect();
+        } catch (final Exception ex) {
+            failures.increment();
+            disconnector.run();
+            if (state.get() != State.CLOSED) state.set(State.OPEN);
+            final var attempt = failedAttempts + 1;
+            final var delay = retryLater();
+            logger.warn("JMS {} failed to connect (attempt {}), retrying in {}ms. error={}", client, attempt, delay, ex.toString());
+            return;
+        }
+
+        failedAttempts = 0;
+        if (state.getAndUpdate(current -> current == State.CLOSED ? State.CLOSED : State.READY) == State.CLOSED) {
+            disconnector.run();
+            return;
+        }
+        logger.info("JMS {} connected", client);
+        signalReadyChanged();
+    }
+
+    private long retryLater() {
+        final var delay = backoffMillis(failedAttempts++, config, random);
+        schedule(this::attempt, delay);
+        return delay;
+    }
+
+    /**
+     * Exponential backoff with "equal jitter": the delay doubles per failed attempt up to the configured maximum, and
+     * the second half of it is random, so clients spread out without any of them retrying immediately.
+     */
+    static long backoffMillis(final int failedAttempts, final ReconnectConfig config, final RandomGenerator random) {
+        final var initial = Math.max(1, config.initialDelayMillis());
+        final var max = Math.max(initial, config.maxDelayMillis());
+        final var ceiling = Math.min(max, (long) initial << Math.min(failedAttempts, MAX_BACKOFF_SHIFT));
+        return ceiling / 2 + random.nextLong(ceiling - ceiling / 2 + 1);
+    }
+
+    private void schedule(final Runnable task, final long delayMillis) {
+        if (state.get() == State.CLOSED) return;
+
+        try {
+            scheduler.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException ignored) {
+            // the client is shutting down
+        }
+    }
+
+    private void signalReadyChanged() {
+        readyLock.lock();
+        try {
+            readyChanged.signalAll();
+        } finally {
+            readyLock.unlock();
+        }
+    }
+
+    /**
+     * Stops reconnecting. The scheduler belongs to the client, which closes its own connection.
+     */
+    @Override
+    public void close() {
+        state.set(State.CLOSED);
+        signalReadyChanged();
+    }
+}
@@ -0,0 +1,10 @@
+package com.challenge.connection;
+
+public record ReconnectConfig(
+        int initialDelayMillis,
+        int maxDelayMillis
+) {
+    public static ReconnectConfig defaults() {
+        return new ReconnectConfig(250, 30_000);
+    }
+}
@@ -0,0 +1,110 @@
+package com.challenge.domain;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Interns each distinct (warehouse, sensor, type) to a dense int id the first time it is seen, so per-sensor state can
+ * live in primitive arrays indexed by id. Lookups of known sensors are two map reads keyed by the strings the
+ * measurement already holds plus an array index by type, and allocate nothing; the strings of the first sighting are
+ * kept, so callers that reuse them hit on identity. Ids are assigned without gaps and never change for the life of the
+ * registry.
+ */
+public final class SensorRegistry {
+
+    public static final int UNKNOWN = -1;
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final String NO_WAREHOUSE = "";
+    private static final SensorType[] TYPES = SensorType.values();
+
+    public record Sensor(@Nullable String warehouseId, @NotNull String sensorId, @NotNull SensorType type) {
+    }
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, AtomicIntegerArray>> ids = new ConcurrentHashMap<>();
+    // Only new sensors take the lock; it keeps ids dense and orders each entry before the id that resolves to it.
+    private final ReentrantLock assignLock = new ReentrantLock();
+    private volatile Sensor[][] pages = new Sensor[0][];
+    private volatile int size;
+
+    public int id(@NotNull final Measurement measurement) {
+        return id(measurement.warehouseId(), measurement.sensorId(), measurement.type());
+    }
+
+    public int id(@Nullable final String warehouseId, @NotNull final String sensorId, @NotNull final SensorType type) {
+        final var warehouse = warehouseId == null ? NO_WAREHOUSE : warehouseId;
+
+        var sensors = ids.get(warehouse);
+        if (sensors == null) sensors = ids.computeIfAbsent(warehouse, ignored -> new ConcurrentHashMap<>());
+
+        var byType = sensors.get(sensorId);
+        if (byType == null) byType = sensors.computeIfAbsent(sensorId, ignored -> newSlots());
+
+        final var existing = byType.get(type.ordinal());
+        return existing != UNKNOWN ? existing : assign(byType, warehouseId, sensorId, type);
+    }
+
+    /**
+     * @return the id of a sensor seen before, or {@link #UNKNOWN} without assigning one.
+     */
+    public int find(@Nullable final String warehouseId, @NotNull final String sensorId, @NotNull final SensorType type) {
+        final var sensors = ids.get(warehouseId == null ? NO_WAREHOUSE : warehouseId);
+        final var byType = sensors == null ? null : sensors.get(sensorId);
+        return byType == null ? UNKNOWN : byType.get(type.ordinal());
+    }
+
+    /**
+     * @return the sensor behind {@code id}, or {@code null} when no such id was handed out.
+     */
+    public @Nullable Sensor sensor(final int id) {
+        if (id < 0 || id >= size) return null;
+        return pages[id >>> PAGE_BITS][id & PAGE_MASK];
+    }
+
+    /**
+     * Ids run from {@code 0} to {@code size() - 1}, and each resolves through {@link #sensor(int)}.
+     */
+    public int size() {
+        return size;
+    }
+
+    private int assign(final AtomicIntegerArray byType, @Nullable final String warehouseId, final String sensorId, final SensorType type) {
+        assignLock.lock();
+        try {
+            final var existing = byType.get(type.ordinal());
+            if (existing != UNKNOWN) return existing;
+
+            final var id = size;
+            final var page = id >>> PAGE_BITS;
+            var current = pages;
+            if (page >= current.length) {
+                current = Arrays.copyOf(current, Math.max(page + 1, current.length * 2));
+                for (int i = pages.length; i < current.length; i++) {
+                    current[i] = new Sensor[PAGE_SIZE];
+                }
+                pages = current;
+            }
+            current[page][id & PAGE_MASK] = new Sensor(warehouseId, sensorId, type);
+            size = id + 1;
+            byType.set(type.ordinal(), id);
+            return id;
+        } finally {
+            assignLock.unlock();
+        }
+    }
+
+    private static AtomicIntegerArray newSlots() {
+        final var byType = new AtomicIntegerArray(TYPES.length);
+        for (int i = 0; i < TYPES.length; i++) {
+            byType.set(i, UNKNOWN);
+        }
+        return byType;
+    }
+}
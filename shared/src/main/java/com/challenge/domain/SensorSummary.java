@@ -0,0 +1,19 @@
+package com.challenge.domain;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Pre-aggregated readings of one sensor: {@code count} readings between the timestamps {@code from} and {@code to}
+ * (both inclusive), with {@code last} the value read at {@code to}.
+ */
+public record SensorSummary(@Nullable String warehouseId, @NotNull String sensorId, @NotNull SensorType type, int count,
+                            int min, int max, long sum, int last, long from, long to) {
+
+    /**
+     * The latest reading the summary covers, for stages that only handle single measurements.
+     */
+    public Measurement lastMeasurement() {
+        return new Measurement(warehouseId, sensorId, type, last, to);
+    }
+}
@@ -0,0 +1,84 @@
+package com.challenge.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single daemon thread that formats and appends log lines handed over by {@link LogThrottle}, so the thread that hit
+ * the event never waits on the appender. The queue is bounded; lines that do not fit are counted and reported in the
+ * writer's own summary instead of blocking the caller. The writer also flushes throttle summaries once their interval
+ * has passed, so a burst that stops is still reported.
+ */
+final class AsyncLogWriter {
+
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final long POLL_MILLIS = 500;
+    private static final Logger logger = LoggerFactory.getLogger(AsyncLogWriter.class);
+
+    private static final AsyncLogWriter INSTANCE = new AsyncLogWriter();
+
+    private final ArrayBlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final List<LogThrottle> throttles = new CopyOnWriteArrayList<>();
+    private final LongAdder overflowed = new LongAdder();
+
+    private record Entry(Logger logger, Level level, String format, Object[] args) {
+    }
+
+    private AsyncLogWriter() {
+        Thread.ofPlatform().name("async-log-writer").daemon(true).start(this::runLoop);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::drain, "async-log-drain"));
+    }
+
+    static AsyncLogWriter instance() {
+        return INSTANCE;
+    }
+
+    void register(final LogThrottle throttle) {
+        throttles.add(throttle);
+    }
+
+    void enqueue(final Logger target, final Level level, final String format, final Object[] args) {
+        if (!queue.offer(new Entry(target, level, format, args))) overflowed.increment();
+    }
+
+    private void runLoop() {
+        while (true) {
+            try {
+                final var entry = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (entry != null) write(entry);
+                flushSummaries(System.nanoTime());
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final RuntimeException ex) {
+                logger.warn("Async log writer failed to append. error={}", ex.toString());
+            }
+        }
+    }
+
+    private void flushSummaries(final long now) {
+        for (final var throttle : throttles) {
+            throttle.flushIfDue(now);
+        }
+        final var lost = overflowed.sumThenReset();
+        if (lost > 0) logger.warn("Async log queue full, {} diagnostic line(s) dropped", lost);
+    }
+
+    private void drain() {
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            write(entry);
+        }
+    }
+
+    private static void write(final Entry entry) {
+        entry.logger().atLevel(entry.level()).log(entry.format(), entry.args());
+    }
+}
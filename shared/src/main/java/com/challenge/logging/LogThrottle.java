@@ -0,0 +1,83 @@
+package com.challenge.logging;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate limit for one kind of diagnostic log line on a hot path. Up to {@code examplesPerInterval} occurrences per
+ * interval are logged in full as samples; the rest are only counted and reported as one summary line when the interval
+ * ends. Callers check {@link #sample()} before building any arguments:
+ * <pre>
+ *   if (malformed.sample()) malformed.log("Invalid payload='{}'", decode(payload));
+ * </pre>
+ * so a suppressed occurrence costs a counter increment and no formatting. Sampled lines are appended asynchronously.
+ */
+public final class LogThrottle {
+
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+
+    private final Logger logger;
+    private final Level level;
+    private final String description;
+    private final long intervalNanos;
+    private final int examplesPerInterval;
+
+    private final AtomicLong windowStart;
+    private final AtomicInteger sampled = new AtomicInteger();
+    private final LongAdder suppressed = new LongAdder();
+
+    public LogThrottle(@NotNull final Logger logger, @NotNull final Level level, @NotNull final String description) {
+        this(logger, level, description, DEFAULT_INTERVAL, 1);
+    }
+
+    /**
+     * @param description what is being counted, used in the summary line, e.g. {@code "malformed UDP payload"}.
+     */
+    public LogThrottle(@NotNull final Logger logger, @NotNull final Level level, @NotNull final String description,
+                       @NotNull final Duration interval, final int examplesPerInterval) {
+        this.logger = logger;
+        this.level = level;
+        this.description = description;
+        this.intervalNanos = Math.max(1, interval.toNanos());
+        this.examplesPerInterval = Math.max(0, examplesPerInterval);
+        this.windowStart = new AtomicLong(System.nanoTime());
+        AsyncLogWriter.instance().register(this);
+    }
+
+    /**
+     * @return {@code true} when this occurrence should be logged with {@link #log(String, Object...)}; otherwise it has
+     * been counted for the next summary.
+     */
+    public boolean sample() {
+        if (!logger.isEnabledForLevel(level)) return false;
+
+        final var now = System.nanoTime();
+        if (now - windowStart.get() >= intervalNanos) flushIfDue(now);
+
+        // Read before incrementing so a flood past the limit does not keep writing the shared counter.
+        if (sampled.get() < examplesPerInterval && sampled.incrementAndGet() <= examplesPerInterval) return true;
+        suppressed.increment();
+        return false;
+    }
+
+    public void log(@NotNull final String format, final Object... args) {
+        AsyncLogWriter.instance().enqueue(logger, level, format, args);
+    }
+
+    void flushIfDue(final long now) {
+        final var start = windowStart.get();
+        if (now - start < intervalNanos || !windowStart.compareAndSet(start, now)) return;
+
+        sampled.set(0);
+        final var count = suppressed.sumThenReset();
+        if (count > 0) {
+            log("Suppressed {} more {} line(s) in the last {}s", count, description, Math.max(1, (now - start) / 1_000_000_000L));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.challenge.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Named counters, gauges and latency histograms, rendered in the Prometheus text exposition format. Components
+ * register their metrics once at construction and keep the returned objects, so the hot path never touches the
+ * registry. Registering the same name and labels twice returns the existing metric.
+ * <p>
+ * Histograms are exported as summaries in seconds with p50/p90/p99/p999 quantiles.
+ */
+public class MetricsRegistry {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private enum Kind {COUNTER, GAUGE, SUMMARY}
+
+    private record Family(String help, Kind kind, Map<String, Object> series) {
+    }
+
+    private final Map<String, Family> families = new LinkedHashMap<>();
+    private final Map<String, BooleanSupplier> readinessChecks = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * @param labels alternating label names and values, e.g. {@code "type", "temperature"}.
+     */
+    public Counter counter(@NotNull final String name, @NotNull final String help, @NotNull final String... labels) {
+        return (Counter) register(name, help, Kind.COUNTER, labels, new Counter());
+    }
+
+    public LatencyHistogram histogram(@NotNull final String name, @NotNull final String help, @NotNull final String... labels) {
+        return (LatencyHistogram) register(name, help, Kind.SUMMARY, labels, new LatencyHistogram());
+    }
+
+    /**
+     * Registers a value sampled at scrape time; {@code value} must be cheap and thread-safe.
+     */
+    public void gauge(@NotNull final String name, @NotNull final String help, @NotNull final LongSupplier value, @NotNull final String... labels) {
+        register(name, help, Kind.GAUGE, labels, value);
+    }
+
+    private Object register(final String name, final String help, final Kind kind, final String[] labels, final Object metric) {
+        if (labels.length % 2 != 0) throw new IllegalArgumentException("Labels must be name/value pairs: " + name);
+
+        lock.lock();
+        try {
+            final var family = families.computeIfAbsent(name, ignored -> new Family(help, kind, new LinkedHashMap<>()));
+            if (family.kind() != kind) throw new IllegalArgumentException("Metric " + name + " already registered as " + family.kind());
+            return family.series().computeIfAbsent(labelText(labels), ignored -> metric);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registers a condition the service needs to do useful work, e.g. a broker connection; see {@link #notReady()}.
+     */
+    public void readinessCheck(@NotNull final String name, @NotNull final BooleanSupplier ready) {
+        lock.lock();
+        try {
+            readinessChecks.put(name, ready);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the names of the readiness checks currently failing; empty when the service is ready.
+     */
+    public List<String> notReady() {
+        lock.lock();
+        try {
+            return readinessChecks.entrySet().stream()
+                    .filter(check -> !check.getValue().getAsBoolean())
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String scrape() {
+        final var out = new StringBuilder(4096);
+        lock.lock();
+        try {
+            families.forEach((name, family) -> {
+                out.append("# HELP ").append(name).append(' ').append(family.help()).append('\n');
+                out.append("# TYPE ").append(name).append(' ').append(family.kind().name().toLowerCase(Locale.ROOT)).append('\n');
+                family.series().forEach((labels, metric) -> write(out, name, labels, metric));
+            });
+        } finally {
+            lock.unlock();
+        }
+        return out.toString();
+    }
+
+    private static void write(final StringBuilder out, final String name, final String labels, final Object metric) {
+        switch (metric) {
+            case Counter counter -> sample(out, name, labels, Long.toString(counter.get()));
+            case LongSupplier gauge -> sample(out, name, labels, Long.toString(gauge.getAsLong()));
+            case LatencyHistogram histogram -> {
+                for (final var quantile : QUANTILES) {
+                    final var withQuantile = (labels.isEmpty() ? "" : labels + ",") + "quantile=\"" + quantile + "\"";
+                    sample(out, name, withQuantile, seconds(histogram.valueAtQuantile(quantile)));
+                }
+                sample(out, name + "_sum", labels, seconds(histogram.sumNanos()));
+                sample(out, name + "_count", labels, Long.toString(histogram.count()));
+            }
+            default -> throw new IllegalStateException("Unexpected metric " + metric);
+        }
+    }
+
+    private static void sample(final StringBuilder out, final String name, final String labels, final String value) {
+        out.append(name);
+        if (!labels.isEmpty()) out.append('{').append(labels).append('}');
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String seconds(final long nanos) {
+        return Double.toString(nanos / NANOS_PER_SECOND);
+    }
+
+    private static String labelText(final String[] labels) {
+        final var text = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) text.append(',');
+            text.append(labels[i]).append("=\"")
+                    .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                    .append('"');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package com.challenge.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves {@link MetricsRegistry#scrape()} at {@code GET /metrics}. Scrapes are handled one at a time on the server's
+ * own thread; they only read counters, so they never slow the pipeline down.
+ * <p>
+ * {@code GET /ready} answers 200 while every {@link MetricsRegistry#readinessCheck readiness check} passes and 503
+ * listing the failing ones otherwise, for orchestrator readiness probes.
+ */
+public class MetricsServer implements AutoCloseable {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final Logger logger = LoggerFactory.getLogger(MetricsServer.class);
+
+    private final HttpServer server;
+
+    public MetricsServer(final int port, @NotNull final MetricsRegistry registry) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", exchange -> {
+            try (exchange) {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+                final var body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+        });
+        server.createContext("/ready", exchange -> {
+            try (exchange) {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+                final var notReady = registry.notReady();
+                final var body = (notReady.isEmpty() ? "ready" : "not ready: " + String.join(", ", notReady))
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+                exchange.sendResponseHeaders(notReady.isEmpty() ? 200 : 503, body.length);
+                exchange.getResponseBody().write(body);
+            }
+        });
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Metrics endpoint listening on port {}", port());
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
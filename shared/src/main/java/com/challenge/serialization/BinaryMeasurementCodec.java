@@ -0,0 +1,293 @@
+package com.challenge.serialization;
+
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Fixed-layout big-endian encoding:
+ * <pre>
+ * byte   version (1)
+ * byte   sensor type ordinal
+ * int    value
+ * long   timestamp
+ * short  warehouseId length (-1 when null), followed by UTF-8 bytes
+ * short  sensorId length, followed by UTF-8 bytes
+ * </pre>
+ * Envelopes write the shared warehouseId once, and each distinct sensor once in a table the readings refer to by
+ * index, so a batch from a few hundred sensors carries each id string once instead of once per reading:
+ * <pre>
+ * byte   version (2)
+ * short  warehouseId length (-1 when null), followed by UTF-8 bytes
+ * int    count
+ * short  sensors (unsigned)
+ * sensors x (byte type ordinal, short sensorId length, sensorId UTF-8 bytes)
+ * count x (short sensor index (unsigned), int value, long timestamp)
+ * </pre>
+ * The table is scoped to the message: a consumer may see messages out of order, from several sessions, or after a
+ * restart, so no message depends on one sent before it. Version 1 envelopes repeat the type and sensorId in every
+ * entry instead; they are still written when that is smaller (every reading from a different sensor) and always
+ * decode, so spooled messages from before the upgrade are not lost:
+ * <pre>
+ * byte   version (1)
+ * short  warehouseId length (-1 when null), followed by UTF-8 bytes
+ * int    count
+ * count x (byte type ordinal, int value, long timestamp, short sensorId length, sensorId UTF-8 bytes)
+ * </pre>
+ */
+public class BinaryMeasurementCodec implements MeasurementCodec {
+
+    public static final String CONTENT_TYPE = "application/x-measurement-v1";
+
+    static final byte VERSION = 1;
+    static final byte ENVELOPE_VERSION = 2;
+    static final int FIXED_BYTES = Byte.BYTES + Byte.BYTES + Integer.BYTES + Long.BYTES + Short.BYTES + Short.BYTES;
+    static final int ENVELOPE_FIXED_BYTES = Byte.BYTES + Short.BYTES + Integer.BYTES + Short.BYTES;
+    static final int ENVELOPE_SENSOR_FIXED_BYTES = Byte.BYTES + Short.BYTES;
+    static final int ENVELOPE_ENTRY_BYTES = Short.BYTES + Integer.BYTES + Long.BYTES;
+    static final int LEGACY_ENVELOPE_FIXED_BYTES = Byte.BYTES + Short.BYTES + Integer.BYTES;
+    static final int LEGACY_ENVELOPE_ENTRY_FIXED_BYTES = Byte.BYTES + Integer.BYTES + Long.BYTES + Short.BYTES;
+    static final int MAX_ENVELOPE_SENSORS = 0xFFFF;
+
+    private static final SensorType[] SENSOR_TYPES = SensorType.values();
+
+    @Override
+    public @NotNull String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte @NotNull [] encode(@NotNull final Measurement measurement) {
+        final var warehouseId = utf8(measurement.warehouseId());
+        final var sensorId = utf8(measurement.sensorId());
+
+        final var buffer = ByteBuffer.allocate(encodedSize(warehouseId, sensorId));
+        write(buffer, measurement, warehouseId, sensorId);
+        return buffer.array();
+    }
+
+    @Override
+    public @NotNull Measurement decode(final byte @NotNull [] payload) {
+        final var buffer = ByteBuffer.wrap(payload);
+        final var measurement = read(buffer);
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Invalid measurement binary: " + buffer.remaining() + " trailing bytes");
+        }
+        return measurement;
+    }
+
+    @Override
+    public byte @NotNull [] encodeEnvelope(@NotNull final List<Measurement> measurements) {
+        MeasurementCodec.requireSingleWarehouse(measurements);
+
+        final var warehouseId = utf8(measurements.getFirst().warehouseId());
+        final var indexes = new int[measurements.size()];
+        final var bySensor = new HashMap<String, int[]>();
+        final var sensors = new ArrayList<Measurement>();
+        final var sensorIds = new ArrayList<byte[]>();
+        final var warehouseBytes = warehouseId == null ? 0 : warehouseId.length;
+        var size = ENVELOPE_FIXED_BYTES + warehouseBytes + measurements.size() * ENVELOPE_ENTRY_BYTES;
+        var legacySize = LEGACY_ENVELOPE_FIXED_BYTES + warehouseBytes;
+        for (int i = 0; i < indexes.length; i++) {
+            final var measurement = measurements.get(i);
+            final var byType = bySensor.computeIfAbsent(measurement.sensorId(), ignored -> newIndexes());
+            final var type = measurement.type().ordinal();
+            if (byType[type] < 0) {
+                if (sensors.size() == MAX_ENVELOPE_SENSORS) {
+                    throw new IllegalArgumentException("Envelope holds more than " + MAX_ENVELOPE_SENSORS + " distinct sensors");
+                }
+                byType[type] = sensors.size();
+                sensors.add(measurement);
+                sensorIds.add(utf8(measurement.sensorId()));
+                size += ENVELOPE_SENSOR_FIXED_BYTES + sensorIds.getLast().length;
+            }
+            indexes[i] = byType[type];
+            legacySize += LEGACY_ENVELOPE_ENTRY_FIXED_BYTES + sensorIds.get(indexes[i]).length;
+        }
+        if (legacySize <= size) return encodeLegacyEnvelope(measurements, warehouseId, indexes, sensorIds, legacySize);
+
+        final var buffer = ByteBuffer.allocate(size).put(ENVELOPE_VERSION);
+        writeString(buffer, warehouseId);
+        buffer.putInt(measurements.size()).putShort((short) sensors.size());
+        for (int i = 0; i < sensors.size(); i++) {
+            buffer.put((byte) sensors.get(i).type().ordinal());
+            writeString(buffer, sensorIds.get(i));
+        }
+        for (int i = 0; i < indexes.length; i++) {
+            final var measurement = measurements.get(i);
+            buffer.putShort((short) indexes[i])
+                    .putInt(measurement.value())
+                    .putLong(measurement.timestamp());
+        }
+        return buffer.array();
+    }
+
+    // Smaller when nearly every reading comes from a different sensor, as the table then only adds its indexes.
+    private static byte[] encodeLegacyEnvelope(final List<Measurement> measurements, final byte @Nullable [] warehouseId, final int[] indexes,
+                                               final List<byte[]> sensorIds, final int size) {
+        final var buffer = ByteBuffer.allocate(size).put(VERSION);
+        writeString(buffer, warehouseId);
+        buffer.putInt(measurements.size());
+        for (int i = 0; i < indexes.length; i++) {
+            final var measurement = measurements.get(i);
+            buffer.put((byte) measurement.type().ordinal())
+                    .putInt(measurement.value())
+                    .putLong(measurement.timestamp());
+            writeString(buffer, sensorIds.get(indexes[i]));
+        }
+        return buffer.array();
+    }
+
+    @Override
+    public @NotNull List<Measurement> decodeEnvelope(final byte @NotNull [] payload) {
+        final var buffer = ByteBuffer.wrap(payload);
+        try {
+            final var version = buffer.get();
+            if (version != ENVELOPE_VERSION && version != VERSION) {
+                throw new IllegalArgumentException("Unsupported measurement envelope version " + version);
+            }
+
+            final var warehouseId = readString(buffer);
+            final var count = buffer.getInt();
+            final var measurements = version == VERSION
+                    ? readLegacyEntries(buffer, warehouseId, count)
+                    : readEntries(buffer, warehouseId, count);
+
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Invalid measurement envelope: " + buffer.remaining() + " trailing bytes");
+            }
+            return measurements;
+        } catch (final BufferUnderflowException ex) {
+            throw new IllegalArgumentException("Truncated measurement envelope", ex);
+        }
+    }
+
+    // Each table entry is decoded once, so readings from the same sensor share its String instances.
+    private static List<Measurement> readEntries(final ByteBuffer buffer, @Nullable final String warehouseId, final int count) {
+        if (count < 0 || (long) count * ENVELOPE_ENTRY_BYTES > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid measurement envelope count " + count);
+        }
+
+        final var sensorCount = Short.toUnsignedInt(buffer.getShort());
+        final var types = new SensorType[sensorCount];
+        final var sensorIds = new String[sensorCount];
+        for (int i = 0; i < sensorCount; i++) {
+            types[i] = readType(buffer);
+            sensorIds[i] = readString(buffer);
+            if (sensorIds[i] == null) {
+                throw new IllegalArgumentException("Missing sensorId");
+            }
+        }
+
+        final var measurements = new ArrayList<Measurement>(count);
+        for (int i = 0; i < count; i++) {
+            final var index = Short.toUnsignedInt(buffer.getShort());
+            if (index >= sensorCount) {
+                throw new IllegalArgumentException("Invalid sensor index " + index + " in envelope of " + sensorCount + " sensors");
+            }
+            measurements.add(new Measurement(warehouseId, sensorIds[index], types[index], buffer.getInt(), buffer.getLong()));
+        }
+        return measurements;
+    }
+
+    private static List<Measurement> readLegacyEntries(final ByteBuffer buffer, @Nullable final String warehouseId, final int count) {
+        if (count < 0 || (long) count * LEGACY_ENVELOPE_ENTRY_FIXED_BYTES > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid measurement envelope count " + count);
+        }
+
+        final var measurements = new ArrayList<Measurement>(count);
+        for (int i = 0; i < count; i++) {
+            final var type = readType(buffer);
+            final var value = buffer.getInt();
+            final var timestamp = buffer.getLong();
+            final var sensorId = readString(buffer);
+            if (sensorId == null) {
+                throw new IllegalArgumentException("Missing sensorId");
+            }
+            measurements.add(new Measurement(warehouseId, sensorId, type, value, timestamp));
+        }
+        return measurements;
+    }
+
+    private static int[] newIndexes() {
+        final var indexes = new int[SENSOR_TYPES.length];
+        Arrays.fill(indexes, -1);
+        return indexes;
+    }
+
+    static int encodedSize(final byte @Nullable [] warehouseId, final byte @NotNull [] sensorId) {
+        return FIXED_BYTES + (warehouseId == null ? 0 : warehouseId.length) + sensorId.length;
+    }
+
+    static void write(final ByteBuffer buffer, final Measurement measurement, final byte @Nullable [] warehouseId, final byte @NotNull [] sensorId) {
+        buffer.put(VERSION)
+                .put((byte) measurement.type().ordinal())
+                .putInt(measurement.value())
+                .putLong(measurement.timestamp());
+        writeString(buffer, warehouseId);
+        writeString(buffer, sensorId);
+    }
+
+    static Measurement read(final ByteBuffer buffer) {
+        try {
+            final var version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported measurement binary version " + version);
+            }
+
+            final var type = readType(buffer);
+            final var value = buffer.getInt();
+            final var timestamp = buffer.getLong();
+            final var warehouseId = readString(buffer);
+            final var sensorId = readString(buffer);
+            if (sensorId == null) {
+                throw new IllegalArgumentException("Missing sensorId");
+            }
+
+            return new Measurement(warehouseId, sensorId, type, value, timestamp);
+        } catch (final BufferUnderflowException ex) {
+            throw new IllegalArgumentException("Truncated measurement binary", ex);
+        }
+    }
+
+    private static SensorType readType(final ByteBuffer buffer) {
+        final var typeOrdinal = buffer.get();
+        if (typeOrdinal < 0 || typeOrdinal >= SENSOR_TYPES.length) {
+            throw new IllegalArgumentException("Unknown sensor type ordinal " + typeOrdinal);
+        }
+        return SENSOR_TYPES[typeOrdinal];
+    }
+
+    static byte @Nullable [] utf8(@Nullable final String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(final ByteBuffer buffer, final byte @Nullable [] bytes) {
+        if (bytes == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Identifier too long for binary encoding: " + bytes.length + " bytes");
+        }
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static @Nullable String readString(final ByteBuffer buffer) {
+        final var length = buffer.getShort();
+        if (length < 0) return null;
+
+        final var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
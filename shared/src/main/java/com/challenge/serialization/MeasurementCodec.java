@@ -0,0 +1,54 @@
+package com.challenge.serialization;
+
+import com.challenge.domain.Measurement;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Wire encoding for a single {@link Measurement} or an envelope of measurements from one warehouse. The
+ * {@link #contentType()} travels with every message in the {@link #CONTENT_TYPE_PROPERTY} property so consumers can
+ * pick the matching codec, and envelopes are flagged with {@link #ENVELOPE_PROPERTY}; messages without the flag hold a
+ * single measurement. Messages flagged with {@link #SUMMARY_PROPERTY} hold a JSON list of
+ * {@link com.challenge.domain.SensorSummary} instead, see {@link MeasurementJsonMapper#encodeSummaries(List)}.
+ */
+public interface MeasurementCodec {
+
+    String CONTENT_TYPE_PROPERTY = "contentType";
+    String ENVELOPE_PROPERTY = "envelope";
+    String SUMMARY_PROPERTY = "summary";
+
+    @NotNull String contentType();
+
+    /**
+     * Whether the encoding is text and should travel as a JMS {@code TextMessage} rather than a {@code BytesMessage}.
+     */
+    default boolean textual() {
+        return false;
+    }
+
+    byte @NotNull [] encode(@NotNull Measurement measurement);
+
+    @NotNull Measurement decode(byte @NotNull [] payload);
+
+    /**
+     * @throws IllegalArgumentException when the measurements are empty or belong to different warehouses.
+     */
+    byte @NotNull [] encodeEnvelope(@NotNull List<Measurement> measurements);
+
+    @NotNull List<Measurement> decodeEnvelope(byte @NotNull [] payload);
+
+    static void requireSingleWarehouse(@NotNull final List<Measurement> measurements) {
+        if (measurements.isEmpty()) {
+            throw new IllegalArgumentException("Envelope must contain at least one measurement");
+        }
+
+        final var warehouseId = measurements.getFirst().warehouseId();
+        for (final var measurement : measurements) {
+            if (!Objects.equals(warehouseId, measurement.warehouseId())) {
+                throw new IllegalArgumentException("Envelope mixes warehouses " + warehouseId + " and " + measurement.warehouseId());
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.challenge.serialization;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Looks up a codec by the content type carried on a message. Messages without a content type are assumed to be JSON,
+ * which is what every publisher sent before codecs existed.
+ */
+public class MeasurementCodecs {
+
+    private final Map<String, MeasurementCodec> byContentType;
+    private final MeasurementCodec fallback;
+
+    public MeasurementCodecs(@NotNull final MeasurementJsonMapper jsonMapper, @NotNull final MeasurementCodec... others) {
+        this.fallback = jsonMapper;
+        this.byContentType = Stream.concat(Stream.of(jsonMapper), Stream.of(others))
+                .collect(Collectors.toUnmodifiableMap(MeasurementCodec::contentType, Function.identity(), (a, b) -> b));
+    }
+
+    public Optional<MeasurementCodec> forContentType(@Nullable final String contentType) {
+        if (contentType == null || contentType.isBlank()) return Optional.of(fallback);
+        return Optional.ofNullable(byContentType.get(contentType));
+    }
+}
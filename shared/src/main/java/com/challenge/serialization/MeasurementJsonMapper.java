@@ -2,11 +2,23 @@ package com.challenge.serialization;
 
 
 import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorSummary;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.jetbrains.annotations.NotNull;
 
-public class MeasurementJsonMapper {
+import java.io.IOException;
+import java.util.List;
+
+public class MeasurementJsonMapper implements MeasurementCodec {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    private static final TypeReference<List<Measurement>> ENVELOPE_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<SensorSummary>> SUMMARIES_TYPE = new TypeReference<>() {
+    };
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -25,4 +37,71 @@ public class MeasurementJsonMapper {
             throw new IllegalStateException("Failed to serialize measurement", e);
         }
     }
+
+    @Override
+    public @NotNull String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public boolean textual() {
+        return true;
+    }
+
+    @Override
+    public byte @NotNull [] encode(@NotNull final Measurement measurement) {
+        try {
+            return objectMapper.writeValueAsBytes(measurement);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize measurement", e);
+        }
+    }
+
+    @Override
+    public @NotNull Measurement decode(final byte @NotNull [] payload) {
+        try {
+            return objectMapper.readValue(payload, Measurement.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid measurement json", e);
+        }
+    }
+
+    @Override
+    public byte @NotNull [] encodeEnvelope(@NotNull final List<Measurement> measurements) {
+        MeasurementCodec.requireSingleWarehouse(measurements);
+        try {
+            return objectMapper.writeValueAsBytes(measurements);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize measurement envelope", e);
+        }
+    }
+
+    @Override
+    public @NotNull List<Measurement> decodeEnvelope(final byte @NotNull [] payload) {
+        try {
+            return objectMapper.readValue(payload, ENVELOPE_TYPE);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid measurement envelope json", e);
+        }
+    }
+
+    /**
+     * Summaries always travel as JSON, whatever the wire format of raw readings; there is at most one per sensor per
+     * pre-aggregation interval.
+     */
+    public byte @NotNull [] encodeSummaries(@NotNull final List<SensorSummary> summaries) {
+        try {
+            return objectMapper.writeValueAsBytes(summaries);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize sensor summaries", e);
+        }
+    }
+
+    public @NotNull List<SensorSummary> decodeSummaries(final byte @NotNull [] payload) {
+        try {
+            return objectMapper.readValue(payload, SUMMARIES_TYPE);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid sensor summaries json", e);
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package com.challenge.trace;
+
+/**
+ * Per-hop latency stamps carried on every JMS message as long properties, in epoch microseconds.
+ * <p>
+ * Stamps come from {@link #nowMicros()}: wall-clock time anchored once at class load and advanced by
+ * {@link System#nanoTime()}, so stamps taken in one process never go backwards when NTP adjusts the clock, while
+ * stamps from different hosts stay comparable to within their clock offset. Hops that cross hosts (publish to broker
+ * delivery) therefore include that offset.
+ */
+public final class TraceStamps {
+
+    /**
+     * Datagram handed to the parser by the UDP reader.
+     */
+    public static final String RECEIVED_PROPERTY = "traceReceivedUs";
+    /**
+     * Measurement parsed from the datagram.
+     */
+    public static final String PARSED_PROPERTY = "traceParsedUs";
+    /**
+     * JMS message created for sending, after any queueing and batching in the publisher.
+     */
+    public static final String PUBLISHED_PROPERTY = "tracePublishedUs";
+
+    /**
+     * Marks a stamp that was never taken, e.g. for messages replayed from the spool.
+     */
+    public static final long NONE = 0;
+
+    private static final long ANCHOR_MICROS = System.currentTimeMillis() * 1_000;
+    private static final long ANCHOR_NANOS = System.nanoTime();
+
+    private TraceStamps() {
+    }
+
+    public static long nowMicros() {
+        return ANCHOR_MICROS + (System.nanoTime() - ANCHOR_NANOS) / 1_000;
+    }
+}
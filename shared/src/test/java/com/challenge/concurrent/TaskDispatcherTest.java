@@ -0,0 +1,92 @@
+package com.challenge.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskDispatcherTest {
+
+    @Test
+    void dispatch_shouldRunInline_inPlatformMode() {
+        // given
+        final var executedOn = new AtomicReference<Thread>();
+
+        // when
+        try (final var underTest = new TaskDispatcher(new ExecutionConfig(ExecutionMode.PLATFORM, 4), "test")) {
+            underTest.dispatch(() -> executedOn.set(Thread.currentThread()));
+        }
+
+        // then
+        assertSame(Thread.currentThread(), executedOn.get());
+    }
+
+    @Test
+    void dispatch_shouldRunOnVirtualThreads_withinConcurrencyLimit() throws InterruptedException {
+        // given
+        final var limit = 3;
+        final var inFlight = new AtomicInteger();
+        final var maxInFlight = new AtomicInteger();
+        final var allVirtual = new AtomicInteger();
+        final var done = new CountDownLatch(20);
+
+        // when
+        try (final var underTest = new TaskDispatcher(new ExecutionConfig(ExecutionMode.VIRTUAL, limit), "test")) {
+            for (int i = 0; i < 20; i++) {
+                underTest.dispatch(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    if (Thread.currentThread().isVirtual()) allVirtual.incrementAndGet();
+                    try {
+                        Thread.sleep(5);
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    inFlight.decrementAndGet();
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+
+        // then
+        assertTrue(maxInFlight.get() <= limit);
+        assertEquals(20, allVirtual.get());
+    }
+
+    @Test
+    void dispatch_shouldRunTasksWithTheSameKeyOneAtATimeInOrder_inVirtualMode() throws InterruptedException {
+        // given
+        final var inFlight = new AtomicInteger();
+        final var overlaps = new AtomicInteger();
+        final var order = new ConcurrentLinkedQueue<Integer>();
+        final var done = new CountDownLatch(50);
+
+        // when
+        try (final var underTest = new TaskDispatcher(new ExecutionConfig(ExecutionMode.VIRTUAL, 8), "test")) {
+            for (int i = 0; i < 50; i++) {
+                final var sequence = i;
+                underTest.dispatch(42, () -> {
+                    if (inFlight.incrementAndGet() > 1) overlaps.incrementAndGet();
+                    Thread.yield();
+                    order.add(sequence);
+                    inFlight.decrementAndGet();
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+
+        // then
+        assertEquals(0, overlaps.get());
+        assertEquals(IntStream.range(0, 50).boxed().toList(), List.copyOf(order));
+    }
+}
@@ -0,0 +1,118 @@
+package com.challenge.connection;
+
+import com.challenge.metrics.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionSupervisorTest {
+
+    private static final ReconnectConfig FAST = new ReconnectConfig(5, 40);
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final AtomicInteger connects = new AtomicInteger();
+    private final AtomicInteger disconnects = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void backoffMillis_shouldDoubleUpToTheMaximum_withJitterInTheUpperHalf() {
+        // given
+        final var config = new ReconnectConfig(100, 1_000);
+        final var random = RandomGenerator.of("L64X128MixRandom");
+
+        // when
+        final var ceilings = List.of(100L, 200L, 400L, 800L, 1_000L, 1_000L);
+        final var delays = IntStream.range(0, ceilings.size())
+                .mapToObj(attempt -> IntStream.range(0, 1_000).mapToLong(i -> ConnectionSupervisor.backoffMillis(attempt, config, random)).summaryStatistics())
+                .toList();
+
+        // then
+        for (int attempt = 0; attempt < ceilings.size(); attempt++) {
+            final var ceiling = ceilings.get(attempt);
+            assertTrue(delays.get(attempt).getMin() >= ceiling / 2, "attempt " + attempt);
+            assertTrue(delays.get(attempt).getMax() <= ceiling, "attempt " + attempt);
+            assertTrue(delays.get(attempt).getMax() > delays.get(attempt).getMin(), "attempt " + attempt);
+        }
+    }
+
+    @Test
+    void start_shouldKeepRetryingInTheBackground_untilTheBrokerIsUp() throws InterruptedException {
+        // given
+        final var underTest = supervisor(() -> {
+            if (connects.incrementAndGet() < 3) throw new IllegalStateException("refused");
+        });
+
+        // when
+        final var readyAtStart = underTest.start();
+        final var stateAtStart = underTest.state();
+        final var ready = underTest.awaitReady(Duration.ofSeconds(5));
+
+        // then
+        assertFalse(readyAtStart);
+        assertEquals(ConnectionSupervisor.State.OPEN, stateAtStart);
+        assertTrue(ready);
+        assertEquals(3, connects.get());
+        assertEquals(2, disconnects.get());
+        assertTrue(metrics.notReady().isEmpty());
+    }
+
+    @Test
+    void reportFailure_shouldOpenTheCircuitOnce_andReconnect() throws InterruptedException {
+        // given
+        final var underTest = supervisor(connects::incrementAndGet);
+        underTest.start();
+
+        // when
+        underTest.reportFailure(new IllegalStateException("broker gone"));
+        underTest.reportFailure(new IllegalStateException("broker gone"));
+        final var readyAfterFailure = underTest.ready();
+        final var notReady = metrics.notReady();
+        final var ready = underTest.awaitReady(Duration.ofSeconds(5));
+
+        // then
+        assertFalse(readyAfterFailure);
+        assertEquals(List.of("jms-test"), notReady);
+        assertTrue(ready);
+        assertEquals(2, connects.get());
+        assertEquals(1, disconnects.get());
+    }
+
+    @Test
+    void close_shouldStopRetrying() throws InterruptedException {
+        // given
+        final var underTest = supervisor(() -> {
+            connects.incrementAndGet();
+            throw new IllegalStateException("refused");
+        });
+        underTest.start();
+
+        // when
+        underTest.close();
+        Thread.sleep(100);
+
+        // then
+        assertEquals(ConnectionSupervisor.State.CLOSED, underTest.state());
+        assertTrue(connects.get() <= 2);
+        assertFalse(underTest.awaitReady(Duration.ofMillis(10)));
+    }
+
+    private ConnectionSupervisor supervisor(final ConnectionSupervisor.Connector connector) {
+        return new ConnectionSupervisor("test", connector, disconnects::incrementAndGet, FAST, scheduler, metrics);
+    }
+}
@@ -0,0 +1,68 @@
+package com.challenge.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SensorRegistryTest {
+
+    private final SensorRegistry underTest = new SensorRegistry();
+
+    @Test
+    void id_shouldAssignDenseIds_perWarehouseSensorAndType() {
+        // when
+        final var t1 = underTest.id("WH-1", "t1", SensorType.TEMPERATURE);
+        final var h1 = underTest.id("WH-1", "t1", SensorType.HUMIDITY);
+        final var otherWarehouse = underTest.id("WH-2", "t1", SensorType.TEMPERATURE);
+        final var noWarehouse = underTest.id(null, "t1", SensorType.TEMPERATURE);
+        final var again = underTest.id("WH-1", "t1", SensorType.TEMPERATURE);
+
+        // then
+        assertEquals(0, t1);
+        assertEquals(1, h1);
+        assertEquals(2, otherWarehouse);
+        assertEquals(3, noWarehouse);
+        assertEquals(t1, again);
+        assertEquals(4, underTest.size());
+    }
+
+    @Test
+    void sensor_shouldResolveIds_andFindShouldNotAssign() {
+        // given
+        final var id = underTest.id("WH-1", "t1", SensorType.TEMPERATURE);
+
+        // when
+        final var sensor = underTest.sensor(id);
+        final var unknown = underTest.find("WH-1", "t2", SensorType.TEMPERATURE);
+
+        // then
+        assertEquals(new SensorRegistry.Sensor("WH-1", "t1", SensorType.TEMPERATURE), sensor);
+        assertEquals(id, underTest.find("WH-1", "t1", SensorType.TEMPERATURE));
+        assertEquals(SensorRegistry.UNKNOWN, unknown);
+        assertNull(underTest.sensor(1));
+        assertEquals(1, underTest.size());
+    }
+
+    @Test
+    void id_shouldHandOutEachIdOnce_underConcurrentFirstSightings() {
+        // given
+        final var sensors = 5_000;
+        final var seen = ConcurrentHashMap.<Integer>newKeySet();
+
+        // when
+        IntStream.range(0, sensors * 4).parallel()
+                .forEach(i -> seen.add(underTest.id("WH-1", "s" + (i % sensors), SensorType.TEMPERATURE)));
+
+        // then
+        assertEquals(sensors, underTest.size());
+        assertEquals(sensors, seen.size());
+        assertEquals(Set.copyOf(IntStream.range(0, sensors).boxed().toList()), seen);
+        IntStream.range(0, sensors).forEach(id -> assertEquals(id, underTest.id(underTest.sensor(id).warehouseId(),
+                underTest.sensor(id).sensorId(), SensorType.TEMPERATURE)));
+    }
+}
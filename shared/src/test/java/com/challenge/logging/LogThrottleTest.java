@@ -0,0 +1,50 @@
+package com.challenge.logging;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogThrottleTest {
+
+    @Test
+    void sample_shouldAllowOnlyTheConfiguredExamplesPerInterval() {
+        // given
+        final var underTest = new LogThrottle(LoggerFactory.getLogger(LogThrottleTest.class), Level.WARN, "test line", Duration.ofHours(1), 3);
+
+        // when
+        final var sampled = IntStream.range(0, 1_000).filter(i -> underTest.sample()).count();
+
+        // then
+        assertEquals(3, sampled);
+    }
+
+    @Test
+    void sample_shouldStartANewWindow_onceTheIntervalHasPassed() throws InterruptedException {
+        // given
+        final var underTest = new LogThrottle(LoggerFactory.getLogger(LogThrottleTest.class), Level.WARN, "test line", Duration.ofMillis(20), 1);
+        assertTrue(underTest.sample());
+        assertFalse(underTest.sample());
+
+        // when
+        Thread.sleep(40);
+
+        // then
+        assertTrue(underTest.sample());
+    }
+
+    @Test
+    void sample_shouldSuppressEverything_whenLevelIsDisabled() {
+        // given
+        final var underTest = new LogThrottle(LoggerFactory.getLogger(LogThrottleTest.class), Level.TRACE, "test line");
+
+        // when / then
+        assertFalse(underTest.sample());
+    }
+}
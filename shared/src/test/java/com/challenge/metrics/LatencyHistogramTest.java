@@ -0,0 +1,66 @@
+package com.challenge.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketBounds_shouldCoverEveryValueWithinRelativeError() {
+        // given
+        final var values = LongStream.concat(LongStream.range(0, 5_000), LongStream.of(1_000_003, 987_654_321, Long.MAX_VALUE));
+
+        // when / then
+        values.forEach(value -> {
+            final var upper = LatencyHistogram.highestEquivalent(LatencyHistogram.index(value));
+            assertTrue(upper >= value, "upper bound below value " + value);
+            assertTrue(upper - value <= value / 16, "bucket too wide for " + value);
+        });
+    }
+
+    @Test
+    void valueAtQuantile_shouldReportRecordedDistribution() {
+        // given
+        final var underTest = new LatencyHistogram();
+
+        // when
+        LongStream.rangeClosed(1, 1_000).forEach(i -> underTest.record(i * 1_000));
+
+        // then
+        assertEquals(1_000, underTest.count());
+        assertEquals(1_000_000, underTest.maxNanos());
+        assertEquals(500_000, underTest.valueAtQuantile(0.5), 500_000 / 16.0);
+        assertEquals(990_000, underTest.valueAtQuantile(0.99), 990_000 / 16.0);
+        assertEquals(1_000_000, underTest.valueAtQuantile(1.0));
+    }
+
+    @Test
+    void valueAtQuantile_shouldBeZero_whenEmpty() {
+        // given
+        final var underTest = new LatencyHistogram();
+
+        // when / then
+        assertEquals(0, underTest.valueAtQuantile(0.99));
+    }
+
+    @Test
+    void snapshotSince_shouldReportOnlyValuesRecordedInBetween() {
+        // given
+        final var underTest = new LatencyHistogram();
+        underTest.record(5_000_000_000L);
+        final var before = underTest.snapshot();
+
+        // when
+        LongStream.rangeClosed(1, 1_000).forEach(i -> underTest.record(i * 1_000));
+        final var delta = underTest.snapshot().since(before);
+
+        // then
+        assertEquals(1_000, delta.count());
+        assertEquals(1_000_000, delta.maxNanos(), 1_000_000 / 16.0);
+        assertEquals(990_000, delta.valueAtQuantile(0.999), 990_000 / 16.0);
+    }
+}
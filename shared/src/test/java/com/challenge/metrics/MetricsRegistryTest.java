@@ -0,0 +1,46 @@
+package com.challenge.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsRegistryTest {
+
+    @Test
+    void scrape_shouldRenderPrometheusTextFormat() {
+        // given
+        final var underTest = new MetricsRegistry();
+        underTest.counter("udp_packets_total", "Packets", "type", "temperature").add(3);
+        underTest.counter("udp_packets_total", "Packets", "type", "humidity").increment();
+        underTest.gauge("queue_depth", "Depth", () -> 7);
+        underTest.histogram("parse_seconds", "Parse time").record(2_000_000);
+
+        // when
+        final var text = underTest.scrape();
+
+        // then
+        assertTrue(text.contains("# TYPE udp_packets_total counter\n"));
+        assertTrue(text.contains("udp_packets_total{type=\"temperature\"} 3\n"));
+        assertTrue(text.contains("udp_packets_total{type=\"humidity\"} 1\n"));
+        assertTrue(text.contains("queue_depth 7\n"));
+        assertTrue(text.contains("# TYPE parse_seconds summary\n"));
+        assertTrue(text.contains("parse_seconds{quantile=\"0.99\"} 0.002\n"));
+        assertTrue(text.contains("parse_seconds_count 1\n"));
+    }
+
+    @Test
+    void counter_shouldReturnExistingSeries_whenRegisteredTwice() {
+        // given
+        final var underTest = new MetricsRegistry();
+
+        // when
+        final var first = underTest.counter("alarms_total", "Alarms");
+        final var second = underTest.counter("alarms_total", "Alarms");
+
+        // then
+        assertSame(first, second);
+        assertThrows(IllegalArgumentException.class, () -> underTest.histogram("alarms_total", "Alarms"));
+    }
+}
@@ -0,0 +1,200 @@
+package com.challenge.serialization;
+
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryMeasurementCodecTest {
+
+    private final BinaryMeasurementCodec underTest = new BinaryMeasurementCodec();
+
+    @Test
+    void decode_shouldRoundTripEncodedMeasurement() {
+        // given
+        final var measurement = new Measurement("WH-1", "t1", SensorType.HUMIDITY, -42, 1_700_000_000_123L);
+
+        // when
+        final var result = underTest.decode(underTest.encode(measurement));
+
+        // then
+        assertEquals(measurement, result);
+    }
+
+    @Test
+    void decode_shouldRoundTripNullWarehouseId() {
+        // given
+        final var measurement = new Measurement(null, "t1", SensorType.TEMPERATURE, 30, 1L);
+
+        // when
+        final var result = underTest.decode(underTest.encode(measurement));
+
+        // then
+        assertEquals(measurement, result);
+    }
+
+    @Test
+    void encode_shouldBeSmallerThanJson() {
+        // given
+        final var measurement = new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 30, 1_700_000_000_000L);
+
+        // when
+        final var binary = underTest.encode(measurement);
+        final var json = new MeasurementJsonMapper().encode(measurement);
+
+        // then
+        assertEquals(BinaryMeasurementCodec.FIXED_BYTES + 4 + 2, binary.length);
+        assertTrue(binary.length * 3 < json.length);
+    }
+
+    @Test
+    void decode_shouldReject_truncatedPayload() {
+        // given
+        final var encoded = underTest.encode(new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 30, 1L));
+
+        // when / then
+        assertThrows(IllegalArgumentException.class, () -> underTest.decode(Arrays.copyOf(encoded, encoded.length - 1)));
+    }
+
+    @Test
+    void decode_shouldReject_unknownVersion() {
+        // given
+        final var encoded = underTest.encode(new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 30, 1L));
+        encoded[0] = 9;
+
+        // when / then
+        assertThrows(IllegalArgumentException.class, () -> underTest.decode(encoded));
+    }
+
+    @Test
+    void decodeEnvelope_shouldRoundTripMeasurementsInOrder() {
+        // given
+        final var measurements = List.of(
+                new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 30, 1L),
+                new Measurement("WH-1", "h1", SensorType.HUMIDITY, 55, 2L),
+                new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 31, 3L)
+        );
+
+        // when
+        final var binary = underTest.decodeEnvelope(underTest.encodeEnvelope(measurements));
+        final var json = new MeasurementJsonMapper();
+        final var fromJson = json.decodeEnvelope(json.encodeEnvelope(measurements));
+
+        // then
+        assertEquals(measurements, binary);
+        assertEquals(measurements, fromJson);
+    }
+
+    @Test
+    void encodeEnvelope_shouldWriteWarehouseIdOnce() {
+        // given
+        final var measurements = List.of(
+                new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 30, 1L),
+                new Measurement("WH-1", "t2", SensorType.TEMPERATURE, 31, 2L)
+        );
+
+        // when
+        final var envelope = underTest.encodeEnvelope(measurements);
+
+        // then
+        final var singles = measurements.stream().mapToInt(m -> underTest.encode(m).length).sum();
+        assertTrue(envelope.length < singles);
+    }
+
+    @Test
+    void encodeEnvelope_shouldWriteEachSensorOnce() {
+        // given
+        final var measurements = IntStream.range(0, 100)
+                .mapToObj(i -> new Measurement("WH-1", i % 2 == 0 ? "t1" : "h1", i % 2 == 0 ? SensorType.TEMPERATURE : SensorType.HUMIDITY, i, i))
+                .toList();
+
+        // when
+        final var envelope = underTest.encodeEnvelope(measurements);
+        final var decoded = underTest.decodeEnvelope(envelope);
+
+        // then
+        assertEquals(BinaryMeasurementCodec.ENVELOPE_FIXED_BYTES + 4 + 2 * (BinaryMeasurementCodec.ENVELOPE_SENSOR_FIXED_BYTES + 2)
+                + 100 * BinaryMeasurementCodec.ENVELOPE_ENTRY_BYTES, envelope.length);
+        assertEquals(measurements, decoded);
+        assertSame(decoded.get(0).sensorId(), decoded.get(2).sensorId());
+    }
+
+    @Test
+    void decodeEnvelope_shouldReadVersion1Envelopes() {
+        // given
+        final var legacy = ByteBuffer.allocate(1 + 2 + 4 + 4 + 2 * (1 + 4 + 8 + 2 + 2))
+                .put((byte) 1)
+                .putShort((short) 4).put("WH-1".getBytes(StandardCharsets.UTF_8))
+                .putInt(2)
+                .put((byte) SensorType.TEMPERATURE.ordinal()).putInt(30).putLong(1L).putShort((short) 2).put("t1".getBytes(StandardCharsets.UTF_8))
+                .put((byte) SensorType.HUMIDITY.ordinal()).putInt(55).putLong(2L).putShort((short) 2).put("h1".getBytes(StandardCharsets.UTF_8))
+                .array();
+
+        // when
+        final var decoded = underTest.decodeEnvelope(legacy);
+
+        // then
+        assertEquals(List.of(
+                new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 30, 1L),
+                new Measurement("WH-1", "h1", SensorType.HUMIDITY, 55, 2L)
+        ), decoded);
+    }
+
+    @Test
+    void decodeEnvelope_shouldReject_sensorIndexOutsideTable() {
+        // given
+        final var encoded = underTest.encodeEnvelope(List.of(
+                new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 30, 1L),
+                new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 31, 2L),
+                new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 32, 3L)));
+        // The first entry's index, right after the one-sensor table.
+        encoded[BinaryMeasurementCodec.ENVELOPE_FIXED_BYTES + 4 + BinaryMeasurementCodec.ENVELOPE_SENSOR_FIXED_BYTES + 2 + 1] = 1;
+
+        // when / then
+        assertThrows(IllegalArgumentException.class, () -> underTest.decodeEnvelope(encoded));
+    }
+
+    @Test
+    void encodeEnvelope_shouldReject_mixedWarehouses() {
+        // given
+        final var measurements = List.of(
+                new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 30, 1L),
+                new Measurement("WH-2", "t1", SensorType.TEMPERATURE, 30, 1L)
+        );
+
+        // when / then
+        assertThrows(IllegalArgumentException.class, () -> underTest.encodeEnvelope(measurements));
+    }
+
+    @Test
+    void decodeEnvelope_shouldReject_countLargerThanPayload() {
+        // given
+        final var encoded = underTest.encodeEnvelope(List.of(new Measurement("WH-1", "t1", SensorType.TEMPERATURE, 30, 1L)));
+        encoded[1 + 2 + 4 + 3] = 100;
+
+        // when / then
+        assertThrows(IllegalArgumentException.class, () -> underTest.decodeEnvelope(encoded));
+    }
+
+    @Test
+    void codecs_shouldFallBackToJson_whenContentTypeMissing() {
+        // given
+        final var json = new MeasurementJsonMapper();
+        final var codecs = new MeasurementCodecs(json, underTest);
+
+        // when / then
+        assertEquals(json, codecs.forContentType(null).orElseThrow());
+        assertEquals(underTest, codecs.forContentType(BinaryMeasurementCodec.CONTENT_TYPE).orElseThrow());
+        assertTrue(codecs.forContentType("text/unknown").isEmpty());
+    }
+}
@@ -1,14 +1,33 @@
 package com.challenge;
 
+import com.challenge.concurrent.TaskDispatcher;
+import com.challenge.config.PublisherConfig;
 import com.challenge.config.WarehouseConfig;
 import com.challenge.consumer.UdpMeasurementListener;
+import com.challenge.domain.SensorRegistry;
 import com.challenge.domain.SensorType;
+import com.challenge.edge.AdmissionController;
+import com.challenge.edge.DeadbandFilter;
+import com.challenge.edge.PreAggregator;
+import com.challenge.metrics.MetricsRegistry;
+import com.challenge.metrics.MetricsServer;
 import com.challenge.parser.MeasurementParser;
+import com.challenge.publisher.AsyncMeasurementPublisher;
 import com.challenge.publisher.JmsMeasurementPublisher;
+import com.challenge.publisher.MeasurementPublisher;
+import com.challenge.serialization.BinaryMeasurementCodec;
+import com.challenge.serialization.MeasurementCodec;
 import com.challenge.serialization.MeasurementJsonMapper;
+import com.challenge.spool.MeasurementSpool;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.IntSupplier;
+
 /**
  * Hello world!
  *
@@ -20,20 +39,28 @@ public class WarehouseApplication {
     public static void main(String[] args) {
         final var warehouseConfig = WarehouseConfig.load();
 
-        final var mapper = new MeasurementJsonMapper();
-        final var publisher = new JmsMeasurementPublisher(warehouseConfig.brokerUrl(), warehouseConfig.destinationName(), mapper);
+        final var dispatcher = new TaskDispatcher(warehouseConfig.execution(), "warehouse-dispatch");
+        final var metrics = new MetricsRegistry();
+        final var sensors = new SensorRegistry();
+        final var publisher = createPipeline(warehouseConfig, dispatcher, sensors, metrics);
 
-        final var parser = new MeasurementParser(warehouseConfig.warehouseId());
-        final var tempListener = new UdpMeasurementListener(warehouseConfig.temperaturePort(), parser, SensorType.TEMPERATURE, publisher);
-        final var humListener = new UdpMeasurementListener(warehouseConfig.humidityPort(), parser, SensorType.HUMIDITY, publisher);
+        final var parser = new MeasurementParser(warehouseConfig.warehouseId(), sensors);
+        final var tempListener = new UdpMeasurementListener(warehouseConfig.temperaturePort(), parser, SensorType.TEMPERATURE, publisher, warehouseConfig.udpIngest(), dispatcher, metrics);
+        final var humListener = new UdpMeasurementListener(warehouseConfig.humidityPort(), parser, SensorType.HUMIDITY, publisher, warehouseConfig.udpIngest(), dispatcher, metrics);
+        final var metricsServer = startMetricsServer(warehouseConfig.metricsPort(), metrics);
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             logger.info("Shutting down warehouse-service");
+            if (metricsServer != null) metricsServer.close();
             try {
                 tempListener.close();
                 humListener.close();
             } catch (Exception ignored) {
             }
+            try {
+                dispatcher.close();
+            } catch (Exception ignored) {
+            }
             try {
                 publisher.close();
             } catch (Exception ignored) {
@@ -49,14 +76,84 @@ public class WarehouseApplication {
                        '--'   '--' `--`--'`--'    `----'`--' `--' `---'  `----' `----'  `----'    `-----'  `----'`--'      `--'   `--' `---' `----'\s
                 \s""");
 
-        logger.info("warehouse-service started. temperatureUdpPort={} humidityUdpPort={} warehouseId={} brokerUrl={} destination={}",
-                warehouseConfig.temperaturePort(), warehouseConfig.humidityPort(), warehouseConfig.warehouseId(), warehouseConfig.brokerUrl(), warehouseConfig.destinationName());
+        logger.info("warehouse-service started. temperatureUdpPort={} humidityUdpPort={} warehouseId={} brokerUrl={} destination={} udpIngest={} publisher={} spool={} reconnect={} execution={} admission={} deadband={} preAggregation={} alarmThresholds={}",
+                warehouseConfig.temperaturePort(), warehouseConfig.humidityPort(), warehouseConfig.warehouseId(), warehouseConfig.brokerUrl(), warehouseConfig.destinationName(), warehouseConfig.udpIngest(), warehouseConfig.publisher(), warehouseConfig.spool(), warehouseConfig.reconnect(), warehouseConfig.execution(), warehouseConfig.admission(), warehouseConfig.deadband(), warehouseConfig.preAggregation(), warehouseConfig.alarmThresholds());
 
         tempListener.start();
         humListener.start();
         keepAlive();
     }
 
+    /**
+     * Builds the publisher with the edge stages {@code warehouseConfig} enables in front of it, as this service runs
+     * it; the load-test module drives the same chain.
+     */
+    public static MeasurementPublisher createPipeline(@NotNull final WarehouseConfig warehouseConfig, @NotNull final TaskDispatcher dispatcher,
+                                                      @NotNull final SensorRegistry sensors, @NotNull final MetricsRegistry metrics) {
+        final MeasurementCodec codec = switch (warehouseConfig.publisher().wireFormat()) {
+            case JSON -> new MeasurementJsonMapper();
+            case BINARY -> new BinaryMeasurementCodec();
+        };
+        return withPreAggregation(warehouseConfig,
+                withDeadband(warehouseConfig, createPublisher(warehouseConfig, codec, dispatcher, sensors, metrics), sensors, metrics), sensors, metrics);
+    }
+
+    private static MeasurementPublisher createPublisher(final WarehouseConfig warehouseConfig, final MeasurementCodec codec, final TaskDispatcher dispatcher,
+                                                        final SensorRegistry sensors, final MetricsRegistry metrics) {
+        final var publisherConfig = warehouseConfig.publisher();
+        final var async = publisherConfig.mode() == PublisherConfig.PublishMode.ASYNC;
+
+        final var spoolConfig = warehouseConfig.spool();
+        final var spool = spoolConfig.enabled()
+                ? new MeasurementSpool(Path.of(spoolConfig.directory()), spoolConfig.segmentBytes(), spoolConfig.maxSegments())
+                : null;
+
+        final var jmsPublisher = new JmsMeasurementPublisher(warehouseConfig.brokerUrl(), warehouseConfig.destinationName(), codec, async, publisherConfig.envelopeSize(),
+                publisherConfig.connections(), spool, Duration.ofMillis(spoolConfig.drainIntervalMillis()), warehouseConfig.reconnect(), metrics);
+        if (!async) return withAdmission(warehouseConfig, jmsPublisher, () -> 0, 1, sensors, metrics);
+
+        final var asyncPublisher = new AsyncMeasurementPublisher(jmsPublisher, publisherConfig, dispatcher.threadFactory("warehouse-jms-sender"));
+        asyncPublisher.start();
+        metrics.gauge("warehouse_publish_queue_depth", "Readings waiting in the async publish queue", asyncPublisher::queueDepth);
+        return withAdmission(warehouseConfig, asyncPublisher, asyncPublisher::queueDepth, publisherConfig.queueCapacity(), sensors, metrics);
+    }
+
+    private static MeasurementPublisher withAdmission(final WarehouseConfig warehouseConfig, final MeasurementPublisher publisher,
+                                                      final IntSupplier queueDepth, final int queueCapacity, final SensorRegistry sensors,
+                                                      final MetricsRegistry metrics) {
+        if (!warehouseConfig.admission().enabled()) return publisher;
+        return new AdmissionController(publisher, warehouseConfig.admission(), warehouseConfig.alarmThresholds(), sensors, queueDepth, queueCapacity, metrics);
+    }
+
+    private static MeasurementPublisher withDeadband(final WarehouseConfig warehouseConfig, final MeasurementPublisher publisher, final SensorRegistry sensors,
+                                                     final MetricsRegistry metrics) {
+        if (!warehouseConfig.deadband().enabled()) return publisher;
+        return new DeadbandFilter(publisher, warehouseConfig.deadband(), warehouseConfig.alarmThresholds(), sensors, metrics);
+    }
+
+    private static MeasurementPublisher withPreAggregation(final WarehouseConfig warehouseConfig, final MeasurementPublisher publisher, final SensorRegistry sensors,
+                                                           final MetricsRegistry metrics) {
+        if (!warehouseConfig.preAggregation().enabled()) return publisher;
+
+        final var preAggregator = new PreAggregator(publisher, warehouseConfig.preAggregation(), warehouseConfig.warehouseId(),
+                warehouseConfig.alarmThresholds(), sensors, metrics);
+        preAggregator.start();
+        return preAggregator;
+    }
+
+    private static @Nullable MetricsServer startMetricsServer(final int port, final MetricsRegistry metrics) {
+        if (port <= 0) return null;
+
+        try {
+            final var server = new MetricsServer(port, metrics);
+            server.start();
+            return server;
+        } catch (final Exception ex) {
+            logger.warn("Unable to start metrics endpoint on port {}. error={}", port, ex.toString());
+            return null;
+        }
+    }
+
     private static void keepAlive() {
         try {
             Thread.currentThread().join();
@@ -0,0 +1,28 @@
+package com.challenge.config;
+
+public record AdmissionConfig(
+        boolean enabled,
+        ShedPolicy policy,
+        int queueHighPercent,
+        int queueLowPercent,
+        int latencyHighMillis,
+        int sampleEvery
+) {
+    /**
+     * What survives while shedding. Readings above the alarm threshold are always kept.
+     */
+    public enum ShedPolicy {
+        /**
+         * Keep a reading only when its value differs from the sensor's previous reading.
+         */
+        CHANGED,
+        /**
+         * Keep every {@code sampleEvery}-th reading of each sensor.
+         */
+        SAMPLE
+    }
+
+    public static AdmissionConfig defaults() {
+        return new AdmissionConfig(false, ShedPolicy.CHANGED, 80, 50, 50, 10);
+    }
+}
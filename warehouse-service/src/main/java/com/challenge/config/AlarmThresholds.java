@@ -0,0 +1,22 @@
+package com.challenge.config;
+
+import com.challenge.domain.SensorType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Mirror of central-service's global alarm thresholds, read from the same environment variables. Edge stages use it to
+ * never hold back a reading that could raise or clear an alarm; sensor-specific rules live in central-service only.
+ */
+public record AlarmThresholds(int temperature, int humidity) {
+
+    public static AlarmThresholds defaults() {
+        return new AlarmThresholds(35, 50);
+    }
+
+    public int of(@NotNull final SensorType type) {
+        return switch (type) {
+            case TEMPERATURE -> temperature;
+            case HUMIDITY -> humidity;
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package com.challenge.config;
+
+public record DeadbandConfig(
+        boolean enabled,
+        int delta,
+        int heartbeatMillis
+) {
+    public static DeadbandConfig defaults() {
+        return new DeadbandConfig(false, 0, 60_000);
+    }
+}
@@ -0,0 +1,10 @@
+package com.challenge.config;
+
+public record PreAggregationConfig(
+        boolean enabled,
+        int intervalMillis
+) {
+    public static PreAggregationConfig defaults() {
+        return new PreAggregationConfig(false, 10_000);
+    }
+}
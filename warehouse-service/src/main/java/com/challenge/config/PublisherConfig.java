@@ -0,0 +1,28 @@
+package com.challenge.config;
+
+public record PublisherConfig(
+        PublishMode mode,
+        int queueCapacity,
+        int flushSize,
+        int lingerMillis,
+        OverflowPolicy overflowPolicy,
+        WireFormat wireFormat,
+        int envelopeSize,
+        int connections
+) {
+    public enum PublishMode {
+        SYNC, ASYNC
+    }
+
+    public enum OverflowPolicy {
+        BLOCK, DROP_OLDEST, DROP_NEWEST
+    }
+
+    public enum WireFormat {
+        JSON, BINARY
+    }
+
+    public static PublisherConfig defaults() {
+        return new PublisherConfig(PublishMode.SYNC, 65_536, 256, 5, OverflowPolicy.BLOCK, WireFormat.JSON, 1, 1);
+    }
+}
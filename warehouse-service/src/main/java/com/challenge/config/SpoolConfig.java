@@ -0,0 +1,21 @@
+package com.challenge.config;
+
+import java.nio.file.Path;
+
+public record SpoolConfig(
+        boolean enabled,
+        String directory,
+        int segmentBytes,
+        int maxSegments,
+        int drainIntervalMillis
+) {
+    public static SpoolConfig defaults() {
+        return new SpoolConfig(
+                false,
+                Path.of(System.getProperty("java.io.tmpdir"), "warehouse-spool").toString(),
+                64 * 1024 * 1024,
+                16,
+                1_000
+        );
+    }
+}
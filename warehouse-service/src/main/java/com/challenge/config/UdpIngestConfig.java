@@ -0,0 +1,15 @@
+package com.challenge.config;
+
+public record UdpIngestConfig(
+        UdpIngestMode mode,
+        int readerThreads,
+        int receiveBufferBytes
+) {
+    public enum UdpIngestMode {
+        BLOCKING, NIO
+    }
+
+    public static UdpIngestConfig defaults() {
+        return new UdpIngestConfig(UdpIngestMode.BLOCKING, 1, 0);
+    }
+}
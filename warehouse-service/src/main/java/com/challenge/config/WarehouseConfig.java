@@ -1,11 +1,25 @@
 package com.challenge.config;
 
+import com.challenge.concurrent.ExecutionConfig;
+import com.challenge.concurrent.ExecutionMode;
+import com.challenge.connection.ReconnectConfig;
+
 public record WarehouseConfig(
         String brokerUrl,
         String destinationName,
         int temperaturePort,
         int humidityPort,
-        String warehouseId
+        String warehouseId,
+        UdpIngestConfig udpIngest,
+        PublisherConfig publisher,
+        SpoolConfig spool,
+        ReconnectConfig reconnect,
+        ExecutionConfig execution,
+        AdmissionConfig admission,
+        DeadbandConfig deadband,
+        PreAggregationConfig preAggregation,
+        AlarmThresholds alarmThresholds,
+        int metricsPort
 ) {
     public static WarehouseConfig load() {
         final var brokerUrl = readEnv("BROKER_URL", "tcp://localhost:61616");
@@ -13,7 +27,80 @@ public record WarehouseConfig(
         final var udpTemperaturePort = readIntEnv("UDP_TEMPERATURE_PORT", 3344);
         final var udpHumidityPort = readIntEnv("UDP_HUMIDITY_PORT", 3355);
         final var warehouseId = readEnv("WAREHOUSE_ID", "WH-1");
-        return new WarehouseConfig(brokerUrl, destinationName, udpTemperaturePort, udpHumidityPort, warehouseId);
+
+        final var udpIngest = new UdpIngestConfig(
+                readEnumEnv("UDP_INGEST_MODE", UdpIngestConfig.UdpIngestMode.class, UdpIngestConfig.UdpIngestMode.BLOCKING),
+                readIntEnv("UDP_READER_THREADS", 1),
+                readIntEnv("UDP_RECEIVE_BUFFER_BYTES", 0)
+        );
+
+        final var publisherDefaults = PublisherConfig.defaults();
+        final var publisher = new PublisherConfig(
+                readEnumEnv("PUBLISH_MODE", PublisherConfig.PublishMode.class, publisherDefaults.mode()),
+                readIntEnv("PUBLISH_QUEUE_CAPACITY", publisherDefaults.queueCapacity()),
+                readIntEnv("PUBLISH_FLUSH_SIZE", publisherDefaults.flushSize()),
+                readIntEnv("PUBLISH_LINGER_MS", publisherDefaults.lingerMillis()),
+                readEnumEnv("PUBLISH_OVERFLOW_POLICY", PublisherConfig.OverflowPolicy.class, publisherDefaults.overflowPolicy()),
+                readEnumEnv("WIRE_FORMAT", PublisherConfig.WireFormat.class, publisherDefaults.wireFormat()),
+                readIntEnv("PUBLISH_ENVELOPE_SIZE", publisherDefaults.envelopeSize()),
+                readIntEnv("PUBLISH_CONNECTIONS", publisherDefaults.connections())
+        );
+
+        final var spoolDefaults = SpoolConfig.defaults();
+        final var spool = new SpoolConfig(
+                readBooleanEnv("SPOOL_ENABLED", spoolDefaults.enabled()),
+                readEnv("SPOOL_DIR", spoolDefaults.directory()),
+                readIntEnv("SPOOL_SEGMENT_BYTES", spoolDefaults.segmentBytes()),
+                readIntEnv("SPOOL_MAX_SEGMENTS", spoolDefaults.maxSegments()),
+                readIntEnv("SPOOL_DRAIN_INTERVAL_MS", spoolDefaults.drainIntervalMillis())
+        );
+
+        final var executionDefaults = ExecutionConfig.defaults();
+        final var execution = new ExecutionConfig(
+                readEnumEnv("EXECUTION_MODE", ExecutionMode.class, executionDefaults.mode()),
+                readIntEnv("EXECUTION_MAX_CONCURRENCY", executionDefaults.maxConcurrency())
+        );
+
+        final var admissionDefaults = AdmissionConfig.defaults();
+        final var admission = new AdmissionConfig(
+                readBooleanEnv("SHED_ENABLED", admissionDefaults.enabled()),
+                readEnumEnv("SHED_POLICY", AdmissionConfig.ShedPolicy.class, admissionDefaults.policy()),
+                readIntEnv("SHED_QUEUE_HIGH_PERCENT", admissionDefaults.queueHighPercent()),
+                readIntEnv("SHED_QUEUE_LOW_PERCENT", admissionDefaults.queueLowPercent()),
+                readIntEnv("SHED_LATENCY_HIGH_MS", admissionDefaults.latencyHighMillis()),
+                readIntEnv("SHED_SAMPLE_EVERY", admissionDefaults.sampleEvery())
+        );
+
+        final var deadbandDefaults = DeadbandConfig.defaults();
+        final var deadband = new DeadbandConfig(
+                readBooleanEnv("DEADBAND_ENABLED", deadbandDefaults.enabled()),
+                readIntEnv("DEADBAND_DELTA", deadbandDefaults.delta()),
+                readIntEnv("DEADBAND_HEARTBEAT_MS", deadbandDefaults.heartbeatMillis())
+        );
+
+        final var preAggregationDefaults = PreAggregationConfig.defaults();
+        final var preAggregation = new PreAggregationConfig(
+                readBooleanEnv("PREAGGREGATE_ENABLED", preAggregationDefaults.enabled()),
+                readIntEnv("PREAGGREGATE_INTERVAL_MS", preAggregationDefaults.intervalMillis())
+        );
+
+        final var reconnectDefaults = ReconnectConfig.defaults();
+        final var reconnect = new ReconnectConfig(
+                readIntEnv("RECONNECT_INITIAL_MS", reconnectDefaults.initialDelayMillis()),
+                readIntEnv("RECONNECT_MAX_MS", reconnectDefaults.maxDelayMillis())
+        );
+
+        // Same properties, variables and parsing as central-service, so one setting keeps both sides in step.
+        final var thresholdDefaults = AlarmThresholds.defaults();
+        final var alarmThresholds = new AlarmThresholds(
+                readThreshold("temperature.threshold", "TEMPERATURE_THRESHOLD", thresholdDefaults.temperature()),
+                readThreshold("humidity.threshold", "HUMIDITY_THRESHOLD", thresholdDefaults.humidity())
+        );
+
+        // 0 (the default) leaves the metrics endpoint off.
+        final var metricsPort = readIntEnv("METRICS_PORT", 0);
+
+        return new WarehouseConfig(brokerUrl, destinationName, udpTemperaturePort, udpHumidityPort, warehouseId, udpIngest, publisher, spool, reconnect, execution, admission, deadband, preAggregation, alarmThresholds, metricsPort);
     }
 
     private static String readEnv(final String name, final String defaultValue) {
@@ -32,4 +119,33 @@ public record WarehouseConfig(
             return defaultValue;
         }
     }
+
+    // Thresholds may be zero or negative (cold chain), so unlike readIntEnv only unparseable values fall back.
+    private static int readThreshold(final String propertyName, final String envName, final int defaultValue) {
+        final var property = System.getProperty(propertyName);
+        final var value = property == null || property.isBlank() ? System.getenv(envName) : property;
+        if (value == null || value.isBlank()) return defaultValue;
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (Exception ignored) {
+            return defaultValue;
+        }
+    }
+
+    private static boolean readBooleanEnv(final String name, final boolean defaultValue) {
+        final var value = System.getenv(name);
+        return (value == null || value.isBlank()) ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    private static <E extends Enum<E>> E readEnumEnv(final String name, final Class<E> type, final E defaultValue) {
+        final var value = System.getenv(name);
+        if (value == null || value.isBlank()) return defaultValue;
+
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (Exception ignored) {
+            return defaultValue;
+        }
+    }
 }
@@ -0,0 +1,30 @@
+package com.challenge.consumer;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps direct buffers alive across reader restarts so the channel loop never allocates off-heap memory per packet.
+ */
+public class DirectBufferPool {
+
+    private final int bufferSize;
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+
+    public DirectBufferPool(final int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public ByteBuffer acquire() {
+        final var buffer = free.poll();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public void release(@NotNull final ByteBuffer buffer) {
+        if (buffer.isDirect() && buffer.capacity() == bufferSize) {
+            free.offer(buffer.clear());
+        }
+    }
+}
@@ -1,80 +1,238 @@
 package com.challenge.consumer;
 
+import com.challenge.concurrent.ExecutionConfig;
+import com.challenge.concurrent.TaskDispatcher;
+import com.challenge.config.UdpIngestConfig;
 import com.challenge.domain.SensorType;
+import com.challenge.logging.LogThrottle;
+import com.challenge.metrics.Counter;
+import com.challenge.metrics.LatencyHistogram;
+import com.challenge.metrics.MetricsRegistry;
 import com.challenge.parser.MeasurementParser;
-import com.challenge.publisher.JmsMeasurementPublisher;
+import com.challenge.publisher.MeasurementPublisher;
+import com.challenge.publisher.TracedMeasurement;
+import com.challenge.trace.TraceStamps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class UdpMeasurementListener implements AutoCloseable {
 
     private static final int MAX_UDP_PAYLOAD = 512;
+    private static final int RECEIVE_BUFFER_SIZE = 2048;
     private static final Logger logger = LoggerFactory.getLogger(UdpMeasurementListener.class);
 
     private final int port;
     private final MeasurementParser parser;
-    private final JmsMeasurementPublisher publisher;
+    private final MeasurementPublisher publisher;
     private final SensorType sensorType;
+    private final UdpIngestConfig ingestConfig;
+    private final TaskDispatcher dispatcher;
+    private final DirectBufferPool bufferPool = new DirectBufferPool(RECEIVE_BUFFER_SIZE);
+
+    private final Counter packetsReceived;
+    private final Counter packetsOversized;
+    private final Counter packetsMalformed;
+    private final LatencyHistogram parseTime;
+    private final LogThrottle oversizedLog;
+    private final LogThrottle malformedLog;
 
     private final AtomicBoolean running = new AtomicBoolean(false);
+    private final List<Selector> selectors = new CopyOnWriteArrayList<>();
+    private final List<DatagramChannel> channels = new CopyOnWriteArrayList<>();
     private DatagramSocket socket;
 
-    public UdpMeasurementListener(final int port, final MeasurementParser parser, SensorType sensorType, final JmsMeasurementPublisher publisher) {
+    public UdpMeasurementListener(final int port, final MeasurementParser parser, SensorType sensorType, final MeasurementPublisher publisher) {
+        this(port, parser, sensorType, publisher, UdpIngestConfig.defaults());
+    }
+
+    public UdpMeasurementListener(final int port, final MeasurementParser parser, SensorType sensorType, final MeasurementPublisher publisher,
+                                  final UdpIngestConfig ingestConfig) {
+        this(port, parser, sensorType, publisher, ingestConfig, new TaskDispatcher(ExecutionConfig.defaults(), "udp-dispatch"), new MetricsRegistry());
+    }
+
+    /**
+     * @param dispatcher runs each publish call on the sensor's serial lane, so the edge stages see one sensor's readings
+     *                   one at a time and in order; parsing always stays on the reader because the receive buffer is reused.
+     */
+    public UdpMeasurementListener(final int port, final MeasurementParser parser, SensorType sensorType, final MeasurementPublisher publisher,
+                                  final UdpIngestConfig ingestConfig, final TaskDispatcher dispatcher, final MetricsRegistry metrics) {
         this.port = port;
         this.parser = parser;
         this.publisher = publisher;
         this.sensorType = sensorType;
+        this.ingestConfig = ingestConfig;
+        this.dispatcher = dispatcher;
+
+        final var type = sensorType.name().toLowerCase();
+        this.packetsReceived = metrics.counter("warehouse_udp_packets_received_total", "UDP datagrams received", "type", type);
+        this.packetsOversized = metrics.counter("warehouse_udp_packets_oversized_total", "UDP datagrams dropped for exceeding the max payload", "type", type);
+        this.packetsMalformed = metrics.counter("warehouse_udp_packets_malformed_total", "UDP datagrams that did not parse into a measurement", "type", type);
+        this.parseTime = metrics.histogram("warehouse_parse_seconds", "Time to parse one UDP payload", "type", type);
+        this.oversizedLog = new LogThrottle(logger, Level.WARN, "oversized " + type + " UDP payload");
+        this.malformedLog = new LogThrottle(logger, Level.WARN, "malformed " + type + " UDP payload");
     }
 
     public void start() {
         if (!running.compareAndSet(false, true)) return;
 
-        final var thread = new Thread(this::runLoop, "warehouse-udp-listener-" + sensorType.name().toLowerCase());
-        thread.setDaemon(true);
-        thread.start();
+        final var threadName = "warehouse-udp-listener-" + sensorType.name().toLowerCase();
+        if (ingestConfig.mode() == UdpIngestConfig.UdpIngestMode.BLOCKING) {
+            startThread(this::runLoop, threadName);
+            return;
+        }
+
+        final var readers = effectiveReaderThreads();
+        for (int i = 0; i < readers; i++) {
+            final var readerIndex = i;
+            startThread(() -> runChannelLoop(readers > 1), threadName + "-" + readerIndex);
+        }
+    }
+
+    private void startThread(final Runnable task, final String name) {
+        dispatcher.threadFactory(name).newThread(task).start();
+    }
+
+    private int effectiveReaderThreads() {
+        final var requested = Math.max(1, ingestConfig.readerThreads());
+        if (requested == 1) return 1;
+
+        try (final var probe = DatagramChannel.open()) {
+            if (probe.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT)) return requested;
+        } catch (final Exception ex) {
+            logger.warn("Unable to probe SO_REUSEPORT support: {}", ex.toString());
+        }
+
+        logger.warn("SO_REUSEPORT not supported on this platform, using a single UDP reader for port {} (requested {})", port, requested);
+        return 1;
     }
 
     private void runLoop() {
         try (final var localSocket = new DatagramSocket(port)) {
             socket = localSocket;
+            if (ingestConfig.receiveBufferBytes() > 0) {
+                localSocket.setReceiveBufferSize(ingestConfig.receiveBufferBytes());
+            }
 
-            final var buf = new byte[2048];
+            final var buf = new byte[RECEIVE_BUFFER_SIZE];
             final var packet = new DatagramPacket(buf, buf.length);
+            final var view = ByteBuffer.wrap(buf);
 
             logger.info("UDP listener bound for {} sensor at port {}", sensorType.name().toLowerCase(), port);
 
             while (running.get()) {
                 localSocket.receive(packet);
 
-                final var payload = new String(packet.getData(), packet.getOffset(), packet.getLength(), StandardCharsets.UTF_8).trim();
-                if (payload.isBlank()) continue;
-                if (payload.length() > MAX_UDP_PAYLOAD) {
-                    logger.warn("Ignoring oversized UDP payload size={} max={}", payload.length(), MAX_UDP_PAYLOAD);
-                    continue;
-                }
+                view.limit(packet.getOffset() + packet.getLength()).position(packet.getOffset());
+                handlePayload(view);
+            }
+        } catch (final Exception ex) {
+            if (running.get()) {
+                logger.error("UDP listener stopped unexpectedly: {}", ex.toString());
+            }
+        }
+    }
+
+    private void runChannelLoop(final boolean reusePort) {
+        final var buffer = bufferPool.acquire();
+
+        try (final var channel = DatagramChannel.open();
+             final var selector = Selector.open()) {
+            channels.add(channel);
+            selectors.add(selector);
 
-                try {
-                    parser.parse(payload, sensorType)
-                            .ifPresentOrElse(measurement -> {
-                                logger.info("Received data for {} sensor at port {}", sensorType.name().toLowerCase(), port);
-                                publisher.publish(measurement);
-                            }, () -> logger.warn("Measurement not found or malformed."));
-                } catch (final Exception ex) {
-                    logger.warn("Invalid UDP payload='{}' error={}", payload, ex.toString());
+            if (reusePort) channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+            if (ingestConfig.receiveBufferBytes() > 0) {
+                channel.setOption(StandardSocketOptions.SO_RCVBUF, ingestConfig.receiveBufferBytes());
+            }
+            channel.bind(new InetSocketAddress(port));
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ);
+
+            logger.info("UDP channel reader bound for {} sensor at port {} (reusePort={}, rcvbuf={})",
+                    sensorType.name().toLowerCase(), port, reusePort, channel.getOption(StandardSocketOptions.SO_RCVBUF));
+
+            while (running.get()) {
+                selector.select();
+                selector.selectedKeys().clear();
+
+                // Drain everything queued in the kernel before going back to select.
+                while (running.get()) {
+                    buffer.clear();
+                    if (channel.receive(buffer) == null) break;
+                    buffer.flip();
+
+                    handlePayload(buffer);
                 }
             }
         } catch (final Exception ex) {
             if (running.get()) {
-                logger.error("UDP listener stopped unexpectedly: {}", ex.toString());
+                logger.error("UDP channel reader stopped unexpectedly: {}", ex.toString());
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    private void handlePayload(final ByteBuffer payload) {
+        final var receivedMicros = TraceStamps.nowMicros();
+        packetsReceived.increment();
+        trim(payload);
+        if (!payload.hasRemaining()) return;
+        if (payload.remaining() > MAX_UDP_PAYLOAD) {
+            packetsOversized.increment();
+            if (oversizedLog.sample()) oversizedLog.log("Ignoring oversized UDP payload size={} max={}", payload.remaining(), MAX_UDP_PAYLOAD);
+            return;
+        }
+
+        try {
+            final var start = System.nanoTime();
+            final var parsed = parser.parse(payload, sensorType);
+            parseTime.recordSince(start);
+            final var parsedMicros = TraceStamps.nowMicros();
+
+            if (parsed.isEmpty()) {
+                packetsMalformed.increment();
+                if (malformedLog.sample()) malformedLog.log("Measurement not found or malformed. payload='{}'", decode(payload));
+                return;
             }
+
+            if (logger.isDebugEnabled()) logger.debug("Received data for {} sensor at port {}", sensorType.name().toLowerCase(), port);
+            final var measurement = parsed.get();
+            final var traced = new TracedMeasurement(measurement, parser.sensorKey(measurement), receivedMicros, parsedMicros);
+            dispatcher.dispatch(traced.sensorKey(), () -> publisher.publish(traced));
+        } catch (final Exception ex) {
+            packetsMalformed.increment();
+            if (malformedLog.sample()) malformedLog.log("Invalid UDP payload='{}' error={}", decode(payload), ex.toString());
         }
     }
 
+    private static String decode(final ByteBuffer payload) {
+        return StandardCharsets.UTF_8.decode(payload.duplicate()).toString();
+    }
+
+    // Same bounds String.trim() would produce, applied in place to the buffer window.
+    private static void trim(final ByteBuffer payload) {
+        var start = payload.position();
+        var end = payload.limit();
+        while (start < end && (payload.get(start) & 0xFF) <= ' ') start++;
+        while (end > start && (payload.get(end - 1) & 0xFF) <= ' ') end--;
+        payload.limit(end).position(start);
+    }
+
     @Override
     public void close() {
         running.set(false);
@@ -85,5 +243,17 @@ public class UdpMeasurementListener implements AutoCloseable {
             } catch (final Exception ignored) {
             }
         }
+        for (final var selector : selectors) {
+            try {
+                selector.wakeup();
+            } catch (final Exception ignored) {
+            }
+        }
+        for (final var channel : channels) {
+            try {
+                channel.close();
+            } catch (final Exception ignored) {
+            }
+        }
     }
 }
@@ -0,0 +1,147 @@
+package com.challenge.edge;
+
+import com.challenge.config.AdmissionConfig;
+import com.challenge.config.AlarmThresholds;
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorRegistry;
+import com.challenge.domain.SensorSummary;
+import com.challenge.metrics.Counter;
+import com.challenge.metrics.MetricsRegistry;
+import com.challenge.publisher.MeasurementPublisher;
+import com.challenge.publisher.TracedMeasurement;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Admission stage in front of the publisher. It watches the async publish queue depth and the time each publish call
+ * takes (a smoothed average), and when either passes its high watermark it starts shedding by {@link AdmissionConfig.ShedPolicy}
+ * until both are back under the low watermark. Readings above the alarm threshold are never shed, nor is the first
+ * reading after them that falls back under it. Every shed reading is counted, so an overloaded broker shows up as a
+ * metric instead of as random kernel drops on the UDP socket.
+ */
+public class AdmissionController implements MeasurementPublisher {
+
+    private static final long CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int LATENCY_SMOOTHING_SHIFT = 3;
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final int LAST_VALUE = 0;
+    private static final int SEQUENCE = 1;
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionController.class);
+
+    private final MeasurementPublisher delegate;
+    private final AdmissionConfig config;
+    private final IntSupplier queueDepth;
+    private final int queueCapacity;
+    private final long latencyHighNanos;
+    private final AlarmThresholds thresholds;
+
+    private final SensorRegistry registry;
+    private final SensorState state = new SensorState(2, NO_VALUE);
+
+    private final Counter shed;
+    private volatile boolean shedding;
+    private volatile long nextCheckNanos;
+    private volatile long latencyNanos;
+
+    /**
+     * @param queueDepth    readings waiting in the publisher, or {@code () -> 0} when publishing synchronously.
+     * @param queueCapacity the most {@code queueDepth} can report.
+     */
+    public AdmissionController(@NotNull final MeasurementPublisher delegate, @NotNull final AdmissionConfig config,
+                               @NotNull final AlarmThresholds thresholds, @NotNull final SensorRegistry registry, @NotNull final IntSupplier queueDepth, final int queueCapacity, @NotNull final MetricsRegistry metrics) {
+        this.delegate = delegate;
+        this.config = config;
+        this.queueDepth = queueDepth;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.latencyHighNanos = TimeUnit.MILLISECONDS.toNanos(config.latencyHighMillis());
+        this.thresholds = thresholds;
+        this.registry = registry;
+
+        this.shed = metrics.counter("warehouse_shed_readings_total", "Readings dropped by admission control while overloaded",
+                "policy", config.policy().name().toLowerCase());
+        metrics.gauge("warehouse_shedding", "1 while admission control is shedding load", () -> shedding ? 1 : 0);
+        metrics.gauge("warehouse_publish_latency_smoothed_micros", "Smoothed time of one publish call as seen by admission control",
+                () -> latencyNanos / 1_000);
+    }
+
+    @Override
+    public void publish(@NotNull final Measurement measurement) {
+        publish(TracedMeasurement.untraced(measurement));
+    }
+
+    @Override
+    public void publish(@NotNull final TracedMeasurement traced) {
+        if (!admit(traced.sensorKey(registry), traced.measurement(), System.nanoTime())) {
+            shed.increment();
+            return;
+        }
+
+        final var start = System.nanoTime();
+        try {
+            delegate.publish(traced);
+        } finally {
+            final var elapsed = System.nanoTime() - start;
+            final var smoothed = latencyNanos;
+            latencyNanos = smoothed + ((elapsed - smoothed) >> LATENCY_SMOOTHING_SHIFT);
+        }
+    }
+
+    boolean admit(final Measurement measurement, final long now) {
+        return admit(registry.id(measurement), measurement, now);
+    }
+
+    private boolean admit(final int slot, final Measurement measurement, final long now) {
+        final var value = measurement.value();
+        // Tracked in normal operation too, so shedding starts from each sensor's real last value.
+        final var previous = state.getAndSet(slot, LAST_VALUE, value);
+
+        if (!overloaded(now)) return true;
+        // Breaches are never shed, nor is the first reading back under the threshold, so central sees the alarm clear.
+        final var threshold = thresholds.of(measurement.type());
+        if (value > threshold || (previous != NO_VALUE && previous > threshold)) return true;
+
+        return switch (config.policy()) {
+            case CHANGED -> previous != value;
+            // Sequence cells start at NO_VALUE, so each sensor's first reading is one of the kept ones.
+            case SAMPLE -> (state.incrementAndGet(slot, SEQUENCE) - NO_VALUE - 1) % Math.max(1, config.sampleEvery()) == 0;
+        };
+    }
+
+    boolean shedding() {
+        return shedding;
+    }
+
+    private boolean overloaded(final long now) {
+        if (now - nextCheckNanos < 0) return shedding;
+        nextCheckNanos = now + CHECK_INTERVAL_NANOS;
+
+        final var depthPercent = (int) ((long) queueDepth.getAsInt() * 100 / queueCapacity);
+        final var latency = latencyNanos;
+        if (!shedding && (depthPercent >= config.queueHighPercent() || latency >= latencyHighNanos)) {
+            shedding = true;
+            logger.warn("Publisher overloaded, shedding load with policy {}. queueDepth={}% publishLatency={}ms",
+                    config.policy(), depthPercent, TimeUnit.NANOSECONDS.toMillis(latency));
+        } else if (shedding && depthPercent <= config.queueLowPercent() && latency < latencyHighNanos) {
+            shedding = false;
+            logger.info("Publisher recovered, admitting all readings. shedSoFar={}", shed.get());
+        }
+        return shedding;
+    }
+
+    @Override
+    public void publishSummaries(@NotNull final List<SensorSummary> summaries) {
+        delegate.publishSummaries(summaries);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,101 @@
+package com.challenge.edge;
+
+import com.challenge.config.AlarmThresholds;
+import com.challenge.config.DeadbandConfig;
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorRegistry;
+import com.challenge.domain.SensorSummary;
+import com.challenge.metrics.Counter;
+import com.challenge.metrics.MetricsRegistry;
+import com.challenge.publisher.MeasurementPublisher;
+import com.challenge.publisher.TracedMeasurement;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forwards a reading only when it moved more than {@code delta} from the last value forwarded for its sensor, or when
+ * nothing was forwarded for that sensor within the heartbeat interval, so a steady sensor still proves it is alive.
+ * While either the reading or the last forwarded one is above the alarm threshold every reading goes through, so
+ * central-service sees each breach and each clear exactly as it happened.
+ * <p>
+ * Two threads reporting the same sensor at once may both forward a reading; the filter never drops one it should keep.
+ */
+public class DeadbandFilter implements MeasurementPublisher {
+
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final int LAST_VALUE = 0;
+    private static final int FORWARDED_AT = 1;
+
+    private final MeasurementPublisher delegate;
+    private final int delta;
+    private final long heartbeatNanos;
+    private final AlarmThresholds thresholds;
+
+    private final SensorRegistry registry;
+    private final SensorState state = new SensorState(2, NO_VALUE);
+
+    private final Counter forwarded;
+    private final Counter suppressed;
+
+    public DeadbandFilter(@NotNull final MeasurementPublisher delegate, @NotNull final DeadbandConfig config,
+                          @NotNull final AlarmThresholds thresholds, @NotNull final SensorRegistry registry, @NotNull final MetricsRegistry metrics) {
+        this.delegate = delegate;
+        this.delta = Math.max(0, config.delta());
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(config.heartbeatMillis());
+        this.thresholds = thresholds;
+        this.registry = registry;
+        this.forwarded = metrics.counter("warehouse_deadband_forwarded_total", "Readings passed on by the deadband filter");
+        this.suppressed = metrics.counter("warehouse_deadband_suppressed_total", "Readings held back by the deadband filter as unchanged");
+    }
+
+    @Override
+    public void publish(@NotNull final Measurement measurement) {
+        publish(TracedMeasurement.untraced(measurement));
+    }
+
+    @Override
+    public void publish(@NotNull final TracedMeasurement traced) {
+        if (!pass(traced.sensorKey(registry), traced.measurement(), System.nanoTime())) {
+            suppressed.increment();
+            return;
+        }
+        forwarded.increment();
+        delegate.publish(traced);
+    }
+
+    boolean pass(final Measurement measurement, final long now) {
+        return pass(registry.id(measurement), measurement, now);
+    }
+
+    private boolean pass(final int slot, final Measurement measurement, final long now) {
+        final var value = measurement.value();
+        final var last = state.get(slot, LAST_VALUE);
+
+        if (last != NO_VALUE && !breach(measurement, last) && Math.abs(value - last) <= delta
+                && now - state.get(slot, FORWARDED_AT) < heartbeatNanos) {
+            return false;
+        }
+
+        state.set(slot, LAST_VALUE, value);
+        state.set(slot, FORWARDED_AT, now);
+        return true;
+    }
+
+    private boolean breach(final Measurement measurement, final long last) {
+        final var threshold = thresholds.of(measurement.type());
+        return measurement.value() > threshold || last > threshold;
+    }
+
+    @Override
+    public void publishSummaries(@NotNull final List<SensorSummary> summaries) {
+        delegate.publishSummaries(summaries);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,190 @@
+package com.challenge.edge;
+
+import com.challenge.config.AlarmThresholds;
+import com.challenge.config.PreAggregationConfig;
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorRegistry;
+import com.challenge.domain.SensorSummary;
+import com.challenge.domain.SensorType;
+import com.challenge.metrics.Counter;
+import com.challenge.metrics.MetricsRegistry;
+import com.challenge.publisher.MeasurementPublisher;
+import com.challenge.publisher.TracedMeasurement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Folds readings into one count/min/max/sum/last summary per sensor and publishes all open summaries every interval,
+ * instead of one message per reading. A reading above the alarm threshold, and the first one back under it, are
+ * forwarded at once; the sensor's open summary is published just before, so central-service still sees its readings
+ * in order. Those readings are not folded, so nothing is counted twice.
+ */
+public class PreAggregator implements MeasurementPublisher {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final int COUNT = 0;
+    private static final int MIN = 1;
+    private static final int MAX = 2;
+    private static final int SUM = 3;
+    private static final int LAST = 4;
+    private static final int FROM = 5;
+    private static final int TO = 6;
+    private static final int BREACHED = 7;
+    private static final int COLUMNS = 8;
+
+    private static final Logger logger = LoggerFactory.getLogger(PreAggregator.class);
+
+    private final MeasurementPublisher delegate;
+    private final String warehouseId;
+    private final long intervalMillis;
+    private final AlarmThresholds thresholds;
+
+    private final SensorRegistry registry;
+    private final SensorState state = new SensorState(COLUMNS, 0);
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    private final Counter folded;
+    private final Counter forwarded;
+    private final Counter summariesPublished;
+    private @Nullable ScheduledExecutorService flusher;
+
+    public PreAggregator(@NotNull final MeasurementPublisher delegate, @NotNull final PreAggregationConfig config, @NotNull final String warehouseId,
+                         @NotNull final AlarmThresholds thresholds, @NotNull final SensorRegistry registry, @NotNull final MetricsRegistry metrics) {
+        this.delegate = delegate;
+        this.warehouseId = warehouseId;
+        this.intervalMillis = Math.max(1, config.intervalMillis());
+        this.thresholds = thresholds;
+        this.registry = registry;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+
+        this.folded = metrics.counter("warehouse_preaggregated_readings_total", "Readings folded into per-sensor summaries");
+        this.forwarded = metrics.counter("warehouse_preaggregate_forwarded_total", "Readings forwarded at once because they breach or clear the alarm threshold");
+        this.summariesPublished = metrics.counter("warehouse_summaries_published_total", "Per-sensor summaries published");
+    }
+
+    public void start() {
+        if (flusher != null) return;
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            final var thread = new Thread(r, "warehouse-preaggregate");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleAtFixedRate(this::flushSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void publish(@NotNull final Measurement measurement) {
+        publish(TracedMeasurement.untraced(measurement));
+    }
+
+    @Override
+    public void publish(@NotNull final TracedMeasurement traced) {
+        final var measurement = traced.measurement();
+        final var slot = traced.sensorKey(registry);
+        final var above = measurement.value() > thresholds.of(measurement.type());
+
+        final SensorSummary pending;
+        final var lock = locks[slot & (LOCK_STRIPES - 1)];
+        lock.lock();
+        try {
+            final var breached = state.getAndSet(slot, BREACHED, above ? 1 : 0) != 0;
+            if (!above && !breached) {
+                fold(slot, measurement);
+                return;
+            }
+            pending = take(slot, measurement.sensorId(), measurement.type());
+        } finally {
+            lock.unlock();
+        }
+
+        if (pending != null) {
+            delegate.publishSummaries(List.of(pending));
+            summariesPublished.increment();
+        }
+        forwarded.increment();
+        delegate.publish(traced);
+    }
+
+    private void fold(final int slot, final Measurement measurement) {
+        final var value = measurement.value();
+        if (state.get(slot, COUNT) == 0) {
+            state.set(slot, MIN, value);
+            state.set(slot, MAX, value);
+            state.set(slot, SUM, 0);
+            state.set(slot, FROM, measurement.timestamp());
+        } else {
+            if (value < state.get(slot, MIN)) state.set(slot, MIN, value);
+            if (value > state.get(slot, MAX)) state.set(slot, MAX, value);
+        }
+        state.incrementAndGet(slot, COUNT);
+        state.set(slot, SUM, state.get(slot, SUM) + value);
+        state.set(slot, LAST, value);
+        state.set(slot, TO, measurement.timestamp());
+        folded.increment();
+    }
+
+    // Caller holds the slot's lock.
+    private @Nullable SensorSummary take(final int slot, final String sensorId, final SensorType type) {
+        final var count = state.getAndSet(slot, COUNT, 0);
+        if (count == 0) return null;
+
+        return new SensorSummary(warehouseId, sensorId, type, (int) count, (int) state.get(slot, MIN), (int) state.get(slot, MAX),
+                state.get(slot, SUM), (int) state.get(slot, LAST), state.get(slot, FROM), state.get(slot, TO));
+    }
+
+    /**
+     * Publishes and resets every open summary.
+     */
+    void flush() {
+        final var summaries = new ArrayList<SensorSummary>();
+        final var sensors = registry.size();
+        for (int slot = 0; slot < sensors; slot++) {
+            final var sensor = registry.sensor(slot);
+            final var lock = locks[slot & (LOCK_STRIPES - 1)];
+            lock.lock();
+            try {
+                final var summary = take(slot, sensor.sensorId(), sensor.type());
+                if (summary != null) summaries.add(summary);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        if (summaries.isEmpty()) return;
+        delegate.publishSummaries(summaries);
+        summariesPublished.add(summaries.size());
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (final Exception ex) {
+            logger.warn("Unable to publish sensor summaries. error={}", ex.toString());
+        }
+    }
+
+    @Override
+    public void publishSummaries(@NotNull final List<SensorSummary> summaries) {
+        delegate.publishSummaries(summaries);
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) flusher.shutdownNow();
+        flushSafely();
+        delegate.close();
+    }
+}
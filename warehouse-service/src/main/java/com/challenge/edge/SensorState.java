@@ -0,0 +1,86 @@
+package com.challenge.edge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed number of long columns per {@link com.challenge.domain.SensorRegistry} id, stored in pages of
+ * {@value #PAGE_SIZE} slots that never move once allocated. Every cell is read and written atomically, so stages may be
+ * called from several reader or dispatch threads at once.
+ */
+final class SensorState {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final int columns;
+    private final long initial;
+    private final ReentrantLock growLock = new ReentrantLock();
+    private volatile AtomicLongArray[] pages = new AtomicLongArray[0];
+
+    /**
+     * @param initial value every cell holds before it is first written.
+     */
+    SensorState(final int columns, final long initial) {
+        this.columns = columns;
+        this.initial = initial;
+    }
+
+    long get(final int slot, final int column) {
+        return page(slot).get(index(slot, column));
+    }
+
+    void set(final int slot, final int column, final long value) {
+        page(slot).set(index(slot, column), value);
+    }
+
+    long getAndSet(final int slot, final int column, final long value) {
+        return page(slot).getAndSet(index(slot, column), value);
+    }
+
+    long incrementAndGet(final int slot, final int column) {
+        return page(slot).incrementAndGet(index(slot, column));
+    }
+
+    boolean compareAndSet(final int slot, final int column, final long expected, final long value) {
+        return page(slot).compareAndSet(index(slot, column), expected, value);
+    }
+
+    private int index(final int slot, final int column) {
+        return (slot & PAGE_MASK) * columns + column;
+    }
+
+    private AtomicLongArray page(final int slot) {
+        final var index = slot >>> PAGE_BITS;
+        final var current = pages;
+        if (index < current.length) return current[index];
+
+        growLock.lock();
+        try {
+            var grown = pages;
+            if (index >= grown.length) {
+                final var from = grown.length;
+                grown = Arrays.copyOf(grown, Math.max(index + 1, from * 2));
+                for (int i = from; i < grown.length; i++) {
+                    grown[i] = newPage();
+                }
+                pages = grown;
+            }
+            return grown[index];
+        } finally {
+            growLock.unlock();
+        }
+    }
+
+    private AtomicLongArray newPage() {
+        final var page = new AtomicLongArray(PAGE_SIZE * columns);
+        if (initial != 0) {
+            for (int i = 0; i < page.length(); i++) {
+                page.set(i, initial);
+            }
+        }
+        return page;
+    }
+}
@@ -1,13 +1,18 @@
 package com.challenge.parser;
 
 import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorRegistry;
 import com.challenge.domain.SensorType;
+import com.challenge.logging.LogThrottle;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Optional;
@@ -17,23 +22,59 @@ import java.util.stream.Collectors;
 
 public class MeasurementParser {
 
+    private static final byte[] SENSOR_ID_KEY = "sensor_id".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] VALUE_KEY = "value".getBytes(StandardCharsets.US_ASCII);
+    private static final int SENSOR_ID_CACHE_SIZE = 1024;
+
     private final String defaultWarehouseId;
+    private final SensorRegistry registry;
+    private final SensorIdCache sensorIds = new SensorIdCache(SENSOR_ID_CACHE_SIZE);
 
     private static final Logger logger = LoggerFactory.getLogger(MeasurementParser.class);
+    private static final LogThrottle nonStandardLog = new LogThrottle(logger, Level.WARN, "non-standard payload");
     private static final Pattern MEASUREMENT_PATTERN = Pattern.compile(
             "^\\s*sensor_id\\s*=\\s*([a-zA-Z0-9]+)\\s*;\\s*value\\s*=\\s*(\\d+)\\s*$"
     );
 
     public MeasurementParser(@Nullable final String defaultWarehouseId) {
+        this(defaultWarehouseId, new SensorRegistry());
+    }
+
+    /**
+     * @param registry interns every sensor this parser sees; pass the one the publisher stages key their state with.
+     */
+    public MeasurementParser(@Nullable final String defaultWarehouseId, @NotNull final SensorRegistry registry) {
         this.defaultWarehouseId = Optional.ofNullable(defaultWarehouseId)
                 .orElseGet(() -> UUID.randomUUID().toString());
+        this.registry = registry;
+    }
+
+    /**
+     * @return the registry id of a measurement this parser produced. Its strings are, bar cache collisions, the
+     * registry's own instances, so the lookup compares them by identity.
+     */
+    public int sensorKey(@NotNull final Measurement measurement) {
+        return registry.id(measurement);
+    }
+
+    /**
+     * Parses the bytes between the buffer's position and limit without moving either. Well-formed payloads are scanned
+     * in a single pass with no intermediate strings; anything else is decoded and handed to the tolerant parser.
+     */
+    public Optional<Measurement> parse(@NotNull final ByteBuffer payload, @Nullable final SensorType type) {
+        if (type == null) return Optional.empty();
+
+        final var measurement = parseStrict(payload, type);
+        if (measurement != null) return Optional.of(measurement);
+
+        return parse(StandardCharsets.UTF_8.decode(payload.duplicate()).toString(), type);
     }
 
     public Optional<Measurement> parse(@NotNull final String payload, @Nullable final SensorType type) {
         if (StringUtils.isBlank(payload) || type == null) return Optional.empty();
 
-        if(!MEASUREMENT_PATTERN.matcher(payload).matches()) {
-            logger.warn(
+        if (!MEASUREMENT_PATTERN.matcher(payload).matches() && nonStandardLog.sample()) {
+            nonStandardLog.log(
                     "Received payload '{}' does not match expected format (sensor_id=<alphanumeric>; value=<integer>), attempting tolerant parsing",
                     payload
             );
@@ -50,12 +91,82 @@ public class MeasurementParser {
             final int value = Integer.parseInt(valueRaw);
 
             final var timestamp = System.currentTimeMillis();
-            return Optional.of(new Measurement(defaultWarehouseId, sensorId, type, value, timestamp));
+            return Optional.of(new Measurement(defaultWarehouseId, canonical(sensorId, type), type, value, timestamp));
         } catch (final Exception ignored) {
             return Optional.empty();
         }
     }
 
+    // Mirrors MEASUREMENT_PATTERN byte by byte; returns null on the first deviation so the caller can fall back.
+    private @Nullable Measurement parseStrict(final ByteBuffer buffer, final SensorType type) {
+        final var end = buffer.limit();
+
+        var i = skipWhitespace(buffer, buffer.position(), end);
+        i = expectKey(buffer, i, end, SENSOR_ID_KEY);
+        if (i < 0) return null;
+
+        final var idStart = i;
+        while (i < end && isAlphanumeric(buffer.get(i))) i++;
+        final var idEnd = i;
+        if (idEnd == idStart) return null;
+
+        i = skipWhitespace(buffer, i, end);
+        if (i >= end || buffer.get(i) != ';') return null;
+
+        i = skipWhitespace(buffer, i + 1, end);
+        i = expectKey(buffer, i, end, VALUE_KEY);
+        if (i < 0) return null;
+
+        final var digitsStart = i;
+        long value = 0;
+        while (i < end && isDigit(buffer.get(i))) {
+            value = value * 10 + (buffer.get(i) - '0');
+            if (value > Integer.MAX_VALUE) return null;
+            i++;
+        }
+        if (i == digitsStart) return null;
+
+        if (skipWhitespace(buffer, i, end) != end) return null;
+
+        final var sensorId = sensorIds.lookup(buffer, idStart, idEnd);
+        return new Measurement(defaultWarehouseId, sensorId, type, (int) value, System.currentTimeMillis());
+    }
+
+    // The registry keeps the first instance it saw for each sensor; handing that one out keeps later lookups on identity.
+    // Ids from the strict path already come from the cache, which is where the registry got them.
+    private String canonical(final String sensorId, final SensorType type) {
+        return registry.sensor(registry.id(defaultWarehouseId, sensorId, type)).sensorId();
+    }
+
+    // Matches "<key> = " (with optional whitespace) at index and returns the index after it, or -1.
+    private static int expectKey(final ByteBuffer buffer, final int index, final int end, final byte[] key) {
+        if (end - index < key.length) return -1;
+        for (int k = 0; k < key.length; k++) {
+            if (buffer.get(index + k) != key[k]) return -1;
+        }
+
+        final var i = skipWhitespace(buffer, index + key.length, end);
+        if (i >= end || buffer.get(i) != '=') return -1;
+        return skipWhitespace(buffer, i + 1, end);
+    }
+
+    private static int skipWhitespace(final ByteBuffer buffer, int index, final int end) {
+        while (index < end && isWhitespace(buffer.get(index))) index++;
+        return index;
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
+    }
+
+    private static boolean isDigit(final byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isAlphanumeric(final byte b) {
+        return isDigit(b) || (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+
     private static Map<String, String> parseKeyValue(final @NotNull String payload) {
         return Arrays.stream(payload.split(";"))
                 .map(String::trim)
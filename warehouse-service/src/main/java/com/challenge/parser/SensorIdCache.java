@@ -0,0 +1,48 @@
+package com.challenge.parser;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Direct-mapped cache of sensor id strings keyed by their raw ASCII bytes. A hit returns the cached instance without
+ * allocating; a collision simply overwrites the slot. Races between readers are benign because slots only ever hold
+ * fully constructed immutable strings.
+ */
+final class SensorIdCache {
+
+    private final String[] slots;
+    private final int mask;
+
+    SensorIdCache(final int capacity) {
+        final var size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new String[size];
+        this.mask = size - 1;
+    }
+
+    @NotNull String lookup(@NotNull final ByteBuffer buffer, final int start, final int end) {
+        var hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+        final var slot = (hash ^ (hash >>> 16)) & mask;
+
+        final var cached = slots[slot];
+        if (cached != null && matches(cached, buffer, start, end)) return cached;
+
+        final var bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        final var created = new String(bytes, StandardCharsets.US_ASCII);
+        slots[slot] = created;
+        return created;
+    }
+
+    private static boolean matches(final String cached, final ByteBuffer buffer, final int start, final int end) {
+        if (cached.length() != end - start) return false;
+        for (int i = start; i < end; i++) {
+            if (cached.charAt(i - start) != buffer.get(i)) return false;
+        }
+        return true;
+    }
+}
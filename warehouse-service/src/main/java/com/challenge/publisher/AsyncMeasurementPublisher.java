@@ -0,0 +1,196 @@
+package com.challenge.publisher;
+
+import com.challenge.config.PublisherConfig;
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorSummary;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decouples UDP readers from the broker: {@link #publish(Measurement)} only enqueues into a bounded ring buffer and a
+ * dedicated sender thread drains it into {@link MeasurementPublisher#publishTracedBatch(List)} calls of up to
+ * {@code flushSize} measurements, waiting at most {@code lingerMillis} for a batch to fill. Summaries share the queue,
+ * so no caller ever sends to the broker itself and summaries stay in order with the readings around them.
+ */
+public class AsyncMeasurementPublisher implements MeasurementPublisher {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncMeasurementPublisher.class);
+
+    private final MeasurementPublisher delegate;
+    private final ArrayBlockingQueue<SenderItem> queue;
+    private final int flushSize;
+    private final long lingerNanos;
+    private final PublisherConfig.OverflowPolicy overflowPolicy;
+    private final ThreadFactory threadFactory;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final LongAdder dropped = new LongAdder();
+    private Thread sender;
+
+    public AsyncMeasurementPublisher(@NotNull final MeasurementPublisher delegate, @NotNull final PublisherConfig config) {
+        this(delegate, config, Thread.ofPlatform().name("warehouse-jms-sender").daemon(true).factory());
+    }
+
+    public AsyncMeasurementPublisher(@NotNull final MeasurementPublisher delegate, @NotNull final PublisherConfig config,
+                                     @NotNull final ThreadFactory threadFactory) {
+        this.delegate = delegate;
+        this.threadFactory = threadFactory;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, config.queueCapacity()));
+        this.flushSize = Math.max(1, config.flushSize());
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.lingerMillis()));
+        this.overflowPolicy = config.overflowPolicy();
+    }
+
+    public void start() {
+        if (!running.compareAndSet(false, true)) return;
+
+        sender = threadFactory.newThread(this::runLoop);
+        sender.start();
+    }
+
+    @Override
+    public void publish(@NotNull final Measurement measurement) {
+        publish(TracedMeasurement.untraced(measurement));
+    }
+
+    @Override
+    public void publish(@NotNull final TracedMeasurement measurement) {
+        enqueue(measurement);
+    }
+
+    @Override
+    public void publishSummaries(@NotNull final List<SensorSummary> summaries) {
+        if (!summaries.isEmpty()) enqueue(new SenderItem.Summaries(List.copyOf(summaries)));
+    }
+
+    private void enqueue(final SenderItem item) {
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    queue.put(item);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                }
+            }
+            case DROP_NEWEST -> {
+                if (!queue.offer(item)) dropped.increment();
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(item)) {
+                    if (queue.poll() != null) dropped.increment();
+                }
+            }
+        }
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void runLoop() {
+        final var batch = new ArrayList<SenderItem>(flushSize);
+        final var measurements = new ArrayList<TracedMeasurement>(flushSize);
+
+        while (running.get() || !queue.isEmpty()) {
+            try {
+                fillBatch(batch);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                flush(batch, measurements);
+                return;
+            }
+            flush(batch, measurements);
+        }
+    }
+
+    private void fillBatch(final List<SenderItem> batch) throws InterruptedException {
+        final var first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) return;
+        batch.add(first);
+
+        final var deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < flushSize) {
+            if (queue.drainTo(batch, flushSize - batch.size()) > 0) continue;
+
+            final var remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return;
+
+            final var next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) return;
+            batch.add(next);
+        }
+    }
+
+    // Readings go out in batches; a summary flushes the readings queued before it, then goes out on its own.
+    private void flush(final List<SenderItem> batch, final List<TracedMeasurement> measurements) {
+        for (final var item : batch) {
+            switch (item) {
+                case TracedMeasurement traced -> measurements.add(traced);
+                case SenderItem.Summaries summaries -> {
+                    flushMeasurements(measurements);
+                    try {
+                        delegate.publishSummaries(summaries.summaries());
+                    } catch (final Exception ex) {
+                        logger.warn("Summary publish failed, dropping {} summary(ies). error={}", summaries.summaries().size(), ex.toString());
+                    }
+                }
+            }
+        }
+        flushMeasurements(measurements);
+        batch.clear();
+    }
+
+    private void flushMeasurements(final List<TracedMeasurement> measurements) {
+        if (measurements.isEmpty()) return;
+
+        try {
+            delegate.publishTracedBatch(measurements);
+        } catch (final Exception ex) {
+            logger.warn("Batch publish failed, dropping {} message(s). error={}", measurements.size(), ex.toString());
+        } finally {
+            measurements.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        running.set(false);
+
+        final var localSender = sender;
+        if (localSender != null) {
+            try {
+                localSender.join(CLOSE_TIMEOUT.toMillis());
+                if (localSender.isAlive()) {
+                    logger.warn("Sender did not drain in time, {} message(s) left in queue", queue.size());
+                    localSender.interrupt();
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (dropped.sum() > 0) {
+            logger.warn("Async publisher dropped {} message(s) due to overflow policy {}", dropped.sum(), overflowPolicy);
+        }
+
+        delegate.close();
+    }
+}
@@ -1,99 +1,439 @@
 package com.challenge.publisher;
 
+import com.challenge.connection.ConnectionSupervisor;
+import com.challenge.connection.ReconnectConfig;
 import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorSummary;
+import com.challenge.logging.LogThrottle;
+import com.challenge.metrics.Counter;
+import com.challenge.metrics.LatencyHistogram;
+import com.challenge.metrics.MetricsRegistry;
+import com.challenge.serialization.MeasurementCodec;
 import com.challenge.serialization.MeasurementJsonMapper;
+import com.challenge.spool.MeasurementSpool;
+import com.challenge.trace.TraceStamps;
 import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.ActiveMQMessageProducer;
+import org.apache.activemq.ActiveMQSession;
+import org.apache.activemq.AsyncCallback;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.apache.activemq.jms.pool.PooledSession;
+import org.apache.activemq.pool.PooledConnectionFactory;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 
 import javax.jms.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
-public class JmsMeasurementPublisher implements AutoCloseable {
+/**
+ * Sends through a pool of broker connections, each with its own pool of sessions, so concurrent publish calls send in
+ * parallel with no lock between them. A failed send opens the {@link ConnectionSupervisor} circuit, which reconnects
+ * on a background thread with backoff; until it closes again, publish calls spool or drop at once instead of waiting
+ * on the broker.
+ */
+public class JmsMeasurementPublisher implements MeasurementPublisher {
 
+    private static final int SPOOL_DRAIN_BATCH = 256;
+    private static final Duration REPLAY_CONFIRM_TIMEOUT = Duration.ofSeconds(30);
+    private static final String JMSX_GROUP_ID = "JMSXGroupID";
     private static final Logger logger = LoggerFactory.getLogger(JmsMeasurementPublisher.class);
+    private static final LogThrottle undeliveredLog = new LogThrottle(logger, Level.WARN, "undelivered publish");
 
     private final String brokerUrl;
-    private final String destinationName;
-    private final MeasurementJsonMapper mapper;
+    private final Destination destination;
+    private final MeasurementCodec codec;
+    private final MeasurementJsonMapper summaryMapper = new MeasurementJsonMapper();
+    private final boolean transacted;
+    private final int envelopeSize;
+    private final @Nullable MeasurementSpool spool;
+    private final PooledConnectionFactory connectionFactory;
+    private final ScheduledExecutorService background;
+    private final ConnectionSupervisor supervisor;
 
-    private Connection connection;
-    private Session session;
-    private MessageProducer producer;
+    private final LatencyHistogram publishTime;
+    private final Counter published;
+    private final Counter publishFailures;
 
-    public JmsMeasurementPublisher(@NotNull final String brokerUrl, @NotNull final String destinationName, @NotNull final MeasurementJsonMapper mapper) {
+    public JmsMeasurementPublisher(@NotNull final String brokerUrl, @NotNull final String destinationName, @NotNull final MeasurementCodec codec) {
+        this(brokerUrl, destinationName, codec, false, 1, 1, null, Duration.ZERO, ReconnectConfig.defaults(), new MetricsRegistry());
+    }
+
+    /**
+     * @param transacted   when {@code true} every {@link #publishBatch(List)} is sent in a single JMS transaction, so
+     *                     the broker persists and acknowledges the whole batch with one commit instead of once per message.
+     * @param envelopeSize when greater than one, {@link #publishBatch(List)} packs up to this many measurements of the
+     *                     same warehouse into a single envelope message.
+     * @param connections  broker connections in the pool; each serves any number of concurrent sessions.
+     * @param spool        when present, messages that cannot be delivered are appended here instead of dropped, and a
+     *                     background drainer replays them every {@code drainInterval} once the broker is reachable.
+     *                     While the spool holds data new messages are spooled too, so replay keeps the original order.
+     *                     Replay always commits each drained batch in one transaction, whatever {@code transacted} says,
+     *                     so a batch reaches the broker whole or not at all and is only then released from the spool.
+     *                     Spooled records are already encoded, so the codec must not change while records are pending.
+     */
+    public JmsMeasurementPublisher(@NotNull final String brokerUrl, @NotNull final String destinationName, @NotNull final MeasurementCodec codec,
+                                   final boolean transacted, final int envelopeSize, final int connections, @Nullable final MeasurementSpool spool,
+                                   @NotNull final Duration drainInterval, @NotNull final ReconnectConfig reconnect, @NotNull final MetricsRegistry metrics) {
         this.brokerUrl = brokerUrl;
-        this.destinationName = destinationName;
-        this.mapper = mapper;
-        connect();
+        this.destination = new ActiveMQQueue(destinationName);
+        this.codec = codec;
+        this.transacted = transacted;
+        this.envelopeSize = Math.max(1, envelopeSize);
+        this.spool = spool;
+        this.publishTime = metrics.histogram("warehouse_publish_seconds", "Time to hand one publish call to the broker, session checkout included");
+        this.published = metrics.counter("warehouse_published_messages_total", "JMS messages sent to the broker");
+        this.publishFailures = metrics.counter("warehouse_publish_failures_total", "JMS messages not delivered (spooled or dropped), fast failures while disconnected included");
+
+        this.connectionFactory = new PooledConnectionFactory(new ActiveMQConnectionFactory(brokerUrl));
+        connectionFactory.setMaxConnections(Math.max(1, connections));
+        connectionFactory.setCreateConnectionOnStartup(false);
+
+        this.background = Executors.newSingleThreadScheduledExecutor(r -> {
+            final var thread = new Thread(r, "jms-publisher-background");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Clearing the pool drops every pooled connection, so the probe and later sends use fresh ones.
+        this.supervisor = new ConnectionSupervisor("publisher", this::probe, connectionFactory::clear, reconnect, background, metrics);
+        supervisor.start();
+
+        if (spool != null) {
+            final var intervalMillis = Math.max(1, drainInterval.toMillis());
+            background.scheduleWithFixedDelay(this::drainSpool, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
     }
 
-    public synchronized void publish(@NotNull final Measurement measurement) {
-        final var json = mapper.toJson(measurement);
+    @Override
+    public void publish(@NotNull final Measurement measurement) {
+        publish(TracedMeasurement.untraced(measurement));
+    }
+
+    @Override
+    public void publish(@NotNull final TracedMeasurement measurement) {
+        final var start = System.nanoTime();
+        final var outbound = single(measurement);
 
         try {
-            ensureConnected();
-            producer.send(session.createTextMessage(json));
-        } catch (final Exception ex) {
-            logger.warn("Publish failed, will reconnect. error={}", ex.toString());
-            safeClose();
-            connect();
+            deliver(List.of(outbound));
+        } finally {
+            publishTime.recordSince(start);
+        }
+    }
 
-            try {
-                ensureConnected();
-                producer.send(session.createTextMessage(json));
-            } catch (final Exception ex2) {
-                logger.warn("Publish failed after reconnect, dropping message. error={}", ex2.toString());
-            }
+    @Override
+    public void publishBatch(@NotNull final List<Measurement> measurements) {
+        publishTracedBatch(measurements.stream().map(TracedMeasurement::untraced).toList());
+    }
+
+    @Override
+    public void publishTracedBatch(@NotNull final List<TracedMeasurement> measurements) {
+        if (measurements.isEmpty()) return;
+
+        final var start = System.nanoTime();
+        final var outbound = envelopeSize == 1
+                ? measurements.stream().map(this::single).toList()
+                : toEnvelopes(measurements);
+
+        try {
+            deliver(outbound);
+        } finally {
+            publishTime.recordSince(start);
         }
     }
 
-    private void connect() {
+    /**
+     * Sends summaries in the same message group as the sensor's single readings, so central-service handles a summary
+     * in order with the readings forwarded around it: one JSON message per warehouse once envelopes are enabled, one
+     * per sensor otherwise.
+     */
+    @Override
+    public void publishSummaries(@NotNull final List<SensorSummary> summaries) {
+        if (summaries.isEmpty()) return;
+
+        final var start = System.nanoTime();
+        final List<OutboundMessage> outbound;
+        if (envelopeSize > 1) {
+            outbound = List.of(summaries(summaries, String.valueOf(summaries.getFirst().warehouseId())));
+        } else {
+            outbound = new ArrayList<>(summaries.size());
+            for (final var summary : summaries) {
+                outbound.add(summaries(List.of(summary), groupId(summary.warehouseId(), summary.sensorId())));
+            }
+        }
+
         try {
-            final ConnectionFactory factory = new ActiveMQConnectionFactory(brokerUrl);
+            deliver(outbound);
+        } finally {
+            publishTime.recordSince(start);
+        }
+    }
 
-            connection = factory.createConnection();
-            connection.start();
+    private OutboundMessage summaries(final List<SensorSummary> summaries, final String groupId) {
+        return new OutboundMessage(summaryMapper.encodeSummaries(summaries), OutboundMessage.Kind.SUMMARIES, groupId,
+                TraceStamps.NONE, TraceStamps.NONE);
+    }
+
+    private List<OutboundMessage> toEnvelopes(final List<TracedMeasurement> measurements) {
+        final var byWarehouse = new LinkedHashMap<String, List<TracedMeasurement>>();
+        for (final var traced : measurements) {
+            byWarehouse.computeIfAbsent(traced.measurement().warehouseId(), ignored -> new ArrayList<>()).add(traced);
+        }
+
+        final var envelopes = new ArrayList<OutboundMessage>();
+        for (final var group : byWarehouse.values()) {
+            for (int from = 0; from < group.size(); from += envelopeSize) {
+                final var chunk = group.subList(from, Math.min(group.size(), from + envelopeSize));
+                envelopes.add(chunk.size() == 1 ? single(chunk.getFirst()) : envelope(chunk));
+            }
+        }
+        return envelopes;
+    }
+
+    // An envelope carries the stamps of its oldest reading, so its trace shows the worst latency inside it.
+    private OutboundMessage envelope(final List<TracedMeasurement> chunk) {
+        var receivedMicros = Long.MAX_VALUE;
+        var parsedMicros = Long.MAX_VALUE;
+        for (final var traced : chunk) {
+            if (traced.receivedMicros() == TraceStamps.NONE) continue;
+            receivedMicros = Math.min(receivedMicros, traced.receivedMicros());
+            parsedMicros = Math.min(parsedMicros, traced.parsedMicros());
+        }
+        if (receivedMicros == Long.MAX_VALUE) receivedMicros = parsedMicros = TraceStamps.NONE;
+
+        final var payload = codec.encodeEnvelope(chunk.stream().map(TracedMeasurement::measurement).toList());
+        return new OutboundMessage(payload, OutboundMessage.Kind.ENVELOPE, groupId(chunk.getFirst().measurement()), receivedMicros, parsedMicros);
+    }
+
+    private OutboundMessage single(final TracedMeasurement traced) {
+        return new OutboundMessage(codec.encode(traced.measurement()), OutboundMessage.Kind.MEASUREMENT, groupId(traced.measurement()),
+                traced.receivedMicros(), traced.parsedMicros());
+    }
+
+    // Envelopes span a whole warehouse, so once they are enabled single messages join the warehouse group to stay
+    // ordered with them; otherwise each sensor gets its own group and can be spread across consumers.
+    private String groupId(final Measurement measurement) {
+        return groupId(measurement.warehouseId(), measurement.sensorId());
+    }
+
+    private String groupId(@Nullable final String warehouseId, final String sensorId) {
+        return envelopeSize > 1 ? String.valueOf(warehouseId) : warehouseId + "|" + sensorId;
+    }
+
+    private void deliver(final List<OutboundMessage> payloads) {
+        if (spool != null && !spool.isEmpty()) {
+            toSpool(payloads);
+            return;
+        }
+
+        try {
+            send(payloads);
+        } catch (final Exception ex) {
+            publishFailures.add(payloads.size());
+            supervisor.reportFailure(ex);
+            if (spool != null) {
+                if (undeliveredLog.sample()) undeliveredLog.log("Publish failed, spooling {} message(s). error={}", payloads.size(), ex.toString());
+                toSpool(payloads);
+                return;
+            }
+            if (undeliveredLog.sample()) undeliveredLog.log("Publish failed, dropping {} message(s). error={}", payloads.size(), ex.toString());
+        }
+    }
 
-            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            final Destination destination = session.createQueue(destinationName);
+    private void toSpool(final List<OutboundMessage> payloads) {
+        for (final var payload : payloads) {
+            if (!spool.append(payload.toRecord())) {
+                if (undeliveredLog.sample()) undeliveredLog.log("Spool is full, dropping message");
+            }
+        }
+    }
 
-            producer = session.createProducer(destination);
-            producer.setDeliveryMode(DeliveryMode.PERSISTENT);
+    // Runs on the background thread only, so batches replay one at a time and in order. A failure rolls the whole batch
+    // back, so the retry re-sends nothing the broker already accepted.
+    private void drainSpool() {
+        if (!supervisor.ready()) return;
 
-            logger.info("Publisher connected. brokerUrl={} destination={}", brokerUrl, destinationName);
+        try {
+            while (!spool.isEmpty()) {
+                final var batch = spool.peek(SPOOL_DRAIN_BATCH);
+                replay(batch.records().stream().map(OutboundMessage::fromRecord).toList());
+                spool.ack(batch);
+            }
         } catch (final Exception ex) {
-            logger.warn("Publisher failed to connect (will retry on publish). error={}", ex.toString());
-            safeClose();
+            logger.debug("Spool drain interrupted, will retry. error={}", ex.toString());
+            supervisor.reportFailure(ex);
         }
     }
 
-    private void ensureConnected() throws JMSException {
-        if (connection == null || session == null || producer == null) {
-            throw new JMSException("Publisher not connected");
+    private void send(final List<OutboundMessage> payloads) throws JMSException {
+        if (!supervisor.ready()) throw new JMSException("Publisher not connected");
+
+        final var connection = connectionFactory.createConnection();
+        try {
+            final var session = transacted
+                    ? connection.createSession(true, Session.SESSION_TRANSACTED)
+                    : connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            try {
+                final var producer = session.createProducer(destination);
+                producer.setDeliveryMode(DeliveryMode.PERSISTENT);
+                for (final var payload : payloads) {
+                    producer.send(createMessage(session, payload));
+                }
+                if (transacted) session.commit();
+            } finally {
+                // Returns the session, and its cached producer, to the pool.
+                session.close();
+            }
+        } finally {
+            connection.close();
         }
+        published.add(payloads.size());
     }
 
-    @Override
-    public synchronized void close() {
-        safeClose();
+    /**
+     * Sends one spooled batch in a single transaction. Sends inside a transaction are asynchronous, so a message the
+     * broker rejected would silently go missing from the committed batch; each send therefore asks for a confirmation,
+     * and the commit waits for all of them. The sends stay pipelined, with one round trip for the whole batch.
+     */
+    private void replay(final List<OutboundMessage> payloads) throws JMSException {
+        if (!supervisor.ready()) throw new JMSException("Publisher not connected");
+
+        final var connection = connectionFactory.createConnection();
+        try {
+            final var session = connection.createSession(true, Session.SESSION_TRANSACTED);
+            try {
+                // The pooled wrappers do not expose callback sends, so the batch goes through the session underneath.
+                final var internal = (ActiveMQSession) ((PooledSession) session).getInternalSession();
+                final var producer = (ActiveMQMessageProducer) internal.createProducer(destination);
+                try {
+                    producer.setDeliveryMode(DeliveryMode.PERSISTENT);
+                    final var confirmations = new Confirmations(payloads.size());
+                    for (final var payload : payloads) {
+                        producer.send(createMessage(internal, payload), confirmations);
+                    }
+                    confirmations.await(REPLAY_CONFIRM_TIMEOUT);
+                    session.commit();
+                } finally {
+                    producer.close();
+                }
+            } catch (final JMSException | RuntimeException ex) {
+                rollback(session);
+                throw ex;
+            } finally {
+                session.close();
+            }
+        } finally {
+            connection.close();
+        }
+        published.add(payloads.size());
+    }
+
+    private static final class Confirmations implements AsyncCallback {
+
+        private final CountDownLatch pending;
+        private volatile JMSException failure;
+
+        private Confirmations(final int count) {
+            this.pending = new CountDownLatch(count);
+        }
+
+        @Override
+        public void onSuccess() {
+            pending.countDown();
+        }
+
+        @Override
+        public void onException(final JMSException ex) {
+            failure = ex;
+            pending.countDown();
+        }
+
+        private void await(final Duration timeout) throws JMSException {
+            try {
+                if (!pending.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new JMSException("Broker did not confirm the replayed batch within " + timeout);
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new JMSException("Interrupted while waiting for the broker to confirm the replayed batch");
+            }
+            if (failure != null) throw failure;
+        }
     }
 
-    private void safeClose() {
+    private static void rollback(final Session session) {
         try {
-            if (producer != null) producer.close();
-        } catch (final Exception ignored) {
+            session.rollback();
+        } catch (final JMSException | RuntimeException ex) {
+            // The broker discards an uncommitted transaction when the connection goes away.
+            logger.debug("Unable to roll back publish transaction. error={}", ex.toString());
+        }
+    }
+
+    private Message createMessage(final Session session, final OutboundMessage outbound) throws JMSException {
+        final Message message;
+        if (outbound.kind() == OutboundMessage.Kind.SUMMARIES) {
+            message = session.createTextMessage(new String(outbound.payload(), StandardCharsets.UTF_8));
+            message.setStringProperty(MeasurementCodec.CONTENT_TYPE_PROPERTY, MeasurementJsonMapper.CONTENT_TYPE);
+            message.setBooleanProperty(MeasurementCodec.SUMMARY_PROPERTY, true);
+            message.setStringProperty(JMSX_GROUP_ID, outbound.groupId());
+            message.setLongProperty(TraceStamps.PUBLISHED_PROPERTY, TraceStamps.nowMicros());
+            return message;
+        }
+        if (codec.textual()) {
+            message = session.createTextMessage(new String(outbound.payload(), StandardCharsets.UTF_8));
+        } else {
+            final var bytesMessage = session.createBytesMessage();
+            bytesMessage.writeBytes(outbound.payload());
+            message = bytesMessage;
         }
+        message.setStringProperty(MeasurementCodec.CONTENT_TYPE_PROPERTY, codec.contentType());
+        if (outbound.envelope()) message.setBooleanProperty(MeasurementCodec.ENVELOPE_PROPERTY, true);
+        message.setStringProperty(JMSX_GROUP_ID, outbound.groupId());
+        if (outbound.traced()) {
+            message.setLongProperty(TraceStamps.RECEIVED_PROPERTY, outbound.receivedMicros());
+            message.setLongProperty(TraceStamps.PARSED_PROPERTY, outbound.parsedMicros());
+        }
+        message.setLongProperty(TraceStamps.PUBLISHED_PROPERTY, TraceStamps.nowMicros());
+        return message;
+    }
+
+    private void probe() throws JMSException {
+        final var connection = connectionFactory.createConnection();
         try {
-            if (session != null) session.close();
-        } catch (final Exception ignored) {
+            connection.start();
+            connection.createSession(false, Session.AUTO_ACKNOWLEDGE).close();
+        } finally {
+            connection.close();
         }
+        logger.info("Publisher connected. brokerUrl={} destination={} transacted={} connections={}",
+                brokerUrl, destination, transacted, connectionFactory.getMaxConnections());
+    }
+
+    boolean connected() {
+        return supervisor.ready();
+    }
+
+    @Override
+    public void close() {
+        supervisor.close();
+        background.shutdownNow();
         try {
-            if (connection != null) connection.close();
-        } catch (final Exception ignored) {
+            background.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
         }
-        producer = null;
-        session = null;
-        connection = null;
+        connectionFactory.stop();
+        if (spool != null) spool.close();
     }
 }
@@ -0,0 +1,37 @@
+package com.challenge.publisher;
+
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorSummary;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+public interface MeasurementPublisher extends AutoCloseable {
+
+    void publish(@NotNull Measurement measurement);
+
+    default void publishBatch(@NotNull final List<Measurement> measurements) {
+        measurements.forEach(this::publish);
+    }
+
+    /**
+     * Publishes with trace stamps; publishers that do not forward them fall back to {@link #publish(Measurement)}.
+     */
+    default void publish(@NotNull final TracedMeasurement measurement) {
+        publish(measurement.measurement());
+    }
+
+    default void publishTracedBatch(@NotNull final List<TracedMeasurement> measurements) {
+        publishBatch(measurements.stream().map(TracedMeasurement::measurement).toList());
+    }
+
+    /**
+     * Publishes pre-aggregated summaries; publishers without a summary message fall back to each summary's last reading.
+     */
+    default void publishSummaries(@NotNull final List<SensorSummary> summaries) {
+        summaries.forEach(summary -> publish(summary.lastMeasurement()));
+    }
+
+    @Override
+    void close();
+}
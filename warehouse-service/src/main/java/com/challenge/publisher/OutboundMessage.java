@@ -0,0 +1,65 @@
+package com.challenge.publisher;
+
+import com.challenge.trace.TraceStamps;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * An encoded payload ready to become a JMS message. {@code groupId} becomes {@code JMSXGroupID} so the broker pins every
+ * message of a sensor to one consumer. The spool stores it as
+ * {@code [byte flags][short groupId length][groupId][long received][long parsed][payload]}; the stamps are only present
+ * when the trace flag is set, so records spooled before stamps existed still read back.
+ */
+record OutboundMessage(byte @NotNull [] payload, @NotNull Kind kind, @NotNull String groupId, long receivedMicros, long parsedMicros) {
+
+    private static final byte ENVELOPE_FLAG = 1;
+    private static final byte TRACE_FLAG = 2;
+    private static final byte SUMMARY_FLAG = 4;
+
+    enum Kind {
+        MEASUREMENT, ENVELOPE, SUMMARIES
+    }
+
+    boolean envelope() {
+        return kind == Kind.ENVELOPE;
+    }
+
+    boolean traced() {
+        return receivedMicros != TraceStamps.NONE;
+    }
+
+    byte[] toRecord() {
+        final var group = groupId.getBytes(StandardCharsets.UTF_8);
+        final var kindFlag = switch (kind) {
+            case MEASUREMENT -> 0;
+            case ENVELOPE -> ENVELOPE_FLAG;
+            case SUMMARIES -> SUMMARY_FLAG;
+        };
+        final var flags = (byte) (kindFlag | (traced() ? TRACE_FLAG : 0));
+        final var buffer = ByteBuffer.allocate(Byte.BYTES + Short.BYTES + group.length + (traced() ? 2 * Long.BYTES : 0) + payload.length)
+                .put(flags)
+                .putShort((short) group.length)
+                .put(group);
+        if (traced()) buffer.putLong(receivedMicros).putLong(parsedMicros);
+        return buffer.put(payload).array();
+    }
+
+    static OutboundMessage fromRecord(final byte @NotNull [] record) {
+        final var buffer = ByteBuffer.wrap(record);
+        final var flags = buffer.get();
+        final var groupLength = buffer.getShort();
+        final var groupId = new String(record, buffer.position(), groupLength, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + groupLength);
+
+        final var traced = (flags & TRACE_FLAG) != 0;
+        final var receivedMicros = traced ? buffer.getLong() : TraceStamps.NONE;
+        final var parsedMicros = traced ? buffer.getLong() : TraceStamps.NONE;
+        final var kind = (flags & SUMMARY_FLAG) != 0 ? Kind.SUMMARIES
+                : (flags & ENVELOPE_FLAG) != 0 ? Kind.ENVELOPE
+                : Kind.MEASUREMENT;
+        return new OutboundMessage(Arrays.copyOfRange(record, buffer.position(), record.length), kind, groupId, receivedMicros, parsedMicros);
+    }
+}
@@ -0,0 +1,16 @@
+package com.challenge.publisher;
+
+import com.challenge.domain.SensorSummary;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * What {@link AsyncMeasurementPublisher} queues for its sender thread: single readings, which it batches, or one
+ * pre-aggregation flush, published where it was queued so it stays in order with the readings around it.
+ */
+sealed interface SenderItem permits TracedMeasurement, SenderItem.Summaries {
+
+    record Summaries(@NotNull List<SensorSummary> summaries) implements SenderItem {
+    }
+}
@@ -0,0 +1,24 @@
+package com.challenge.publisher;
+
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorRegistry;
+import com.challenge.trace.TraceStamps;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A measurement with the {@link TraceStamps} taken before it reached the publisher, and its {@link SensorRegistry} id
+ * when the listener already resolved one.
+ */
+public record TracedMeasurement(@NotNull Measurement measurement, int sensorKey, long receivedMicros, long parsedMicros) implements SenderItem {
+
+    public static TracedMeasurement untraced(@NotNull final Measurement measurement) {
+        return new TracedMeasurement(measurement, SensorRegistry.UNKNOWN, TraceStamps.NONE, TraceStamps.NONE);
+    }
+
+    /**
+     * @param registry the registry the listener keys readings with; ids from any other registry would be meaningless.
+     */
+    public int sensorKey(@NotNull final SensorRegistry registry) {
+        return sensorKey != SensorRegistry.UNKNOWN ? sensorKey : registry.id(measurement);
+    }
+}
@@ -0,0 +1,176 @@
+package com.challenge.spool;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Append-only write-ahead spool made of memory-mapped segment files. Records are replayed in append order through
+ * {@link #peek(int)} and only released by {@link #ack(Batch)}; a segment file is deleted once it has been fully
+ * acknowledged and a newer segment has taken over writes. The acknowledged offset lives in each segment header so a
+ * restart resumes where the last drain stopped.
+ * <p>
+ * {@link #isEmpty()} reads a pending-record count instead of taking the spool's monitor, since publishers consult it on
+ * every send to decide whether they must queue behind older records.
+ */
+public class MeasurementSpool implements AutoCloseable {
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("spool-(\\d{20})\\.seg");
+    private static final Logger logger = LoggerFactory.getLogger(MeasurementSpool.class);
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final ArrayDeque<SpoolSegment> segments = new ArrayDeque<>();
+    private final AtomicLong pending = new AtomicLong();
+
+    public record Batch(List<byte[]> records, long segmentSequence, int endOffset) {
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+    }
+
+    public MeasurementSpool(@NotNull final Path directory, final int segmentBytes, final int maxSegments) {
+        if (SpoolSegment.capacityFor(segmentBytes) <= 0) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = Math.max(1, maxSegments);
+
+        try {
+            Files.createDirectories(directory);
+            recover();
+            if (segments.isEmpty()) roll();
+        } catch (final IOException ex) {
+            throw new UncheckedIOException("Unable to open spool at " + directory, ex);
+        }
+    }
+
+    private void recover() throws IOException {
+        try (final var files = Files.list(directory)) {
+            final var existing = files
+                    .filter(path -> SEGMENT_FILE.matcher(path.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+
+            for (final var path : existing) {
+                final var matcher = SEGMENT_FILE.matcher(path.getFileName().toString());
+                if (!matcher.matches()) continue;
+                final var segment = SpoolSegment.open(path, Long.parseLong(matcher.group(1)));
+                segments.addLast(segment);
+                pending.addAndGet(unreadRecords(segment));
+            }
+        }
+
+        if (!segments.isEmpty()) {
+            logger.info("Recovered spool at {} with {} segment(s), pending={}", directory, segments.size(), pending.get());
+        }
+    }
+
+    private static long unreadRecords(final SpoolSegment segment) {
+        var count = 0L;
+        for (var offset = segment.readOffset(); offset < segment.writeOffset(); count++) {
+            offset += SpoolSegment.RECORD_OVERHEAD + segment.readAt(offset).length;
+        }
+        return count;
+    }
+
+    /**
+     * @return {@code false} when the record cannot be stored because the spool reached {@code maxSegments}.
+     */
+    public synchronized boolean append(final byte @NotNull [] record) {
+        if (record.length > SpoolSegment.capacityFor(segmentBytes)) {
+            throw new IllegalArgumentException("Record of " + record.length + " bytes exceeds segment capacity");
+        }
+
+        if (segments.getLast().tryAppend(record)) {
+            pending.incrementAndGet();
+            return true;
+        }
+
+        releaseConsumedSegments();
+        if (segments.size() >= maxSegments) return false;
+
+        try {
+            roll();
+        } catch (final IOException ex) {
+            throw new UncheckedIOException("Unable to roll spool segment in " + directory, ex);
+        }
+        if (!segments.getLast().tryAppend(record)) return false;
+        pending.incrementAndGet();
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return pending.get() == 0;
+    }
+
+    /**
+     * Returns up to {@code maxRecords} unacknowledged records from the oldest segment without consuming them.
+     */
+    public synchronized Batch peek(final int maxRecords) {
+        releaseConsumedSegments();
+
+        final var head = segments.getFirst();
+        final var records = new ArrayList<byte[]>(Math.min(maxRecords, 64));
+
+        var offset = head.readOffset();
+        while (records.size() < maxRecords && offset < head.writeOffset()) {
+            final var record = head.readAt(offset);
+            records.add(record);
+            offset += SpoolSegment.RECORD_OVERHEAD + record.length;
+        }
+
+        return new Batch(records, head.sequence(), offset);
+    }
+
+    public synchronized void ack(@NotNull final Batch batch) {
+        if (batch.isEmpty()) return;
+
+        for (final var segment : segments) {
+            if (segment.sequence() == batch.segmentSequence()) {
+                segment.commitRead(batch.endOffset());
+                pending.addAndGet(-batch.records().size());
+                break;
+            }
+        }
+        releaseConsumedSegments();
+    }
+
+    private void releaseConsumedSegments() {
+        while (segments.size() > 1 && !segments.getFirst().hasUnread()) {
+            final var consumed = segments.removeFirst();
+            try {
+                consumed.delete();
+            } catch (final IOException ex) {
+                logger.warn("Unable to delete consumed spool segment {}: {}", consumed.sequence(), ex.toString());
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        if (!segments.isEmpty()) segments.getLast().force();
+
+        final var sequence = segments.isEmpty() ? 0 : segments.getLast().sequence() + 1;
+        segments.addLast(SpoolSegment.create(directory, sequence, segmentBytes));
+    }
+
+    @Override
+    public synchronized void close() {
+        for (final var segment : segments) {
+            segment.force();
+        }
+    }
+}
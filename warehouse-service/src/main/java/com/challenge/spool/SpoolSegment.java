@@ -0,0 +1,122 @@
+package com.challenge.spool;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fixed-size memory-mapped segment. Layout: an 8 byte header holding the acknowledged read offset, followed by
+ * {@code [int length][payload]} records. The length is written after the payload so a torn write is never visible,
+ * and a zero length marks the end of data because new files are zero-filled.
+ */
+final class SpoolSegment {
+
+    static final int HEADER_BYTES = Long.BYTES;
+    static final int RECORD_OVERHEAD = Integer.BYTES;
+
+    private final long sequence;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+
+    private int writeOffset;
+    private int readOffset;
+
+    private SpoolSegment(final long sequence, final Path path, final MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.path = path;
+        this.buffer = buffer;
+    }
+
+    static SpoolSegment create(@NotNull final Path directory, final long sequence, final int sizeBytes) throws IOException {
+        final var segment = map(sequence, directory.resolve(fileName(sequence)), sizeBytes);
+        segment.writeOffset = HEADER_BYTES;
+        segment.commitRead(HEADER_BYTES);
+        return segment;
+    }
+
+    static SpoolSegment open(@NotNull final Path path, final long sequence) throws IOException {
+        final var segment = map(sequence, path, (int) Files.size(path));
+        segment.recover();
+        return segment;
+    }
+
+    static String fileName(final long sequence) {
+        return String.format("spool-%020d.seg", sequence);
+    }
+
+    private static SpoolSegment map(final long sequence, final Path path, final int sizeBytes) throws IOException {
+        try (final var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new SpoolSegment(sequence, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes));
+        }
+    }
+
+    private void recover() {
+        var offset = HEADER_BYTES;
+        while (offset + RECORD_OVERHEAD <= buffer.capacity()) {
+            final var length = buffer.getInt(offset);
+            if (length <= 0 || offset + RECORD_OVERHEAD + length > buffer.capacity()) break;
+            offset += RECORD_OVERHEAD + length;
+        }
+        writeOffset = offset;
+
+        final var committed = buffer.getLong(0);
+        readOffset = committed >= HEADER_BYTES && committed <= writeOffset ? (int) committed : HEADER_BYTES;
+    }
+
+    boolean tryAppend(final byte @NotNull [] record) {
+        if (writeOffset + RECORD_OVERHEAD + record.length > buffer.capacity()) return false;
+
+        buffer.put(writeOffset + RECORD_OVERHEAD, record);
+        buffer.putInt(writeOffset, record.length);
+        writeOffset += RECORD_OVERHEAD + record.length;
+        return true;
+    }
+
+    boolean hasUnread() {
+        return readOffset < writeOffset;
+    }
+
+    int readOffset() {
+        return readOffset;
+    }
+
+    /**
+     * Reads the record starting at {@code offset} into a new array; the next record begins at
+     * {@code offset + RECORD_OVERHEAD + result.length}.
+     */
+    byte[] readAt(final int offset) {
+        final var record = new byte[buffer.getInt(offset)];
+        buffer.get(offset + RECORD_OVERHEAD, record);
+        return record;
+    }
+
+    int writeOffset() {
+        return writeOffset;
+    }
+
+    void commitRead(final int offset) {
+        readOffset = offset;
+        buffer.putLong(0, offset);
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    static int capacityFor(final int sizeBytes) {
+        return sizeBytes - HEADER_BYTES - RECORD_OVERHEAD;
+    }
+}
@@ -0,0 +1,148 @@
+package com.challenge.edge;
+
+import com.challenge.config.AdmissionConfig;
+import com.challenge.config.AlarmThresholds;
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorRegistry;
+import com.challenge.domain.SensorType;
+import com.challenge.metrics.MetricsRegistry;
+import com.challenge.publisher.MeasurementPublisher;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControllerTest {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    @Test
+    void admit_shouldAdmitEverything_whileNotOverloaded() {
+        // given
+        final var underTest = controller(AdmissionConfig.ShedPolicy.CHANGED);
+
+        // when
+        final var admitted = IntStream.range(0, 5).filter(i -> underTest.admit(temperature("t1", 20), i * TICK)).count();
+
+        // then
+        assertEquals(5, admitted);
+        assertFalse(underTest.shedding());
+    }
+
+    @Test
+    void admit_shouldOnlyKeepChangedValues_whenShedding() {
+        // given
+        final var underTest = controller(AdmissionConfig.ShedPolicy.CHANGED);
+        underTest.admit(temperature("t1", 20), 0);
+        queueDepth.set(90);
+
+        // when
+        final var results = List.of(
+                underTest.admit(temperature("t1", 20), TICK),
+                underTest.admit(temperature("t1", 21), 2 * TICK),
+                underTest.admit(temperature("t1", 21), 3 * TICK),
+                underTest.admit(temperature("t2", 21), 4 * TICK));
+
+        // then
+        assertTrue(underTest.shedding());
+        assertEquals(List.of(false, true, false, true), results);
+    }
+
+    @Test
+    void admit_shouldKeepOneInN_whenSampling() {
+        // given
+        final var underTest = controller(AdmissionConfig.ShedPolicy.SAMPLE);
+        queueDepth.set(90);
+
+        // when
+        final var admitted = IntStream.range(0, 10)
+                .filter(i -> underTest.admit(temperature("t1", 20), (i + 1) * TICK))
+                .boxed()
+                .toList();
+
+        // then
+        assertEquals(List.of(0, 3, 6, 9), admitted);
+    }
+
+    @Test
+    void admit_shouldNeverShedReadingsAboveThreshold() {
+        // given
+        final var underTest = controller(AdmissionConfig.ShedPolicy.CHANGED);
+        queueDepth.set(90);
+        underTest.admit(temperature("t1", 40), TICK);
+
+        // when
+        final var admitted = underTest.admit(temperature("t1", 40), 2 * TICK);
+
+        // then
+        assertTrue(underTest.shedding());
+        assertTrue(admitted);
+    }
+
+    @Test
+    void admit_shouldKeepTheClearAfterABreach_whenSampling() {
+        // given
+        final var underTest = controller(AdmissionConfig.ShedPolicy.SAMPLE);
+        queueDepth.set(90);
+
+        // when
+        final var results = List.of(
+                underTest.admit(temperature("t1", 20), TICK),
+                underTest.admit(temperature("t1", 40), 2 * TICK),
+                underTest.admit(temperature("t1", 20), 3 * TICK),
+                underTest.admit(temperature("t1", 20), 4 * TICK));
+
+        // then
+        assertTrue(underTest.shedding());
+        assertEquals(List.of(true, true, true, false), results);
+    }
+
+    @Test
+    void admit_shouldStopShedding_onlyBelowLowWatermark() {
+        // given
+        final var underTest = controller(AdmissionConfig.ShedPolicy.CHANGED);
+        queueDepth.set(90);
+        underTest.admit(temperature("t1", 20), TICK);
+
+        // when
+        queueDepth.set(60);
+        underTest.admit(temperature("t1", 20), 2 * TICK);
+        final var sheddingBetweenWatermarks = underTest.shedding();
+        queueDepth.set(40);
+        final var admitted = underTest.admit(temperature("t1", 20), 3 * TICK);
+
+        // then
+        assertTrue(sheddingBetweenWatermarks);
+        assertFalse(underTest.shedding());
+        assertTrue(admitted);
+    }
+
+    private AdmissionController controller(final AdmissionConfig.ShedPolicy policy) {
+        final var config = new AdmissionConfig(true, policy, 80, 50, 1_000, 3);
+        return new AdmissionController(new NoopPublisher(), config, AlarmThresholds.defaults(), new SensorRegistry(), queueDepth::get, 100, new MetricsRegistry());
+    }
+
+    private static Measurement temperature(final String sensorId, final int value) {
+        return new Measurement("WH-1", sensorId, SensorType.TEMPERATURE, value, 0);
+    }
+
+    private static final class NoopPublisher implements MeasurementPublisher {
+
+        @Override
+        public void publish(@NotNull final Measurement measurement) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.challenge.edge;
+
+import com.challenge.config.AlarmThresholds;
+import com.challenge.config.DeadbandConfig;
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorRegistry;
+import com.challenge.domain.SensorType;
+import com.challenge.metrics.MetricsRegistry;
+import com.challenge.publisher.MeasurementPublisher;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DeadbandFilterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final DeadbandFilter underTest = new DeadbandFilter(new NoopPublisher(), new DeadbandConfig(true, 1, 10_000),
+            AlarmThresholds.defaults(), new SensorRegistry(), new MetricsRegistry());
+
+    @Test
+    void pass_shouldOnlyForwardMovesLargerThanDelta() {
+        // when
+        final var results = List.of(
+                underTest.pass(temperature("t1", 20), 0),
+                underTest.pass(temperature("t1", 21), SECOND),
+                underTest.pass(temperature("t1", 22), 2 * SECOND),
+                underTest.pass(temperature("t1", 21), 3 * SECOND),
+                underTest.pass(temperature("t1", 20), 4 * SECOND));
+
+        // then
+        assertEquals(List.of(true, false, true, false, true), results);
+    }
+
+    @Test
+    void pass_shouldForwardHeartbeat_whenValueIsSteady() {
+        // given
+        underTest.pass(temperature("t1", 20), 0);
+
+        // when
+        final var beforeHeartbeat = underTest.pass(temperature("t1", 20), 9 * SECOND);
+        final var atHeartbeat = underTest.pass(temperature("t1", 20), 10 * SECOND);
+        final var afterHeartbeat = underTest.pass(temperature("t1", 20), 11 * SECOND);
+
+        // then
+        assertEquals(List.of(false, true, false), List.of(beforeHeartbeat, atHeartbeat, afterHeartbeat));
+    }
+
+    @Test
+    void pass_shouldForwardEveryReading_whileAboveThresholdAndTheClear() {
+        // given
+        underTest.pass(temperature("t1", 35), 0);
+
+        // when
+        final var results = List.of(
+                underTest.pass(temperature("t1", 36), SECOND),
+                underTest.pass(temperature("t1", 36), 2 * SECOND),
+                underTest.pass(temperature("t1", 35), 3 * SECOND),
+                underTest.pass(temperature("t1", 35), 4 * SECOND));
+
+        // then
+        assertEquals(List.of(true, true, true, false), results);
+    }
+
+    @Test
+    void pass_shouldTrackSensorsAndTypesSeparately() {
+        // given
+        underTest.pass(temperature("t1", 20), 0);
+
+        // when
+        final var otherSensor = underTest.pass(temperature("t2", 20), SECOND);
+        final var otherType = underTest.pass(new Measurement("WH-1", "t1", SensorType.HUMIDITY, 20, 0), SECOND);
+
+        // then
+        assertEquals(List.of(true, true), List.of(otherSensor, otherType));
+    }
+
+    @Test
+    void publish_shouldOnlyDelegateForwardedReadings() {
+        // given
+        final var delegate = new RecordingPublisher();
+        final var filter = new DeadbandFilter(delegate, new DeadbandConfig(true, 0, 60_000), AlarmThresholds.defaults(), new SensorRegistry(), new MetricsRegistry());
+
+        // when
+        List.of(20, 20, 21, 21, 20).forEach(value -> filter.publish(temperature("t1", value)));
+
+        // then
+        assertEquals(List.of(20, 21, 20), delegate.values);
+    }
+
+    private static Measurement temperature(final String sensorId, final int value) {
+        return new Measurement("WH-1", sensorId, SensorType.TEMPERATURE, value, 0);
+    }
+
+    private static class NoopPublisher implements MeasurementPublisher {
+
+        @Override
+        public void publish(@NotNull final Measurement measurement) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class RecordingPublisher extends NoopPublisher {
+
+        private final List<Integer> values = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(@NotNull final Measurement measurement) {
+            values.add(measurement.value());
+        }
+    }
+}
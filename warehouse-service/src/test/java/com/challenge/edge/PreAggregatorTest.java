@@ -0,0 +1,110 @@
+package com.challenge.edge;
+
+import com.challenge.config.AlarmThresholds;
+import com.challenge.config.PreAggregationConfig;
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorRegistry;
+import com.challenge.domain.SensorSummary;
+import com.challenge.domain.SensorType;
+import com.challenge.metrics.MetricsRegistry;
+import com.challenge.publisher.MeasurementPublisher;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreAggregatorTest {
+
+    private final RecordingPublisher delegate = new RecordingPublisher();
+    private final PreAggregator underTest = new PreAggregator(delegate, new PreAggregationConfig(true, 10_000), "WH-1",
+            AlarmThresholds.defaults(), new SensorRegistry(), new MetricsRegistry());
+
+    @Test
+    void flush_shouldPublishOneSummaryPerSensor() {
+        // given
+        underTest.publish(temperature("t1", 20, 1_000));
+        underTest.publish(temperature("t1", 25, 2_000));
+        underTest.publish(temperature("t1", 22, 3_000));
+        underTest.publish(new Measurement("WH-1", "h1", SensorType.HUMIDITY, 40, 1_500));
+
+        // when
+        underTest.flush();
+
+        // then
+        assertTrue(delegate.sent.isEmpty());
+        assertEquals(1, delegate.summaryBatches.size());
+        final var summaries = delegate.summaryBatches.getFirst().stream()
+                .sorted(Comparator.comparing(SensorSummary::sensorId))
+                .toList();
+        assertEquals(List.of(
+                new SensorSummary("WH-1", "h1", SensorType.HUMIDITY, 1, 40, 40, 40, 40, 1_500, 1_500),
+                new SensorSummary("WH-1", "t1", SensorType.TEMPERATURE, 3, 20, 25, 67, 22, 1_000, 3_000)
+        ), summaries);
+    }
+
+    @Test
+    void flush_shouldStartFreshSummariesAfterEachInterval() {
+        // given
+        underTest.publish(temperature("t1", 20, 1_000));
+        underTest.flush();
+        underTest.publish(temperature("t1", 30, 11_000));
+
+        // when
+        underTest.flush();
+        underTest.flush();
+
+        // then
+        assertEquals(2, delegate.summaryBatches.size());
+        assertEquals(new SensorSummary("WH-1", "t1", SensorType.TEMPERATURE, 1, 30, 30, 30, 30, 11_000, 11_000),
+                delegate.summaryBatches.get(1).getFirst());
+    }
+
+    @Test
+    void publish_shouldForwardBreachAndClearAtOnce_afterTheOpenSummary() {
+        // given
+        underTest.publish(temperature("t1", 20, 1_000));
+
+        // when
+        underTest.publish(temperature("t1", 40, 2_000));
+        underTest.publish(temperature("t1", 41, 3_000));
+        underTest.publish(temperature("t1", 30, 4_000));
+        underTest.publish(temperature("t1", 31, 5_000));
+
+        // then
+        assertEquals(List.of("summary:20", "40", "41", "30"), delegate.events);
+        underTest.flush();
+        assertEquals("summary:31", delegate.events.getLast());
+    }
+
+    private static Measurement temperature(final String sensorId, final int value, final long timestamp) {
+        return new Measurement("WH-1", sensorId, SensorType.TEMPERATURE, value, timestamp);
+    }
+
+    private static final class RecordingPublisher implements MeasurementPublisher {
+
+        private final List<Measurement> sent = new CopyOnWriteArrayList<>();
+        private final List<List<SensorSummary>> summaryBatches = new CopyOnWriteArrayList<>();
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(@NotNull final Measurement measurement) {
+            sent.add(measurement);
+            events.add(String.valueOf(measurement.value()));
+        }
+
+        @Override
+        public void publishSummaries(@NotNull final List<SensorSummary> summaries) {
+            summaryBatches.add(summaries);
+            summaries.forEach(summary -> events.add("summary:" + summary.last()));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -6,9 +6,13 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class MeasurementParserTest {
@@ -122,6 +126,115 @@ class MeasurementParserTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void parseBytes_shouldParseValidPayload_fromDirectBuffer() {
+        // given
+        final var payload = direct("sensor_id=t1; value=30");
+
+        // when
+        final var result = underTest.parse(payload, SensorType.TEMPERATURE);
+
+        // then
+        assertTrue(result.isPresent());
+
+        final var m = result.orElseThrow();
+        assertEquals(DEFAULT_WAREHOUSE, m.warehouseId());
+        assertEquals("t1", m.sensorId());
+        assertEquals(SensorType.TEMPERATURE, m.type());
+        assertEquals(30, m.value());
+        assertEquals(0, payload.position());
+    }
+
+    @Test
+    void parseBytes_shouldOnlyReadBetweenPositionAndLimit() {
+        // given
+        final var bytes = "xxsensor_id=t7;value=12yy".getBytes(StandardCharsets.US_ASCII);
+        final var payload = ByteBuffer.wrap(bytes, 2, bytes.length - 4);
+
+        // when
+        final var result = underTest.parse(payload, SensorType.HUMIDITY);
+
+        // then
+        assertTrue(result.isPresent());
+        assertEquals("t7", result.orElseThrow().sensorId());
+        assertEquals(12, result.orElseThrow().value());
+    }
+
+    @Test
+    void parseBytes_shouldReuseSensorIdInstance_forRepeatedSensor() {
+        // given
+        final var first = underTest.parse(direct("sensor_id=abc; value=1"), SensorType.TEMPERATURE).orElseThrow();
+
+        // when
+        final var second = underTest.parse(direct("sensor_id=abc; value=2"), SensorType.TEMPERATURE).orElseThrow();
+
+        // then
+        assertSame(first.sensorId(), second.sensorId());
+    }
+
+    @Test
+    void sensorKey_shouldBeStable_acrossStrictAndTolerantPayloads() {
+        // given
+        final var strict = underTest.parse(direct("sensor_id=abc; value=1"), SensorType.TEMPERATURE).orElseThrow();
+        final var strictKey = underTest.sensorKey(strict);
+
+        // when
+        final var tolerant = underTest.parse(direct("value=2; sensor_id=abc"), SensorType.TEMPERATURE).orElseThrow();
+        final var tolerantKey = underTest.sensorKey(tolerant);
+        final var humidity = underTest.parse(direct("sensor_id=abc; value=3"), SensorType.HUMIDITY).orElseThrow();
+        final var humidityKey = underTest.sensorKey(humidity);
+
+        // then
+        assertEquals(strictKey, tolerantKey);
+        assertNotEquals(strictKey, humidityKey);
+        assertSame(strict.sensorId(), tolerant.sensorId());
+    }
+
+    @Test
+    void parseBytes_shouldFallBackToTolerantParsing_forReorderedPayload() {
+        // given
+        final var payload = direct("  value = 7 ; foo=bar ; sensor_id = s9  ");
+
+        // when
+        final var result = underTest.parse(payload, SensorType.TEMPERATURE);
+
+        // then
+        assertTrue(result.isPresent());
+        assertEquals("s9", result.orElseThrow().sensorId());
+        assertEquals(7, result.orElseThrow().value());
+    }
+
+    @Test
+    void parseBytes_shouldFallBackToTolerantParsing_forNegativeNumbers() {
+        // given
+        final var payload = direct("sensor_id=t1; value=-10");
+
+        // when
+        final var result = underTest.parse(payload, SensorType.TEMPERATURE);
+
+        // then
+        assertTrue(result.isPresent());
+        assertEquals(-10, result.orElseThrow().value());
+    }
+
+    @ParameterizedTest(name = "[{index}] payload=\"{0}\", type={1}")
+    @MethodSource("invalidInputs")
+    void parseBytes_shouldReturnEmpty_forInvalidInputs(final String payload, final SensorType type) {
+        // given
+        final var buffer = direct(payload == null ? "" : payload);
+
+        // when
+        final var result = underTest.parse(buffer, type);
+
+        // then
+        assertTrue(result.isEmpty());
+    }
+
+    private static ByteBuffer direct(final String payload) {
+        final var bytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+
     private static Stream<Arguments> invalidInputs() {
         return Stream.of(
                 Arguments.of(null, SensorType.TEMPERATURE),
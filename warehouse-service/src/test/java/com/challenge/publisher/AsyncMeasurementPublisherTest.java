@@ -0,0 +1,147 @@
+package com.challenge.publisher;
+
+import com.challenge.config.PublisherConfig;
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorSummary;
+import com.challenge.domain.SensorType;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncMeasurementPublisherTest {
+
+    private final RecordingPublisher delegate = new RecordingPublisher();
+
+    @Test
+    void publish_shouldDeliverInBatchesOfAtMostFlushSize() {
+        // given
+        final var underTest = new AsyncMeasurementPublisher(delegate, config(100, 4, PublisherConfig.OverflowPolicy.BLOCK));
+        IntStream.range(0, 10).forEach(i -> underTest.publish(measurement(i)));
+
+        // when
+        underTest.start();
+        underTest.close();
+
+        // then
+        assertEquals(IntStream.range(0, 10).boxed().toList(), delegate.values());
+        assertTrue(delegate.batches.stream().allMatch(batch -> batch.size() <= 4));
+        assertEquals(List.of(4, 4, 2), delegate.batches.stream().map(List::size).toList());
+        assertTrue(delegate.closed);
+    }
+
+    @Test
+    void publish_shouldDropNewest_whenQueueIsFull() {
+        // given
+        final var underTest = new AsyncMeasurementPublisher(delegate, config(3, 10, PublisherConfig.OverflowPolicy.DROP_NEWEST));
+
+        // when
+        IntStream.range(0, 5).forEach(i -> underTest.publish(measurement(i)));
+        underTest.start();
+        underTest.close();
+
+        // then
+        assertEquals(List.of(0, 1, 2), delegate.values());
+        assertEquals(2, underTest.droppedCount());
+    }
+
+    @Test
+    void publish_shouldDropOldest_whenQueueIsFull() {
+        // given
+        final var underTest = new AsyncMeasurementPublisher(delegate, config(3, 10, PublisherConfig.OverflowPolicy.DROP_OLDEST));
+
+        // when
+        IntStream.range(0, 5).forEach(i -> underTest.publish(measurement(i)));
+        underTest.start();
+        underTest.close();
+
+        // then
+        assertEquals(List.of(2, 3, 4), delegate.values());
+        assertEquals(2, underTest.droppedCount());
+    }
+
+    @Test
+    void publish_shouldKeepDraining_whenDelegateFails() {
+        // given
+        delegate.failNext = true;
+        final var underTest = new AsyncMeasurementPublisher(delegate, config(10, 1, PublisherConfig.OverflowPolicy.BLOCK));
+
+        // when
+        IntStream.range(0, 3).forEach(i -> underTest.publish(measurement(i)));
+        underTest.start();
+        underTest.close();
+
+        // then
+        assertEquals(List.of(1, 2), delegate.values());
+    }
+
+    @Test
+    void publishSummaries_shouldGoThroughTheQueue_inOrderWithReadings() {
+        // given
+        final var underTest = new AsyncMeasurementPublisher(delegate, config(100, 10, PublisherConfig.OverflowPolicy.BLOCK));
+        final var summary = new SensorSummary("WH-1", "t1", SensorType.TEMPERATURE, 2, 1, 2, 3, 2, 1_700_000_000L, 1_700_000_001L);
+
+        // when
+        underTest.publish(measurement(0));
+        underTest.publish(measurement(1));
+        underTest.publishSummaries(List.of(summary));
+        underTest.publish(measurement(2));
+        final var queuedBeforeStart = delegate.events.isEmpty();
+        underTest.start();
+        underTest.close();
+
+        // then
+        assertTrue(queuedBeforeStart);
+        assertEquals(List.of("readings [0, 1]", "summaries 1", "readings [2]"), delegate.events);
+    }
+
+    private static PublisherConfig config(final int capacity, final int flushSize, final PublisherConfig.OverflowPolicy policy) {
+        return new PublisherConfig(PublisherConfig.PublishMode.ASYNC, capacity, flushSize, 1, policy, PublisherConfig.WireFormat.JSON, 1, 1);
+    }
+
+    private static Measurement measurement(final int value) {
+        return new Measurement("WH-1", "t1", SensorType.TEMPERATURE, value, 1_700_000_000L);
+    }
+
+    private static final class RecordingPublisher implements MeasurementPublisher {
+
+        private final List<List<Measurement>> batches = new CopyOnWriteArrayList<>();
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile boolean failNext;
+        private volatile boolean closed;
+
+        @Override
+        public void publish(@NotNull final Measurement measurement) {
+            publishBatch(List.of(measurement));
+        }
+
+        @Override
+        public void publishBatch(@NotNull final List<Measurement> measurements) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("broker down");
+            }
+            batches.add(List.copyOf(measurements));
+            events.add("readings " + measurements.stream().map(Measurement::value).toList());
+        }
+
+        @Override
+        public void publishSummaries(@NotNull final List<SensorSummary> summaries) {
+            events.add("summaries " + summaries.size());
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        private List<Integer> values() {
+            return batches.stream().flatMap(List::stream).map(Measurement::value).toList();
+        }
+    }
+}
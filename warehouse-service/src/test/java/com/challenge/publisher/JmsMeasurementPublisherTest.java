@@ -0,0 +1,178 @@
+package com.challenge.publisher;
+
+import com.challenge.connection.ReconnectConfig;
+import com.challenge.domain.Measurement;
+import com.challenge.domain.SensorSummary;
+import com.challenge.domain.SensorType;
+import com.challenge.metrics.MetricsRegistry;
+import com.challenge.serialization.MeasurementJsonMapper;
+import com.challenge.spool.MeasurementSpool;
+import com.challenge.trace.TraceStamps;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerPlugin;
+import org.apache.activemq.broker.BrokerPluginSupport;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.broker.ProducerBrokerExchange;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.apache.activemq.command.Message;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JmsMeasurementPublisherTest {
+
+    // Nothing listens on port 1, so every connect attempt is refused at once.
+    private static final String UNREACHABLE_BROKER = "tcp://localhost:1";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void publish_shouldSpoolWithoutWaitingOnTheBroker_whileDisconnected() {
+        // given
+        final var spool = new MeasurementSpool(directory, 64 * 1024, 4);
+        final var metrics = new MetricsRegistry();
+        final var underTest = new JmsMeasurementPublisher(UNREACHABLE_BROKER, "measurements.queue", new MeasurementJsonMapper(),
+                false, 1, 2, spool, Duration.ofHours(1), ReconnectConfig.defaults(), metrics);
+
+        // when
+        assertTimeoutPreemptively(Duration.ofSeconds(1),
+                () -> IntStream.range(0, 100).forEach(i -> underTest.publish(measurement(i))));
+
+        // then
+        assertFalse(underTest.connected());
+        assertEquals(100, spool.peek(1_000).records().size());
+        underTest.close();
+    }
+
+    @Test
+    void publishBatch_shouldDropAndCount_whileDisconnectedWithoutSpool() {
+        // given
+        final var metrics = new MetricsRegistry();
+        final var underTest = new JmsMeasurementPublisher(UNREACHABLE_BROKER, "measurements.queue", new MeasurementJsonMapper(),
+                true, 1, 1, null, Duration.ZERO, ReconnectConfig.defaults(), metrics);
+
+        // when
+        underTest.publishBatch(IntStream.range(0, 5).mapToObj(JmsMeasurementPublisherTest::measurement).toList());
+
+        // then
+        assertFalse(underTest.connected());
+        assertEquals(5, metrics.counter("warehouse_publish_failures_total", "").get());
+        underTest.close();
+    }
+
+    @Test
+    void publishSummaries_shouldUseTheSensorGroupOfSingleReadings() {
+        // given
+        final var spool = new MeasurementSpool(directory, 64 * 1024, 4);
+        final var underTest = new JmsMeasurementPublisher(UNREACHABLE_BROKER, "measurements.queue", new MeasurementJsonMapper(),
+                false, 1, 1, spool, Duration.ofHours(1), ReconnectConfig.defaults(), new MetricsRegistry());
+
+        // when
+        underTest.publishSummaries(List.of(
+                new SensorSummary("WH-1", "t1", SensorType.TEMPERATURE, 2, 20, 21, 41, 21, 1_700_000_000_000L, 1_700_000_001_000L),
+                new SensorSummary("WH-1", "t2", SensorType.TEMPERATURE, 1, 22, 22, 22, 22, 1_700_000_000_000L, 1_700_000_000_000L)));
+        underTest.publish(measurement(30));
+
+        // then
+        final var groups = spool.peek(10).records().stream().map(record -> OutboundMessage.fromRecord(record).groupId()).toList();
+        assertEquals(List.of("WH-1|t1", "WH-1|t2", "WH-1|t1"), groups);
+        underTest.close();
+    }
+
+    @Test
+    void drainSpool_shouldReplayEachRecordOnce_whenTheBrokerFailsMidBatch() throws Exception {
+        // given
+        final var failThirdSend = new FailingSend(3);
+        final var broker = new BrokerService();
+        broker.setBrokerName("spool-replay");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.setAdvisorySupport(false);
+        broker.setPlugins(new BrokerPlugin[]{failThirdSend});
+        broker.start();
+        broker.waitUntilStarted();
+
+        final var mapper = new MeasurementJsonMapper();
+        final var spool = new MeasurementSpool(directory, 64 * 1024, 4);
+        IntStream.range(0, 5).forEach(i -> spool.append(new OutboundMessage(mapper.encode(measurement(i)), OutboundMessage.Kind.MEASUREMENT,
+                "WH-1|t1", TraceStamps.NONE, TraceStamps.NONE).toRecord()));
+
+        final var brokerUrl = "vm://spool-replay?create=false";
+        final var received = new ArrayList<String>();
+        final var consumerConnection = new ActiveMQConnectionFactory(brokerUrl).createConnection();
+        try {
+            consumerConnection.start();
+            final var consumer = consumerConnection.createSession(false, Session.AUTO_ACKNOWLEDGE)
+                    .createConsumer(new ActiveMQQueue("measurements.queue"));
+
+            // when
+            final var underTest = new JmsMeasurementPublisher(brokerUrl, "measurements.queue", mapper,
+                    false, 1, 1, spool, Duration.ofMillis(20), new ReconnectConfig(20, 100), new MetricsRegistry());
+            while (received.size() < 5) {
+                final var message = (TextMessage) consumer.receive(10_000);
+                if (message == null) break;
+                received.add(message.getText());
+            }
+            final var extra = consumer.receive(500);
+            underTest.close();
+
+            // then
+            assertEquals(1, failThirdSend.failures());
+            assertEquals(IntStream.range(0, 5).mapToObj(i -> new String(mapper.encode(measurement(i)), StandardCharsets.UTF_8)).toList(), received);
+            assertNull(extra);
+            assertTrue(spool.isEmpty());
+        } finally {
+            consumerConnection.close();
+            broker.stop();
+            broker.waitUntilStopped();
+        }
+    }
+
+    /**
+     * Rejects the n-th message the broker receives, once.
+     */
+    private static final class FailingSend extends BrokerPluginSupport {
+
+        private final int failAt;
+        private final AtomicInteger sends = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private FailingSend(final int failAt) {
+            this.failAt = failAt;
+        }
+
+        @Override
+        public void send(final ProducerBrokerExchange producerExchange, final Message message) throws Exception {
+            if (sends.incrementAndGet() == failAt) {
+                failures.incrementAndGet();
+                throw new IOException("Injected broker failure");
+            }
+            super.send(producerExchange, message);
+        }
+
+        private int failures() {
+            return failures.get();
+        }
+    }
+
+    private static Measurement measurement(final int i) {
+        return new Measurement("WH-1", "t1", SensorType.TEMPERATURE, i, 1_700_000_000_000L + i);
+    }
+}
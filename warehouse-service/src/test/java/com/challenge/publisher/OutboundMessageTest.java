@@ -0,0 +1,62 @@
+package com.challenge.publisher;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboundMessageTest {
+
+    @Test
+    void fromRecord_shouldRoundTripTraceStamps() {
+        // given
+        final var payload = "{}".getBytes(StandardCharsets.UTF_8);
+        final var message = new OutboundMessage(payload, OutboundMessage.Kind.ENVELOPE, "WH-1", 1_000, 1_250);
+
+        // when
+        final var restored = OutboundMessage.fromRecord(message.toRecord());
+
+        // then
+        assertArrayEquals(payload, restored.payload());
+        assertTrue(restored.envelope());
+        assertEquals("WH-1", restored.groupId());
+        assertEquals(1_000, restored.receivedMicros());
+        assertEquals(1_250, restored.parsedMicros());
+    }
+
+    @Test
+    void fromRecord_shouldKeepSummaryKind() {
+        // given
+        final var message = new OutboundMessage("[]".getBytes(StandardCharsets.UTF_8), OutboundMessage.Kind.SUMMARIES, "WH-1", 0, 0);
+
+        // when
+        final var restored = OutboundMessage.fromRecord(message.toRecord());
+
+        // then
+        assertEquals(OutboundMessage.Kind.SUMMARIES, restored.kind());
+        assertFalse(restored.traced());
+    }
+
+    @Test
+    void fromRecord_shouldReadRecordsSpooledWithoutStamps() {
+        // given
+        final var group = "WH-1|t1".getBytes(StandardCharsets.UTF_8);
+        final var payload = "{}".getBytes(StandardCharsets.UTF_8);
+        final var legacy = ByteBuffer.allocate(3 + group.length + payload.length)
+                .put((byte) 0).putShort((short) group.length).put(group).put(payload).array();
+
+        // when
+        final var restored = OutboundMessage.fromRecord(legacy);
+
+        // then
+        assertArrayEquals(payload, restored.payload());
+        assertFalse(restored.envelope());
+        assertEquals("WH-1|t1", restored.groupId());
+        assertFalse(restored.traced());
+    }
+}
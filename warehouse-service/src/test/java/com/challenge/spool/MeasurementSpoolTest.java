@@ -0,0 +1,139 @@
+package com.challenge.spool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MeasurementSpoolTest {
+
+    private static final int SEGMENT_BYTES = 64;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void peek_shouldReturnRecordsInAppendOrder_acrossSegments() {
+        // given
+        final var underTest = new MeasurementSpool(directory, SEGMENT_BYTES, 10);
+        IntStream.range(0, 12).forEach(i -> assertTrue(underTest.append(record("m" + i))));
+
+        // when
+        final var drained = drain(underTest);
+
+        // then
+        assertEquals(IntStream.range(0, 12).mapToObj(i -> "m" + i).toList(), drained);
+        assertTrue(underTest.isEmpty());
+    }
+
+    @Test
+    void ack_shouldDeleteFullyConsumedSegments() throws IOException {
+        // given
+        final var underTest = new MeasurementSpool(directory, SEGMENT_BYTES, 10);
+        IntStream.range(0, 12).forEach(i -> underTest.append(record("m" + i)));
+        assertTrue(segmentFiles() > 1);
+
+        // when
+        drain(underTest);
+
+        // then
+        assertEquals(1, segmentFiles());
+    }
+
+    @Test
+    void peek_shouldNotConsume_untilAcknowledged() {
+        // given
+        final var underTest = new MeasurementSpool(directory, SEGMENT_BYTES, 10);
+        underTest.append(record("a"));
+        underTest.append(record("b"));
+
+        // when
+        final var first = underTest.peek(10);
+        final var second = underTest.peek(10);
+
+        // then
+        assertEquals(List.of("a", "b"), decode(first));
+        assertEquals(List.of("a", "b"), decode(second));
+        assertFalse(underTest.isEmpty());
+    }
+
+    @Test
+    void append_shouldRejectRecords_whenMaxSegmentsReached() {
+        // given
+        final var underTest = new MeasurementSpool(directory, SEGMENT_BYTES, 1);
+
+        // when
+        final var accepted = IntStream.range(0, 20).filter(i -> underTest.append(record("m" + i))).count();
+
+        // then
+        assertTrue(accepted > 0 && accepted < 20);
+    }
+
+    @Test
+    void reopen_shouldResumeFromLastAcknowledgedRecord() {
+        // given
+        final var first = new MeasurementSpool(directory, SEGMENT_BYTES, 10);
+        IntStream.range(0, 5).forEach(i -> first.append(record("m" + i)));
+        first.ack(first.peek(2));
+        first.close();
+
+        // when
+        final var reopened = new MeasurementSpool(directory, SEGMENT_BYTES, 10);
+        reopened.append(record("m5"));
+
+        // then
+        assertEquals(List.of("m2", "m3", "m4", "m5"), drain(reopened));
+    }
+
+    @Test
+    void isEmpty_shouldTrackPendingRecords_acrossAckAndReopen() {
+        // given
+        final var first = new MeasurementSpool(directory, SEGMENT_BYTES, 10);
+        assertTrue(first.isEmpty());
+        IntStream.range(0, 3).forEach(i -> first.append(record("m" + i)));
+        first.ack(first.peek(2));
+        first.close();
+
+        // when
+        final var reopened = new MeasurementSpool(directory, SEGMENT_BYTES, 10);
+
+        // then
+        assertFalse(reopened.isEmpty());
+        reopened.ack(reopened.peek(10));
+        assertTrue(reopened.isEmpty());
+    }
+
+    private static List<String> drain(final MeasurementSpool spool) {
+        final var result = new ArrayList<String>();
+        while (!spool.isEmpty()) {
+            final var batch = spool.peek(3);
+            result.addAll(decode(batch));
+            spool.ack(batch);
+        }
+        return result;
+    }
+
+    private static List<String> decode(final MeasurementSpool.Batch batch) {
+        return batch.records().stream().map(bytes -> new String(bytes, StandardCharsets.UTF_8)).toList();
+    }
+
+    private static byte[] record(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long segmentFiles() throws IOException {
+        try (final var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}